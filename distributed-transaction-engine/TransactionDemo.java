@@ -7,6 +7,7 @@ import java.util.concurrent.atomic.*;
 public class TransactionDemo {
 
     private static final String BASE_URL = "http://localhost:8081";
+    private static final String HEALTH_URL = "http://localhost:8091/actuator/health";
     private static final AtomicInteger successCount = new AtomicInteger(0);
     private static final AtomicInteger failureCount = new AtomicInteger(0);
     private static final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
@@ -52,7 +53,7 @@ public class TransactionDemo {
 
     private static boolean isServiceRunning() {
         try {
-            URL url = new URL(BASE_URL + "/actuator/health");
+            URL url = new URL(HEALTH_URL);
             HttpURLConnection conn = (HttpURLConnection) url.openConnection();
             conn.setRequestMethod("GET");
             conn.setConnectTimeout(1000);
@@ -0,0 +1,48 @@
+package com.transactionengine.transaction.benchmark;
+
+import com.transactionengine.transaction.dto.TransactionRequest;
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import com.transactionengine.transaction.model.Transaction.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Representative requests and transactions shared by the benchmarks
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    public static TransactionRequest request() {
+        return TransactionRequest.builder()
+            .accountFrom("ACC-000012345")
+            .accountTo("ACC-000067890")
+            .amount(new BigDecimal("1250.75"))
+            .currency("USD")
+            .type(TransactionType.TRANSFER)
+            .description("Invoice 2024-0042")
+            .metadata("{\"channel\":\"api\",\"reference\":\"INV-2024-0042\"}")
+            .build();
+    }
+
+    public static Transaction completedTransaction(String transactionId) {
+        LocalDateTime createdAt = LocalDateTime.now().minusSeconds(1);
+        return Transaction.builder()
+            .transactionId(transactionId)
+            .accountFrom("ACC-000012345")
+            .accountTo("ACC-000067890")
+            .amount(new BigDecimal("1250.75"))
+            .currency("USD")
+            .type(TransactionType.TRANSFER)
+            .status(TransactionStatus.COMPLETED)
+            .description("Invoice 2024-0042")
+            .metadata("{\"channel\":\"api\",\"reference\":\"INV-2024-0042\"}")
+            .createdAt(createdAt)
+            .updatedAt(createdAt)
+            .completedAt(createdAt.plusNanos(4_000_000))
+            .build();
+    }
+}
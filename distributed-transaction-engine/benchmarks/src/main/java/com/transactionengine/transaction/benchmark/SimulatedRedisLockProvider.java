@@ -0,0 +1,65 @@
+package com.transactionengine.transaction.benchmark;
+
+import com.transactionengine.transaction.service.lock.LockProvider;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Stand-in for the Redisson lock provider that needs no Redis server: local
+ * locks, plus one simulated network round trip for every key acquired and
+ * released, as Redisson spends one Lua call on each, also inside a multi-lock.
+ */
+public class SimulatedRedisLockProvider implements LockProvider {
+
+    private final LockProvider delegate;
+    private final long roundTripNanos;
+
+    public SimulatedRedisLockProvider(LockProvider delegate, long roundTripMicros) {
+        this.delegate = delegate;
+        this.roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+    }
+
+    @Override
+    public AcquiredLock tryAcquire(String lockKey, long waitTime, long leaseTime, TimeUnit unit)
+            throws InterruptedException {
+        roundTrip(1);
+        return withRoundTrips(delegate.tryAcquire(lockKey, waitTime, leaseTime, unit), 1);
+    }
+
+    @Override
+    public AcquiredLock tryAcquireAll(List<String> lockKeys, long waitTime, long leaseTime, TimeUnit unit)
+            throws InterruptedException {
+        roundTrip(lockKeys.size());
+        return withRoundTrips(delegate.tryAcquireAll(lockKeys, waitTime, leaseTime, unit), lockKeys.size());
+    }
+
+    @Override
+    public boolean isLocked(String lockKey) {
+        roundTrip(1);
+        return delegate.isLocked(lockKey);
+    }
+
+    @Override
+    public void forceUnlock(String lockKey) {
+        roundTrip(1);
+        delegate.forceUnlock(lockKey);
+    }
+
+    private AcquiredLock withRoundTrips(AcquiredLock lock, int count) {
+        if (lock == null) {
+            return null;
+        }
+        return () -> {
+            roundTrip(count);
+            lock.release();
+        };
+    }
+
+    private void roundTrip(int count) {
+        if (roundTripNanos > 0) {
+            LockSupport.parkNanos(roundTripNanos * count);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.transactionengine.transaction.controller;
+
+import com.transactionengine.transaction.benchmark.BenchmarkData;
+import com.transactionengine.transaction.dto.TransactionRequest;
+import com.transactionengine.transaction.dto.TransactionResponse;
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import com.transactionengine.transaction.service.id.TimeOrderedIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request mapping in TransactionController: ID generation, request to
+ * entity, and entity to response, with the time-ordered ID generator.
+ * IdGeneratorBenchmark compares the generators themselves.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionMappingBenchmark {
+
+    private TransactionController controller;
+    private TransactionRequest request;
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        // The mapping methods use none of the controller's collaborators
+        controller = new TransactionController(null, null, null, null, null, null,
+            new TimeOrderedIdGenerator(1));
+        request = BenchmarkData.request();
+        transaction = BenchmarkData.completedTransaction("TXN-BENCHMARK");
+    }
+
+    @Benchmark
+    public String generateTransactionId() {
+        return controller.generateTransactionId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateTransactionIdContended() {
+        return controller.generateTransactionId();
+    }
+
+    @Benchmark
+    public Transaction toTransaction() {
+        return controller.toTransaction(request);
+    }
+
+    @Benchmark
+    public TransactionResponse toResponse() {
+        return controller.toResponse(transaction);
+    }
+
+    /**
+     * The entity builder alone, without generating an ID
+     */
+    @Benchmark
+    public Transaction entityBuilder() {
+        return Transaction.builder()
+            .transactionId("TXN-BENCHMARK")
+            .accountFrom(request.getAccountFrom())
+            .accountTo(request.getAccountTo())
+            .amount(request.getAmount())
+            .currency(request.getCurrency())
+            .type(request.getType())
+            .status(TransactionStatus.PENDING)
+            .description(request.getDescription())
+            .metadata(request.getMetadata())
+            .build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.transactionengine.transaction.repository;
+
+import com.transactionengine.transaction.service.id.IdGenerator;
+import com.transactionengine.transaction.service.id.IdStrategy;
+import com.transactionengine.transaction.service.id.RandomIdGenerator;
+import com.transactionengine.transaction.service.id.TimeOrderedIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput into a table keyed like transactions, with random versus
+ * time-ordered IDs for the primary key and the unique transaction ID. The
+ * table keeps growing across iterations, so later iterations show how each
+ * strategy copes once the indexes no longer fit in cache: random keys split
+ * pages all over the B-tree, time-ordered keys append at its right edge.
+ *
+ * Uses an in-memory H2 database by default; point it at Postgres by passing
+ * jdbc.url (and optionally jdbc.user and jdbc.password) to the forked JVM
+ * with -jvmArgsAppend.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 10, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionInsertBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO id_benchmark_transactions "
+        + "(id, transaction_id, account_from, amount, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Param({"random", "time-ordered"})
+    private String strategy;
+
+    private IdGenerator idGenerator;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        idGenerator = switch (IdStrategy.valueOf(strategy.toUpperCase().replace('-', '_'))) {
+            case TIME_ORDERED -> new TimeOrderedIdGenerator(1);
+            case RANDOM -> new RandomIdGenerator();
+        };
+
+        String url = System.getProperty("jdbc.url");
+        connection = url == null
+            ? DriverManager.getConnection("jdbc:h2:mem:insert-benchmark;DB_CLOSE_DELAY=-1", "sa", "")
+            : DriverManager.getConnection(url, System.getProperty("jdbc.user"), System.getProperty("jdbc.password"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS id_benchmark_transactions");
+            statement.execute("CREATE TABLE id_benchmark_transactions ("
+                + "id VARCHAR(64) PRIMARY KEY, "
+                + "transaction_id VARCHAR(64) NOT NULL UNIQUE, "
+                + "account_from VARCHAR(64) NOT NULL, "
+                + "amount NUMERIC(19, 2) NOT NULL, "
+                + "created_at TIMESTAMP NOT NULL)");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement(INSERT_SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        insert.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE id_benchmark_transactions");
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    /**
+     * One committed batch; the score is rows per second
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[] insertBatch() throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setString(1, idGenerator.nextId());
+            insert.setString(2, idGenerator.nextId("TXN-"));
+            insert.setString(3, "ACC-" + (i & 1023));
+            insert.setBigDecimal(4, BigDecimal.TEN);
+            insert.setTimestamp(5, now);
+            insert.addBatch();
+        }
+        int[] counts = insert.executeBatch();
+        connection.commit();
+        return counts;
+    }
+}
@@ -0,0 +1,99 @@
+package com.transactionengine.transaction.repository;
+
+import com.transactionengine.transaction.TransactionServiceApplication;
+import com.transactionengine.transaction.benchmark.BenchmarkData;
+import com.transactionengine.transaction.dto.TransactionResponse;
+import com.transactionengine.transaction.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /transactions/{id} read path against an in-memory H2 database: loading
+ * the entity and copying it into a response, as before, versus the
+ * constructor-expression projection. Run with -prof gc to compare allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionReadBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository repository;
+    private TransactionTemplate readOnly;
+    private String[] transactionIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Local profile on H2, without the web server and the background workers
+        context = new SpringApplicationBuilder(TransactionServiceApplication.class)
+            .web(WebApplicationType.NONE)
+            .profiles("local")
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "logging.level.com.transactionengine=WARN",
+                "app.transaction.journal.enabled=false",
+                "app.transaction.worker.enabled=false",
+                "app.transaction.outbox.relay-enabled=false",
+                "app.transaction.partitions.enabled=false")
+            .run();
+        repository = context.getBean(TransactionRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        transactionIds = new String[ROWS];
+        List<Transaction> transactions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            transactionIds[i] = "TXN-BENCH-" + i;
+            transactions.add(BenchmarkData.completedTransaction(transactionIds[i]));
+        }
+        repository.saveAll(transactions);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<TransactionResponse> entity() {
+        String transactionId = randomTransactionId();
+        return readOnly.execute(status ->
+            repository.findByTransactionId(transactionId).map(TransactionResponse::from));
+    }
+
+    @Benchmark
+    public Optional<TransactionResponse> projection() {
+        return repository.findResponseByTransactionId(randomTransactionId());
+    }
+
+    private String randomTransactionId() {
+        return transactionIds[ThreadLocalRandom.current().nextInt(ROWS)];
+    }
+}
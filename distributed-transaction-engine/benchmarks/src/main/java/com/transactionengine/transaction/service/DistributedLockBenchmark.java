@@ -0,0 +1,122 @@
+package com.transactionengine.transaction.service;
+
+import com.transactionengine.transaction.benchmark.SimulatedRedisLockProvider;
+import com.transactionengine.transaction.service.lock.HybridLockProvider;
+import com.transactionengine.transaction.service.lock.LockProvider;
+import com.transactionengine.transaction.service.lock.StripedLockProvider;
+import com.transactionengine.transaction.service.metrics.TransactionStageTimers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DistributedLockService.executeWithLock and executeWithLocks over the local
+ * striped provider, over a stand-in for Redis with a simulated round trip, and
+ * over the hybrid provider with stripes in front of that stand-in.
+ * Four threads either lock keys of their own or all contend for one key.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class DistributedLockBenchmark {
+
+    private static final long WAIT_SECONDS = 10;
+    private static final long LEASE_SECONDS = 30;
+
+    @Param({"local", "hybrid", "redis"})
+    public String backend;
+
+    /**
+     * Simulated Redis round trip; not used by the local backend
+     */
+    @Param({"200"})
+    public long roundTripMicros;
+
+    private final AtomicInteger threads = new AtomicInteger();
+    private DistributedLockService lockService;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        lockService = new DistributedLockService(provider(), new TransactionStageTimers(new SimpleMeterRegistry()));
+
+        // executeWithLocks reads the configured times, which only Spring would inject
+        setField("lockWaitTime", WAIT_SECONDS);
+        setField("lockLeaseTime", LEASE_SECONDS);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+        String own;
+        List<String> ownPair;
+
+        @Setup
+        public void setUp(DistributedLockBenchmark benchmark) {
+            int thread = benchmark.threads.getAndIncrement();
+            own = "account:lock:ACC-" + thread;
+            ownPair = List.of(own, "account:lock:ACC-" + (1000 + thread));
+        }
+    }
+
+    @Benchmark
+    public Integer uncontended(ThreadKeys keys) {
+        return lockService.executeWithLock(keys.own, WAIT_SECONDS, LEASE_SECONDS, TimeUnit.SECONDS,
+            DistributedLockBenchmark::work);
+    }
+
+    @Benchmark
+    public Integer contended() {
+        return lockService.executeWithLock("account:lock:ACC-SHARED", WAIT_SECONDS, LEASE_SECONDS,
+            TimeUnit.SECONDS, DistributedLockBenchmark::work);
+    }
+
+    /**
+     * Both accounts of a transfer, as processTransaction locks them
+     */
+    @Benchmark
+    public Integer uncontendedPair(ThreadKeys keys) {
+        return lockService.executeWithLocks(keys.ownPair, DistributedLockBenchmark::work);
+    }
+
+    private LockProvider provider() {
+        return switch (backend) {
+            case "local" -> new StripedLockProvider(1024);
+            case "redis" -> new SimulatedRedisLockProvider(new StripedLockProvider(1024), roundTripMicros);
+            case "hybrid" -> new HybridLockProvider(
+                new StripedLockProvider(1024),
+                new SimulatedRedisLockProvider(new StripedLockProvider(1024), roundTripMicros),
+                new SimpleMeterRegistry());
+            default -> throw new IllegalArgumentException("Unknown backend " + backend);
+        };
+    }
+
+    private void setField(String name, long value) throws ReflectiveOperationException {
+        Field field = DistributedLockService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.setLong(lockService, value);
+    }
+
+    private static Integer work() {
+        Blackhole.consumeCPU(100);
+        return 1;
+    }
+}
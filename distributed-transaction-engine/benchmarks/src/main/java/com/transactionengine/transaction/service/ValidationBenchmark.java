@@ -0,0 +1,60 @@
+package com.transactionengine.transaction.service;
+
+import com.transactionengine.transaction.benchmark.BenchmarkData;
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.service.TransactionProcessingService.ValidationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionProcessingService.validateTransaction on a valid transaction
+ * and on one it rejects, which pays for creating the exception
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private TransactionProcessingService service;
+    private Transaction valid;
+    private Transaction invalid;
+
+    @Setup
+    public void setUp() {
+        // Validation uses none of the injected collaborators
+        service = new TransactionProcessingService();
+        valid = BenchmarkData.completedTransaction("TXN-VALID");
+        invalid = BenchmarkData.completedTransaction("TXN-INVALID");
+        invalid.setAmount(BigDecimal.ZERO);
+    }
+
+    @Benchmark
+    public Transaction validTransaction() {
+        service.validateTransaction(valid);
+        return valid;
+    }
+
+    @Benchmark
+    public Object invalidTransaction() {
+        try {
+            service.validateTransaction(invalid);
+            return invalid;
+        } catch (ValidationException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.transactionengine.transaction.service.id;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction ID generation: the former UUID.randomUUID formatting, the
+ * random generator and the time-ordered one, on one thread and on four. Run
+ * with -prof gc to compare allocation per ID.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+
+    private final IdGenerator random = new RandomIdGenerator();
+    private final IdGenerator timeOrdered = new TimeOrderedIdGenerator(1);
+
+    @Benchmark
+    public String legacyUuid() {
+        return "TXN-" + UUID.randomUUID().toString().toUpperCase().replace("-", "");
+    }
+
+    @Benchmark
+    public String random() {
+        return random.nextId("TXN-");
+    }
+
+    @Benchmark
+    public String timeOrdered() {
+        return timeOrdered.nextId("TXN-");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String legacyUuidContended() {
+        return legacyUuid();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String randomContended() {
+        return random.nextId("TXN-");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String timeOrderedContended() {
+        return timeOrdered.nextId("TXN-");
+    }
+}
@@ -0,0 +1,107 @@
+package com.transactionengine.transaction.service.ledger;
+
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.model.Transaction.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccountLedger throughput in transfers per second from eight caller threads:
+ * one apply() per transfer, as processTransaction does, and applyAll() over
+ * batches of 100, as the batch path does. Transfers pick random pairs out of
+ * the given number of accounts, so most of them cross shards.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class AccountLedgerBenchmark {
+
+    private static final int BATCH = 100;
+
+    @Param({"8"})
+    public int shards;
+
+    @Param({"10000"})
+    public int accounts;
+
+    private AccountLedger ledger;
+    private Transaction[] transfers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        ledger = new AccountLedger();
+        // The settings only Spring would inject; no funds check, as accounts start empty
+        setField("shardCount", shards);
+        setField("queueCapacity", 65536);
+        setField("submitTimeoutMs", 1000L);
+        setField("applyTimeoutMs", 5000L);
+        setField("overdraftLimit", Long.MAX_VALUE / 4);
+        ledger.start();
+
+        transfers = new Transaction[4096];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < transfers.length; i++) {
+            transfers[i] = Transaction.builder()
+                .transactionId("TXN-LEDGER-" + i)
+                .accountFrom("ACC-" + random.nextInt(accounts))
+                .accountTo("ACC-" + random.nextInt(accounts))
+                .amount(new BigDecimal("12.34"))
+                .currency("USD")
+                .type(TransactionType.TRANSFER)
+                .build();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        ledger.stop();
+    }
+
+    @Benchmark
+    public Transaction apply() {
+        Transaction transaction = transfers[ThreadLocalRandom.current().nextInt(transfers.length)];
+        ledger.apply(transaction);
+        return transaction;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<RuntimeException> applyAll() {
+        int from = ThreadLocalRandom.current().nextInt(transfers.length - BATCH);
+        List<Transaction> batch = new ArrayList<>(BATCH);
+        for (int i = from; i < from + BATCH; i++) {
+            batch.add(transfers[i]);
+        }
+        return ledger.applyAll(batch);
+    }
+
+    private void setField(String name, Object value) throws ReflectiveOperationException {
+        Field field = AccountLedger.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(ledger, value);
+    }
+}
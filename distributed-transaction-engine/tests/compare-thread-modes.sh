@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Runs load-test.jmx against the transaction service once with platform threads
+# and once with virtual threads (needs a Java 21+ JVM on the PATH).
+# Results land in tests/results/<mode>/, with an HTML report per mode.
+#
+#   ./tests/compare-thread-modes.sh [threads] [duration-seconds]
+set -euo pipefail
+
+THREADS=${1:-1000}
+DURATION=${2:-120}
+PORT=${PORT:-8081}
+MANAGEMENT_PORT=${MANAGEMENT_PORT:-8091}
+STARTUP_TIMEOUT=${STARTUP_TIMEOUT:-180}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAR=$(ls "$ROOT"/transaction-service/target/transaction-service-*-exec.jar | head -1)
+
+run_mode() {
+  local mode=$1 virtual=$2
+  local out="$ROOT/tests/results/$mode"
+  rm -rf "$out" && mkdir -p "$out"
+
+  VIRTUAL_THREADS_ENABLED=$virtual MANAGEMENT_PORT=$MANAGEMENT_PORT java -Djdk.tracePinnedThreads=short \
+    -jar "$JAR" > "$out/service.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" EXIT
+
+  local deadline=$((SECONDS + STARTUP_TIMEOUT))
+  until curl -sf "http://localhost:$MANAGEMENT_PORT/actuator/health" > /dev/null; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "Service exited during startup ($mode); see $out/service.log" >&2
+      exit 1
+    fi
+    if (( SECONDS >= deadline )); then
+      echo "Service not healthy after ${STARTUP_TIMEOUT}s ($mode); see $out/service.log" >&2
+      exit 1
+    fi
+    sleep 1
+  done
+
+  jmeter -n -t "$ROOT/tests/load-test.jmx" \
+    -Jport="$PORT" -Jthreads="$THREADS" -Jduration="$DURATION" \
+    -Jresults="$out/results.jtl" -Jsummary="$out/summary.csv" \
+    -e -o "$out/report"
+
+  kill "$pid" && wait "$pid" 2>/dev/null || true
+  trap - EXIT
+  # Pinned virtual threads show up as stack traces in the service log
+  grep -c "onPinned\|<== monitors" "$out/service.log" > "$out/pinned-count.txt" || true
+}
+
+run_mode platform false
+run_mode virtual true
+
+echo "Reports: tests/results/platform/report and tests/results/virtual/report"
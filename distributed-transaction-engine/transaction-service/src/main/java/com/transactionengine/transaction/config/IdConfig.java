@@ -0,0 +1,101 @@
+package com.transactionengine.transaction.config;
+
+import com.transactionengine.transaction.model.TransactionIdentifierGenerator;
+import com.transactionengine.transaction.service.id.IdGenerator;
+import com.transactionengine.transaction.service.id.IdStrategy;
+import com.transactionengine.transaction.service.id.NodeIdLease;
+import com.transactionengine.transaction.service.id.RandomIdGenerator;
+import com.transactionengine.transaction.service.id.TimeOrderedIdGenerator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ID Configuration
+ * Selects the ID generator from app.transaction.id.generator, defaulting to
+ * time-ordered IDs. The node ID comes from app.transaction.id.node-id, or
+ * else from the ordinal of a StatefulSet pod when
+ * app.transaction.id.use-pod-ordinal is set, or else is leased from Redis.
+ * Host names are not trusted by default: EC2-style names such as
+ * ip-10-0-1-23 and ip-10-0-2-23 end in the same digits. Without any of these
+ * startup fails rather than risk two nodes sharing an ID.
+ */
+@Configuration
+@Slf4j
+public class IdConfig {
+
+    private static final Pattern POD_ORDINAL = Pattern.compile(".*-(\\d+)$");
+
+    @Value("${app.transaction.id.generator:time-ordered}")
+    private String generator;
+
+    @Value("${app.transaction.id.node-id:-1}")
+    private int nodeId;
+
+    @Value("${app.transaction.id.use-pod-ordinal:false}")
+    private boolean usePodOrdinal;
+
+    @Value("${app.transaction.id.lease-ttl:60s}")
+    private Duration leaseTtl;
+
+    @Value("${redisson.enabled:true}")
+    private boolean redissonEnabled;
+
+    @Value("${HOSTNAME:}")
+    private String hostname;
+
+    private NodeIdLease lease;
+
+    @Bean
+    public IdGenerator idGenerator(ObjectProvider<RedissonClient> redissonClient) {
+        IdStrategy strategy = IdStrategy.valueOf(generator.trim().toUpperCase().replace('-', '_'));
+
+        IdGenerator idGenerator = switch (strategy) {
+            case TIME_ORDERED -> new TimeOrderedIdGenerator(resolveNodeId(redissonClient));
+            case RANDOM -> new RandomIdGenerator();
+        };
+        TransactionIdentifierGenerator.use(idGenerator);
+        log.info("Using {} ID generator", strategy);
+        return idGenerator;
+    }
+
+    @PreDestroy
+    public void releaseNodeId() {
+        if (lease != null) {
+            lease.close();
+        }
+    }
+
+    private int resolveNodeId(ObjectProvider<RedissonClient> redissonClient) {
+        if (nodeId >= 0) {
+            log.info("ID generator node ID {}", nodeId);
+            return nodeId;
+        }
+        if (usePodOrdinal) {
+            Matcher ordinal = POD_ORDINAL.matcher(hostname);
+            if (!ordinal.matches() || ordinal.group(1).length() > 4
+                    || Integer.parseInt(ordinal.group(1)) > TimeOrderedIdGenerator.MAX_NODE_ID) {
+                throw new IllegalStateException("app.transaction.id.use-pod-ordinal is set but host name '"
+                    + hostname + "' has no pod ordinal between 0 and " + TimeOrderedIdGenerator.MAX_NODE_ID);
+            }
+            int derived = Integer.parseInt(ordinal.group(1));
+            log.info("ID generator node ID {} from pod ordinal of {}", derived, hostname);
+            return derived;
+        }
+        if (!redissonEnabled) {
+            throw new IllegalStateException("No node ID for the time-ordered ID generator: Redis is disabled; "
+                + "set app.transaction.id.node-id or app.transaction.id.use-pod-ordinal");
+        }
+        lease = new NodeIdLease(redissonClient.getObject(), leaseTtl);
+        log.info("ID generator node ID {} leased from Redis", lease.nodeId());
+        return lease.nodeId();
+    }
+}
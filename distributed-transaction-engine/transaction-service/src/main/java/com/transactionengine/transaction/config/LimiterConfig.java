@@ -0,0 +1,67 @@
+package com.transactionengine.transaction.config;
+
+import com.transactionengine.transaction.service.limit.AdaptiveConcurrencyLimiter;
+import com.transactionengine.transaction.service.limit.AdaptiveConcurrencyLimiter.Settings;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Limiter Configuration
+ * Creates the adaptive concurrency limiters from app.transaction.limiter:
+ * one for the transaction endpoints, applied by ConcurrencyLimitInterceptor,
+ * and one around processTransaction
+ */
+@Configuration
+public class LimiterConfig {
+
+    public static final String HTTP_LIMITER = "httpConcurrencyLimiter";
+    public static final String PROCESSING_LIMITER = "processingConcurrencyLimiter";
+
+    @Value("${app.transaction.limiter.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${app.transaction.limiter.tolerance:1.5}")
+    private double tolerance;
+
+    @Value("${app.transaction.limiter.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${app.transaction.limiter.long-window:600}")
+    private int longWindow;
+
+    @Value("${app.transaction.limiter.http.initial-limit:200}")
+    private int httpInitialLimit;
+
+    @Value("${app.transaction.limiter.http.min-limit:20}")
+    private int httpMinLimit;
+
+    @Value("${app.transaction.limiter.http.max-limit:2000}")
+    private int httpMaxLimit;
+
+    @Value("${app.transaction.limiter.processing.initial-limit:100}")
+    private int processingInitialLimit;
+
+    @Value("${app.transaction.limiter.processing.min-limit:10}")
+    private int processingMinLimit;
+
+    @Value("${app.transaction.limiter.processing.max-limit:1000}")
+    private int processingMaxLimit;
+
+    @Bean(HTTP_LIMITER)
+    public AdaptiveConcurrencyLimiter httpConcurrencyLimiter(MeterRegistry registry) {
+        return new AdaptiveConcurrencyLimiter("http",
+            settings(httpInitialLimit, httpMinLimit, httpMaxLimit), registry);
+    }
+
+    @Bean(PROCESSING_LIMITER)
+    public AdaptiveConcurrencyLimiter processingConcurrencyLimiter(MeterRegistry registry) {
+        return new AdaptiveConcurrencyLimiter("processing",
+            settings(processingInitialLimit, processingMinLimit, processingMaxLimit), registry);
+    }
+
+    private Settings settings(int initialLimit, int minLimit, int maxLimit) {
+        return new Settings(initialLimit, minLimit, maxLimit, smoothing, tolerance, backoffRatio, longWindow);
+    }
+}
@@ -0,0 +1,55 @@
+package com.transactionengine.transaction.config;
+
+import com.transactionengine.transaction.service.lock.HybridLockProvider;
+import com.transactionengine.transaction.service.lock.LockMode;
+import com.transactionengine.transaction.service.lock.LockProvider;
+import com.transactionengine.transaction.service.lock.RedissonLockProvider;
+import com.transactionengine.transaction.service.lock.StripedLockProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Lock Configuration
+ * Selects the lock backend from distributed.lock.mode, defaulting to
+ * Redisson when Redis is enabled and to local striped locks otherwise
+ */
+@Configuration
+@Slf4j
+public class LockConfig {
+
+    @Value("${distributed.lock.mode:}")
+    private String lockMode;
+
+    @Value("${redisson.enabled:true}")
+    private boolean redissonEnabled;
+
+    @Value("${distributed.lock.stripes:1024}")
+    private int stripes;
+
+    @Bean
+    public LockProvider lockProvider(ObjectProvider<RedissonClient> redissonClient, MeterRegistry registry) {
+        LockMode mode = resolveMode();
+        log.info("Using {} lock provider", mode);
+
+        return switch (mode) {
+            case LOCAL -> new StripedLockProvider(stripes);
+            case REDISSON -> new RedissonLockProvider(redissonClient.getObject());
+            case HYBRID -> new HybridLockProvider(
+                new StripedLockProvider(stripes),
+                new RedissonLockProvider(redissonClient.getObject()),
+                registry);
+        };
+    }
+
+    private LockMode resolveMode() {
+        if (lockMode == null || lockMode.isBlank()) {
+            return redissonEnabled ? LockMode.REDISSON : LockMode.LOCAL;
+        }
+        return LockMode.valueOf(lockMode.trim().toUpperCase());
+    }
+}
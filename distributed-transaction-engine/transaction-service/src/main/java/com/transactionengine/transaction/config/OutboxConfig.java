@@ -0,0 +1,42 @@
+package com.transactionengine.transaction.config;
+
+import com.transactionengine.transaction.service.outbox.FileEventSink;
+import com.transactionengine.transaction.service.outbox.InMemoryEventSink;
+import com.transactionengine.transaction.service.outbox.OutboxEventSink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Outbox Configuration
+ * Selects the built-in outbox sink from app.transaction.outbox.sink (file or
+ * memory) unless the application defines its own OutboxEventSink
+ */
+@Configuration
+@Slf4j
+public class OutboxConfig {
+
+    @Value("${app.transaction.outbox.sink:file}")
+    private String sink;
+
+    @Value("${app.transaction.outbox.file:./data/outbox/events.ndjson}")
+    private Path file;
+
+    @Value("${app.transaction.outbox.memory-capacity:10000}")
+    private int memoryCapacity;
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxEventSink outboxEventSink() {
+        if ("memory".equalsIgnoreCase(sink.trim())) {
+            log.info("Publishing outbox events to memory, keeping the last {}", memoryCapacity);
+            return new InMemoryEventSink(memoryCapacity);
+        }
+        log.info("Publishing outbox events to {}", file.toAbsolutePath());
+        return new FileEventSink(file);
+    }
+}
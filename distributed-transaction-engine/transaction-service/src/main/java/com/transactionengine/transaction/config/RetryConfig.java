@@ -0,0 +1,46 @@
+package com.transactionengine.transaction.config;
+
+import com.transactionengine.transaction.service.retry.LocalRetryQueue;
+import com.transactionengine.transaction.service.retry.RedisRetryQueue;
+import com.transactionengine.transaction.service.retry.RetryQueue;
+import com.transactionengine.transaction.service.retry.RetryStore;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Retry Configuration
+ * Selects the retry queue from app.transaction.retry.store, defaulting to
+ * Redis when Redis is enabled and to the in-process queue otherwise
+ */
+@Configuration
+@Slf4j
+public class RetryConfig {
+
+    @Value("${app.transaction.retry.store:}")
+    private String retryStore;
+
+    @Value("${redisson.enabled:true}")
+    private boolean redissonEnabled;
+
+    @Bean
+    public RetryQueue retryQueue(ObjectProvider<RedissonClient> redissonClient) {
+        RetryStore store = resolveStore();
+        log.info("Using {} retry queue", store);
+
+        return switch (store) {
+            case REDIS -> new RedisRetryQueue(redissonClient.getObject());
+            case LOCAL -> new LocalRetryQueue();
+        };
+    }
+
+    private RetryStore resolveStore() {
+        if (retryStore == null || retryStore.isBlank()) {
+            return redissonEnabled ? RetryStore.REDIS : RetryStore.LOCAL;
+        }
+        return RetryStore.valueOf(retryStore.trim().toUpperCase());
+    }
+}
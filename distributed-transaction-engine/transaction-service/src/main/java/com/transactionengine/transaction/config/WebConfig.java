@@ -0,0 +1,31 @@
+package com.transactionengine.transaction.config;
+
+import com.transactionengine.transaction.controller.ConcurrencyLimitInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web Configuration
+ * Puts the adaptive concurrency limit in front of the transaction endpoints
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Streams and exports are long-lived by design and bounded on their own;
+        // metrics and health must answer even while load is shed
+        registry.addInterceptor(concurrencyLimitInterceptor)
+            .addPathPatterns("/api/v1/transactions", "/api/v1/transactions/**")
+            .excludePathPatterns(
+                "/api/v1/transactions/stream",
+                "/api/v1/transactions/account/*/export",
+                "/api/v1/transactions/metrics",
+                "/api/v1/transactions/health");
+    }
+}
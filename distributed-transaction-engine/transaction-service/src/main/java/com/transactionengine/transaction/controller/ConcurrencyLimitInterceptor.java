@@ -0,0 +1,91 @@
+package com.transactionengine.transaction.controller;
+
+import com.transactionengine.transaction.config.LimiterConfig;
+import com.transactionengine.transaction.service.limit.AdaptiveConcurrencyLimiter;
+import com.transactionengine.transaction.service.limit.AdaptiveConcurrencyLimiter.Permit;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Concurrency Limit Interceptor
+ *
+ * Takes a permit from the HTTP limiter before a transaction endpoint runs and
+ * answers 429 straight away when there is none. The permit is held until the
+ * response is complete, across the async dispatch of the batch endpoint, and
+ * its outcome is judged from the status: 2xx feeds the latency sample, 429 and
+ * 5xx count as drops, other client errors are ignored. A 2xx the handler marked
+ * with {@link #markDropped} also counts as a drop: the fallbacks answer 200 with
+ * transactions FAILED and queued for retry when the service is overloaded.
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+    private static final String DROPPED_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".dropped";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitInterceptor(@Qualifier(LimiterConfig.HTTP_LIMITER) AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    /**
+     * Count the request as a drop whatever its status, for responses that report
+     * work the service could not do, e.g. a FAILED transaction queued for retry
+     */
+    public static void markDropped(HttpServletRequest request) {
+        request.setAttribute(DROPPED_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        // The async dispatch of a request that already holds its permit
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            return true;
+        }
+
+        Optional<Permit> permit = limiter.tryAcquire();
+        if (permit.isEmpty()) {
+            log.warn("Rejecting {} {}: concurrency limit {} reached",
+                request.getMethod(), request.getRequestURI(), limiter.getLimit());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Concurrency limit reached\"}");
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, permit.get());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit)) {
+            return;
+        }
+        request.removeAttribute(PERMIT_ATTRIBUTE);
+
+        int status = response.getStatus();
+        if (ex != null || status >= 500 || status == HttpStatus.TOO_MANY_REQUESTS.value()
+                || request.getAttribute(DROPPED_ATTRIBUTE) != null) {
+            permit.dropped();
+        } else if (status >= 400) {
+            permit.ignore();
+        } else {
+            permit.success();
+        }
+    }
+}
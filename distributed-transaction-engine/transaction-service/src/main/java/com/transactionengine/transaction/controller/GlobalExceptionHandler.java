@@ -0,0 +1,31 @@
+package com.transactionengine.transaction.controller;
+
+import com.transactionengine.transaction.service.TransactionPipeline.PipelineSaturatedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Global Exception Handler
+ * Maps service exceptions to HTTP responses
+ */
+@RestControllerAdvice
+@Slf4j
+public class GlobalExceptionHandler {
+
+    /**
+     * Saturated pipeline: ask the client to back off instead of queueing without limit
+     */
+    @ExceptionHandler(PipelineSaturatedException.class)
+    public ResponseEntity<Map<String, String>> handlePipelineSaturated(PipelineSaturatedException ex) {
+        log.warn("Rejecting request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(Map.of("error", ex.getMessage()));
+    }
+}
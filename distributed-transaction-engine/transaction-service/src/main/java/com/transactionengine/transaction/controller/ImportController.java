@@ -0,0 +1,71 @@
+package com.transactionengine.transaction.controller;
+
+import com.transactionengine.transaction.dto.ImportReport;
+import com.transactionengine.transaction.service.importer.ImportJob;
+import com.transactionengine.transaction.service.importer.SettlementImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Import Controller
+ * Bulk import of settlement files
+ */
+@RestController
+@RequestMapping("/api/v1/imports")
+@Tag(name = "Import API", description = "Bulk settlement file imports")
+@Slf4j
+@RequiredArgsConstructor
+public class ImportController {
+
+    private final SettlementImportService importService;
+
+    /**
+     * Import a settlement file already placed in the server's import directory
+     */
+    @PostMapping("/settlements")
+    @Operation(summary = "Import settlement file", description = "Import a CSV file from the import directory")
+    public ResponseEntity<ImportReport> importFile(@RequestParam String file) throws IOException {
+        try {
+            return accepted(importService.importFile(file));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Upload and import a settlement file; the body is the raw CSV
+     */
+    @PostMapping(value = "/settlements/upload", consumes = {"text/csv", "application/octet-stream"})
+    @Operation(summary = "Upload settlement file", description = "Upload a CSV file and import it")
+    public ResponseEntity<ImportReport> uploadFile(HttpServletRequest request) throws IOException {
+        return accepted(importService.importUpload(request.getInputStream()));
+    }
+
+    /**
+     * Progress and outcome of an import, including rows per second
+     */
+    @GetMapping("/{importId}")
+    @Operation(summary = "Get import", description = "Get progress of a settlement import")
+    public ResponseEntity<ImportReport> getImport(@PathVariable String importId) {
+        return importService.findJob(importId)
+            .map(ImportJob::toReport)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<ImportReport> accepted(ImportJob job) {
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/v1/imports/" + job.getId()))
+            .body(job.toReport());
+    }
+}
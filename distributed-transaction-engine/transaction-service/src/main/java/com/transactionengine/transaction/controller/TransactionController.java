@@ -1,9 +1,16 @@
 package com.transactionengine.transaction.controller;
 
+import com.transactionengine.transaction.dto.AccountHistoryPage;
 import com.transactionengine.transaction.dto.TransactionRequest;
 import com.transactionengine.transaction.dto.TransactionResponse;
 import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.service.AccountHistoryService;
 import com.transactionengine.transaction.service.TransactionProcessingService;
+import com.transactionengine.transaction.service.TransactionStreamIngestor;
+import com.transactionengine.transaction.service.cache.TransactionReadCache;
+import com.transactionengine.transaction.service.id.IdGenerator;
+import com.transactionengine.transaction.service.idempotency.IdempotentResponseStore;
+import com.transactionengine.transaction.service.metrics.TransactionMeter;
 import com.transactionengine.transaction.repository.TransactionRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,11 +19,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 /**
@@ -30,115 +44,175 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TransactionController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String NDJSON = "application/x-ndjson";
+
     private final TransactionProcessingService transactionService;
     private final TransactionRepository transactionRepository;
+    private final IdempotentResponseStore responseStore;
+    private final TransactionStreamIngestor streamIngestor;
+    private final AccountHistoryService accountHistoryService;
+    private final TransactionReadCache readCache;
+    private final IdGenerator idGenerator;
 
     /**
      * Create and process a new transaction
+     *
+     * A retry carrying the same Idempotency-Key gets the stored response back
+     * instead of creating a second transaction.
      */
     @PostMapping
     @Operation(summary = "Create transaction", description = "Process a new transaction with distributed locking")
     public ResponseEntity<TransactionResponse> createTransaction(
-            @Valid @RequestBody TransactionRequest request) {
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody TransactionRequest request,
+            HttpServletRequest httpRequest) {
 
         log.info("Received transaction request: {}", request);
 
-        Transaction transaction = Transaction.builder()
-            .transactionId(generateTransactionId())
-            .accountFrom(request.getAccountFrom())
-            .accountTo(request.getAccountTo())
-            .amount(request.getAmount())
-            .currency(request.getCurrency())
-            .type(request.getType())
-            .description(request.getDescription())
-            .metadata(request.getMetadata())
-            .build();
+        TransactionResponse response = await(responseStore.execute("create", idempotencyKey, request,
+            responseStore.typeOf(TransactionResponse.class), TransactionController::isSettled, this::current,
+            () -> {
+                Transaction transaction = toTransaction(request);
 
-        Transaction processed = transactionService.processTransaction(transaction);
+                Transaction processed = transactionService.processTransaction(transaction);
+                if (isRetryableFailure(processed)) {
+                    ConcurrencyLimitInterceptor.markDropped(httpRequest);
+                }
+                return CompletableFuture.completedFuture(toResponse(processed));
+            }));
 
-        return ResponseEntity.ok(toResponse(processed));
+        return ResponseEntity.ok(response);
     }
 
     /**
      * Process transaction asynchronously
+     *
+     * Returns 202 with the accepted transaction straight away; clients poll
+     * the Location for the outcome. Answers 429 when the pipeline is saturated.
      */
     @PostMapping("/async")
     @Operation(summary = "Create async transaction", description = "Process transaction asynchronously for high throughput")
-    public ResponseEntity<CompletableFuture<TransactionResponse>> createTransactionAsync(
+    public ResponseEntity<TransactionResponse> createTransactionAsync(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody TransactionRequest request) {
 
-        Transaction transaction = Transaction.builder()
-            .transactionId(generateTransactionId())
-            .accountFrom(request.getAccountFrom())
-            .accountTo(request.getAccountTo())
-            .amount(request.getAmount())
-            .currency(request.getCurrency())
-            .type(request.getType())
-            .description(request.getDescription())
-            .build();
+        TransactionResponse accepted = await(responseStore.execute("async", idempotencyKey, request,
+            responseStore.typeOf(TransactionResponse.class), acceptedResponse -> true, acceptedResponse -> acceptedResponse,
+            () -> {
+                Transaction transaction = toTransaction(request);
+                transaction.setStatus(Transaction.TransactionStatus.PENDING);
 
-        CompletableFuture<TransactionResponse> future = transactionService
-            .processTransactionAsync(transaction)
-            .thenApply(this::toResponse);
+                // Snapshot before handing over: the pipeline mutates the entity
+                TransactionResponse response = toResponse(transaction);
+                transactionService.processTransactionAsync(transaction);
+                return CompletableFuture.completedFuture(response);
+            }));
 
-        return ResponseEntity.accepted().body(future);
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/v1/transactions/" + accepted.getTransactionId()))
+            .body(accepted);
     }
 
     /**
      * Process batch transactions
+     *
+     * Completes asynchronously without holding a servlet thread. Every item gets
+     * its own result, with status FAILED and a reason if it was not processed.
+     * Answers 429 when the pipeline is full.
      */
     @PostMapping("/batch")
     @Operation(summary = "Process batch transactions", description = "Process multiple transactions in batch")
-    public ResponseEntity<CompletableFuture<List<TransactionResponse>>> processBatchTransactions(
-            @Valid @RequestBody List<TransactionRequest> requests) {
-
-        Transaction[] transactions = requests.stream()
-            .map(req -> Transaction.builder()
-                .transactionId(generateTransactionId())
-                .accountFrom(req.getAccountFrom())
-                .accountTo(req.getAccountTo())
-                .amount(req.getAmount())
-                .currency(req.getCurrency())
-                .type(req.getType())
-                .description(req.getDescription())
-                .build())
-            .toArray(Transaction[]::new);
-
-        CompletableFuture<List<TransactionResponse>> future = transactionService
-            .processBatchTransactions(transactions)
-            .thenApply(results -> java.util.Arrays.stream(results)
-                .map(this::toResponse)
-                .collect(Collectors.toList()));
-
-        return ResponseEntity.accepted().body(future);
+    public CompletableFuture<ResponseEntity<List<TransactionResponse>>> processBatchTransactions(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody List<TransactionRequest> requests,
+            HttpServletRequest httpRequest) {
+
+        return responseStore.execute("batch", idempotencyKey, requests,
+            responseStore.listOf(TransactionResponse.class),
+            (List<TransactionResponse> responses) -> responses.stream().allMatch(TransactionController::isSettled),
+            responses -> responses.stream().map(this::current).collect(Collectors.toList()),
+            () -> {
+                List<Transaction> transactions = requests.stream()
+                    .map(this::toTransaction)
+                    .collect(Collectors.toList());
+
+                return transactionService
+                    .processBatchTransactions(transactions)
+                    .thenApply(results -> {
+                        if (results.stream().anyMatch(TransactionController::isRetryableFailure)) {
+                            ConcurrencyLimitInterceptor.markDropped(httpRequest);
+                        }
+                        return results.stream()
+                            .map(this::toResponse)
+                            .collect(Collectors.toList());
+                    });
+            })
+            .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Stream transactions as newline-delimited JSON
+     *
+     * Records are processed while the upload is still arriving, and one result
+     * line is written back per record as soon as it completes. Memory use stays
+     * flat regardless of the upload size.
+     */
+    @PostMapping(value = "/stream", consumes = NDJSON, produces = NDJSON)
+    @Operation(summary = "Stream transactions", description = "Ingest NDJSON transactions with streamed per-record results")
+    public void streamTransactions(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        streamIngestor.ingest(request.getInputStream(), response.getOutputStream(), this::toTransaction);
     }
 
     /**
      * Get transaction by ID
+     *
+     * Served from the read cache, which also holds in-flight states that are not
+     * in the database yet.
      */
     @GetMapping("/{transactionId}")
     @Operation(summary = "Get transaction", description = "Retrieve transaction by ID")
     public ResponseEntity<TransactionResponse> getTransaction(@PathVariable String transactionId) {
-        return transactionRepository.findByTransactionId(transactionId)
-            .map(this::toResponse)
+        return readCache.get(transactionId, () -> transactionRepository.findResponseByTransactionId(transactionId))
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
 
     /**
      * Get transactions by account
+     *
+     * Newest first, one page at a time; pass the returned nextCursor to get the
+     * following page.
      */
     @GetMapping("/account/{accountId}")
-    @Operation(summary = "Get account transactions", description = "Retrieve all transactions for an account")
-    public ResponseEntity<List<TransactionResponse>> getAccountTransactions(@PathVariable String accountId) {
-        List<Transaction> transactions = transactionRepository.findByAccountFrom(accountId);
-        transactions.addAll(transactionRepository.findByAccountTo(accountId));
+    @Operation(summary = "Get account transactions", description = "Retrieve an account's transactions, newest first, one page at a time")
+    public ResponseEntity<AccountHistoryPage> getAccountTransactions(
+            @PathVariable String accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(accountHistoryService.page(accountId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
 
-        List<TransactionResponse> responses = transactions.stream()
-            .map(this::toResponse)
-            .collect(Collectors.toList());
+    /**
+     * Export an account's full history as NDJSON, streamed from a database cursor
+     */
+    @GetMapping(value = "/account/{accountId}/export", produces = NDJSON)
+    @Operation(summary = "Export account transactions", description = "Stream an account's full history as NDJSON")
+    public void exportAccountTransactions(@PathVariable String accountId, HttpServletResponse response)
+            throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
 
-        return ResponseEntity.ok(responses);
+        accountHistoryService.export(accountId, response.getOutputStream());
     }
 
     /**
@@ -147,9 +221,14 @@ public class TransactionController {
     @GetMapping("/metrics")
     @Operation(summary = "Get metrics", description = "Get current transaction processing metrics")
     public ResponseEntity<TransactionMetrics> getMetrics() {
+        TransactionMeter.Snapshot snapshot = transactionService.getTransactionMetrics();
         TransactionMetrics metrics = new TransactionMetrics();
-        metrics.setCurrentTPS(transactionService.getCurrentTPS());
-        metrics.setTransactionsByType(transactionService.getTransactionMetrics());
+        metrics.setCurrentTPS(snapshot.throughput().get("1s"));
+        metrics.setThroughput(snapshot.throughput());
+        metrics.setLatencyMillis(snapshot.latencyMillis());
+        metrics.setTransactionsByType(snapshot.byType());
+        metrics.setTransactionsByStatus(snapshot.byStatus());
+        metrics.setTransactionsByCurrency(snapshot.byCurrency());
         return ResponseEntity.ok(metrics);
     }
 
@@ -162,29 +241,73 @@ public class TransactionController {
         return ResponseEntity.ok("Transaction Service is running - Ready for 10,000+ TPS!");
     }
 
-    private String generateTransactionId() {
-        return "TXN-" + UUID.randomUUID().toString().toUpperCase().replace("-", "");
+    /**
+     * Whether a response may be replayed as stored for its Idempotency-Key. A
+     * FAILED transaction has been queued for retry, so its outcome is still open.
+     */
+    private static boolean isSettled(TransactionResponse response) {
+        return response.getStatus() != Transaction.TransactionStatus.FAILED;
+    }
+
+    /**
+     * A failure the service may still recover from, e.g. queued for retry by a
+     * fallback; the concurrency limiter treats it as a drop. Permanent failures,
+     * such as validation errors, say nothing about load.
+     */
+    private static boolean isRetryableFailure(Transaction transaction) {
+        return transaction.getStatus() == Transaction.TransactionStatus.FAILED
+            && !Boolean.FALSE.equals(transaction.getRetryable());
+    }
+
+    private TransactionResponse current(TransactionResponse response) {
+        String transactionId = response.getTransactionId();
+        return readCache.get(transactionId, () -> transactionRepository.findResponseByTransactionId(transactionId))
+            .orElse(response);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Package-private for the benchmarks module
+    String generateTransactionId() {
+        return idGenerator.nextId("TXN-");
     }
 
-    private TransactionResponse toResponse(Transaction transaction) {
-        return TransactionResponse.builder()
-            .transactionId(transaction.getTransactionId())
-            .accountFrom(transaction.getAccountFrom())
-            .accountTo(transaction.getAccountTo())
-            .amount(transaction.getAmount())
-            .currency(transaction.getCurrency())
-            .type(transaction.getType())
-            .status(transaction.getStatus())
-            .description(transaction.getDescription())
-            .createdAt(transaction.getCreatedAt())
-            .completedAt(transaction.getCompletedAt())
-            .failureReason(transaction.getFailureReason())
+    Transaction toTransaction(TransactionRequest request) {
+        return Transaction.builder()
+            .transactionId(generateTransactionId())
+            .accountFrom(request.getAccountFrom())
+            .accountTo(request.getAccountTo())
+            .amount(request.getAmount())
+            .currency(request.getCurrency())
+            .type(request.getType())
+            .description(request.getDescription())
+            .metadata(request.getMetadata())
             .build();
     }
 
+    TransactionResponse toResponse(Transaction transaction) {
+        return TransactionResponse.from(transaction);
+    }
+
+    /**
+     * Rates are transactions per second and latencies milliseconds, keyed by window ("1s", "10s", "60s")
+     */
     @lombok.Data
     public static class TransactionMetrics {
         private double currentTPS;
-        private java.util.concurrent.ConcurrentHashMap<String, java.util.concurrent.atomic.AtomicInteger> transactionsByType;
+        private Map<String, Double> throughput;
+        private Map<String, Map<String, Double>> latencyMillis;
+        private Map<String, Map<String, Double>> transactionsByType;
+        private Map<String, Map<String, Double>> transactionsByStatus;
+        private Map<String, Map<String, Double>> transactionsByCurrency;
     }
 }
\ No newline at end of file
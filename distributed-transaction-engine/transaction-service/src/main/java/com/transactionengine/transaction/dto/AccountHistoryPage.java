@@ -0,0 +1,23 @@
+package com.transactionengine.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Account History Page DTO
+ * One page of an account's transactions, newest first; nextCursor is null on the last page
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountHistoryPage {
+
+    private String accountId;
+    private List<TransactionResponse> transactions;
+    private String nextCursor;
+}
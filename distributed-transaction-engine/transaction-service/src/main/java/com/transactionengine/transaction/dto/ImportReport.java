@@ -0,0 +1,37 @@
+package com.transactionengine.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Import Report DTO
+ * Progress and outcome of a settlement file import
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+
+    private String importId;
+    private String file;
+    private String status;
+    private long fileBytes;
+    private long rowsParsed;
+    private long rowsInserted;
+    private long rowsSkipped;
+    private long rowsRejected;
+    /** Chunks committed by an earlier run of the same file, and not imported again */
+    private long chunksSkipped;
+    private double rowsPerSecond;
+    private long elapsedMillis;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String failureReason;
+    private List<String> errors;
+}
@@ -1,7 +1,9 @@
 package com.transactionengine.transaction.dto;
 
+import com.transactionengine.transaction.model.Transaction;
 import com.transactionengine.transaction.model.Transaction.TransactionStatus;
 import com.transactionengine.transaction.model.Transaction.TransactionType;
+import com.transactionengine.transaction.repository.TransactionView;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -30,4 +32,26 @@ public class TransactionResponse {
     private LocalDateTime createdAt;
     private LocalDateTime completedAt;
     private String failureReason;
+
+    public static TransactionResponse from(Transaction transaction) {
+        return TransactionResponse.builder()
+            .transactionId(transaction.getTransactionId())
+            .accountFrom(transaction.getAccountFrom())
+            .accountTo(transaction.getAccountTo())
+            .amount(transaction.getAmount())
+            .currency(transaction.getCurrency())
+            .type(transaction.getType())
+            .status(transaction.getStatus())
+            .description(transaction.getDescription())
+            .createdAt(transaction.getCreatedAt())
+            .completedAt(transaction.getCompletedAt())
+            .failureReason(transaction.getFailureReason())
+            .build();
+    }
+
+    public static TransactionResponse from(TransactionView view) {
+        return new TransactionResponse(view.getTransactionId(), view.getAccountFrom(), view.getAccountTo(),
+            view.getAmount(), view.getCurrency(), view.getType(), view.getStatus(), view.getDescription(),
+            view.getCreatedAt(), view.getCompletedAt(), view.getFailureReason());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.transactionengine.transaction.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Transaction Stream Result DTO
+ * One line of the NDJSON ingest response; carries either the transaction or an error.
+ * Once a transaction was created for the record, the error carries its ID; with
+ * outcomeUnknown set, the transaction may still complete and should be polled.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionStreamResult {
+
+    private long line;
+    private TransactionResponse transaction;
+    private String transactionId;
+    private String error;
+    private Boolean outcomeUnknown;
+}
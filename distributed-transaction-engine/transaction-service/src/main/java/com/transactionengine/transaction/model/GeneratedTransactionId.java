@@ -0,0 +1,18 @@
+package com.transactionengine.transaction.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Primary key taken from the configured IdGenerator when the application has
+ * not assigned one already
+ */
+@IdGeneratorType(TransactionIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GeneratedTransactionId {
+}
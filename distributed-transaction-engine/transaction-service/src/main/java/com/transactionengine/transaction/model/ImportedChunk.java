@@ -0,0 +1,46 @@
+package com.transactionengine.transaction.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Imported Chunk Entity
+ * A chunk of a settlement file whose rows have been committed. Written with
+ * plain JDBC by the bulk loaders; mapped here so schemas generated from the
+ * entities (H2 in the local profile) have the table too.
+ */
+@Entity
+@Table(name = "settlement_import_chunks")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportedChunk {
+
+    /**
+     * SHA-256 of the chunk's bytes, in hex
+     */
+    @Id
+    @Column(length = 64)
+    private String chunkHash;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false)
+    private Long chunkStart;
+
+    @Column(nullable = false)
+    private Long chunkEnd;
+
+    @Column(nullable = false)
+    private Long rowsInserted;
+
+    @Column(nullable = false)
+    private LocalDateTime completedAt;
+}
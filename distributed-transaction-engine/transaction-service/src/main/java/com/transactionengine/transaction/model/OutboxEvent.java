@@ -0,0 +1,50 @@
+package com.transactionengine.transaction.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox Event Entity
+ * An event waiting in the transactional outbox to be published downstream
+ */
+@Entity
+@Table(name = "transaction_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    /**
+     * Assigned by the database on insert. Within one account it follows commit
+     * order, because writers of an account are serialized by its sequence row.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String accountId;
+
+    /**
+     * Position in the account's event stream; null on H2
+     */
+    private Long accountSeq;
+
+    @Column(nullable = false, length = 64)
+    private String eventType;
+
+    @Column(nullable = false)
+    private String transactionId;
+
+    @Column(nullable = false, length = 2000)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
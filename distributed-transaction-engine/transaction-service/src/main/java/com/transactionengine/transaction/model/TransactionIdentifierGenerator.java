@@ -0,0 +1,38 @@
+package com.transactionengine.transaction.model;
+
+import com.transactionengine.transaction.service.id.IdGenerator;
+import com.transactionengine.transaction.service.id.RandomIdGenerator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Hibernate side of @GeneratedTransactionId. Hibernate creates this class
+ * itself, so IdConfig hands it the IdGenerator bean through use(); until
+ * then random IDs are issued. An ID the application assigned is kept.
+ */
+public class TransactionIdentifierGenerator implements BeforeExecutionGenerator {
+
+    private static volatile IdGenerator delegate = new RandomIdGenerator();
+
+    public static void use(IdGenerator idGenerator) {
+        delegate = idGenerator;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        if (owner instanceof Transaction transaction && transaction.getId() != null) {
+            return transaction.getId();
+        }
+        return delegate.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
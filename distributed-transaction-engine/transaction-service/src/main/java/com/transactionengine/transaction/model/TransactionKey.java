@@ -0,0 +1,35 @@
+package com.transactionengine.transaction.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transaction Key Entity
+ * Claim of a transaction_id by one row of the partitioned transactions table.
+ * On Postgres it is written by the transactions_claim_key trigger and the bulk
+ * loaders, never through JPA; its created_at routes lookups by transaction ID
+ * to a single partition. Schemas generated from the entities get an empty table.
+ */
+@Entity
+@Table(name = "transaction_keys")
+@Immutable
+@Data
+@NoArgsConstructor
+public class TransactionKey {
+
+    @Id
+    private String transactionId;
+
+    @Column(nullable = false)
+    private String id;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,16 @@
+package com.transactionengine.transaction.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Account Position
+ * Net amount moved in or out of an account in one currency
+ */
+public interface AccountPosition {
+
+    String getAccount();
+
+    String getCurrency();
+
+    BigDecimal getAmount();
+}
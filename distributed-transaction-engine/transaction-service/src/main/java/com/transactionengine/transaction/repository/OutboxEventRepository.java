@@ -0,0 +1,23 @@
+package com.transactionengine.transaction.repository;
+
+import com.transactionengine.transaction.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Outbox Event Repository
+ * Reads and removes outbox events for the relay; events are inserted in bulk by TransactionOutbox
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest unpublished events, in the order they were written
+     */
+    @Query("SELECT e FROM OutboxEvent e ORDER BY e.id ASC")
+    List<OutboxEvent> findOldest(Pageable page);
+}
@@ -1,15 +1,26 @@
 package com.transactionengine.transaction.repository;
 
+import com.transactionengine.transaction.dto.TransactionResponse;
 import com.transactionengine.transaction.model.Transaction;
 import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Transaction Repository
@@ -18,33 +29,251 @@ import java.util.Optional;
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, String> {
 
-    Optional<Transaction> findByTransactionId(String transactionId);
+    /**
+     * Columns of {@link TransactionView}, aliased to its property names
+     */
+    String VIEW_COLUMNS = "h.id AS id, h.transaction_id AS transactionId, "
+        + "h.account_from AS accountFrom, h.account_to AS accountTo, h.amount AS amount, "
+        + "h.currency AS currency, h.type AS type, h.status AS status, h.description AS description, "
+        + "h.created_at AS createdAt, h.completed_at AS completedAt, h.failure_reason AS failureReason";
+
+    /**
+     * Columns read by the history branches; everything but metadata and bookkeeping
+     */
+    String HISTORY_COLUMNS = "id, transaction_id, account_from, account_to, amount, currency, type, "
+        + "status, description, created_at, completed_at, failure_reason";
+
+    /**
+     * Client view of one transaction's columns, without the table alias
+     */
+    String RESPONSE_CONSTRUCTOR = "SELECT new com.transactionengine.transaction.dto.TransactionResponse("
+        + "t.transactionId, t.accountFrom, t.accountTo, t.amount, t.currency, t.type, t.status, "
+        + "t.description, t.createdAt, t.completedAt, t.failureReason) FROM Transaction t ";
+
+    /**
+     * Look a transaction up by its transaction ID. The creation time recorded in
+     * transaction_keys confines the query to one partition; where no key was
+     * recorded (schemas generated from the entities), every partition is searched.
+     */
+    default Optional<Transaction> findByTransactionId(String transactionId) {
+        return findKeyCreatedAt(transactionId)
+            .map(createdAt -> findByTransactionIdAndCreatedAt(transactionId, createdAt))
+            .orElseGet(() -> findByTransactionIdInAnyPartition(transactionId));
+    }
+
+    /**
+     * Client view of one transaction, built straight from the selected columns
+     * without an entity in the persistence context; routed like findByTransactionId
+     */
+    default Optional<TransactionResponse> findResponseByTransactionId(String transactionId) {
+        return findKeyCreatedAt(transactionId)
+            .map(createdAt -> findResponseByTransactionIdAndCreatedAt(transactionId, createdAt))
+            .orElseGet(() -> findResponseByTransactionIdInAnyPartition(transactionId));
+    }
+
+    @Query("SELECT k.createdAt FROM TransactionKey k WHERE k.transactionId = :transactionId")
+    Optional<LocalDateTime> findKeyCreatedAt(@Param("transactionId") String transactionId);
+
+    Optional<Transaction> findByTransactionIdAndCreatedAt(String transactionId, LocalDateTime createdAt);
+
+    @Query("SELECT t FROM Transaction t WHERE t.transactionId = :transactionId")
+    Optional<Transaction> findByTransactionIdInAnyPartition(@Param("transactionId") String transactionId);
+
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_CONSTRUCTOR + "WHERE t.transactionId = :transactionId AND t.createdAt = :createdAt")
+    Optional<TransactionResponse> findResponseByTransactionIdAndCreatedAt(
+        @Param("transactionId") String transactionId,
+        @Param("createdAt") LocalDateTime createdAt
+    );
+
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_CONSTRUCTOR + "WHERE t.transactionId = :transactionId")
+    Optional<TransactionResponse> findResponseByTransactionIdInAnyPartition(
+        @Param("transactionId") String transactionId);
+
+    /**
+     * Load by the full primary key, so only the row's partition is searched
+     */
+    Optional<Transaction> findByIdAndCreatedAt(String id, LocalDateTime createdAt);
+
+    List<Transaction> findByIdInAndCreatedAtIn(Collection<String> ids, Collection<LocalDateTime> createdAts);
+
+    /**
+     * Load stored rows about to be merged into the current persistence context by
+     * id and created_at. Merging then finds them there instead of selecting each
+     * by id alone, which cannot be pruned to a partition. Call inside the
+     * transaction that merges them.
+     */
+    default void preloadForMerge(Collection<Transaction> transactions) {
+        List<String> ids = new ArrayList<>();
+        Set<LocalDateTime> createdAts = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getId() != null && transaction.getVersion() != null && transaction.getCreatedAt() != null) {
+                ids.add(transaction.getId());
+                createdAts.add(transaction.getCreatedAt());
+            }
+        }
+        if (!ids.isEmpty()) {
+            findByIdInAndCreatedAtIn(ids, createdAts);
+        }
+    }
+
+    boolean existsByTransactionIdAndId(String transactionId, String id);
 
     boolean existsByTransactionIdAndStatusIn(String transactionId, List<TransactionStatus> statuses);
 
+    @Query("SELECT t.transactionId FROM Transaction t WHERE t.transactionId IN :ids AND t.status IN :statuses")
+    List<String> findTransactionIdsByTransactionIdInAndStatusIn(
+        @Param("ids") Collection<String> transactionIds,
+        @Param("statuses") List<TransactionStatus> statuses
+    );
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.transactionId FROM Transaction t WHERE t.status IN :statuses")
+    Stream<String> streamTransactionIdsByStatusIn(@Param("statuses") List<TransactionStatus> statuses);
+
     List<Transaction> findByStatus(TransactionStatus status);
 
-    List<Transaction> findByAccountFrom(String accountFrom);
+    /**
+     * First page of an account's history, newest first. Each UNION ALL branch is
+     * a range scan on its (account, created_at, id) index; self-transfers come back once.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "SELECT " + VIEW_COLUMNS + " FROM ("
+        + "(SELECT " + HISTORY_COLUMNS + " FROM transactions WHERE account_from = :account "
+        + "ORDER BY created_at DESC, id DESC LIMIT :limit) "
+        + "UNION ALL "
+        + "(SELECT " + HISTORY_COLUMNS + " FROM transactions WHERE account_to = :account AND account_from <> :account "
+        + "ORDER BY created_at DESC, id DESC LIMIT :limit)"
+        + ") h ORDER BY h.created_at DESC, h.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<TransactionView> findAccountHistory(@Param("account") String account, @Param("limit") int limit);
+
+    /**
+     * Page of an account's history strictly older than the (createdAt, id) seek key
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "SELECT " + VIEW_COLUMNS + " FROM ("
+        + "(SELECT " + HISTORY_COLUMNS + " FROM transactions WHERE account_from = :account "
+        + "AND (created_at, id) < (:createdAt, :id) "
+        + "ORDER BY created_at DESC, id DESC LIMIT :limit) "
+        + "UNION ALL "
+        + "(SELECT " + HISTORY_COLUMNS + " FROM transactions WHERE account_to = :account AND account_from <> :account "
+        + "AND (created_at, id) < (:createdAt, :id) "
+        + "ORDER BY created_at DESC, id DESC LIMIT :limit)"
+        + ") h ORDER BY h.created_at DESC, h.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<TransactionView> findAccountHistoryBefore(
+        @Param("account") String account,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") String id,
+        @Param("limit") int limit
+    );
 
-    List<Transaction> findByAccountTo(String accountTo);
+    /**
+     * Full account history for exports; rows are fetched from a server-side cursor
+     * in batches, so callers must consume the stream inside a transaction
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT " + VIEW_COLUMNS + " FROM ("
+        + "SELECT " + HISTORY_COLUMNS + " FROM transactions WHERE account_from = :account "
+        + "UNION ALL "
+        + "SELECT " + HISTORY_COLUMNS + " FROM transactions WHERE account_to = :account AND account_from <> :account"
+        + ") h ORDER BY h.created_at DESC, h.id DESC",
+           nativeQuery = true)
+    Stream<TransactionView> streamAccountHistory(@Param("account") String account);
 
-    @Query("SELECT t FROM Transaction t WHERE t.status = :status AND t.createdAt >= :startDate")
+    /**
+     * Transactions in a status created in [startDate, endDate). Both bounds are
+     * on the partition key, so only the partitions overlapping the range are scanned.
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status "
+        + "AND t.createdAt >= :startDate AND t.createdAt < :endDate")
     List<Transaction> findTransactionsByStatusAndDateRange(
         @Param("status") TransactionStatus status,
-        @Param("startDate") LocalDateTime startDate
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
     );
 
+    /**
+     * Count of transactions in a status created since startTime; partitions that
+     * end before startTime are pruned
+     */
     @Query("SELECT COUNT(t) FROM Transaction t WHERE t.status = :status AND t.createdAt >= :startTime")
     Long countTransactionsByStatusSince(
         @Param("status") TransactionStatus status,
         @Param("startTime") LocalDateTime startTime
     );
 
-    @Query("SELECT t FROM Transaction t WHERE t.status = 'FAILED' AND t.retryCount < :maxRetries")
-    List<Transaction> findFailedTransactionsForRetry(@Param("maxRetries") Integer maxRetries);
-
+    /**
+     * Lock the oldest PENDING transactions, skipping rows other workers hold.
+     * Served by the partial index idx_transactions_pending.
+     */
     @Query(value = "SELECT * FROM transactions WHERE status = 'PENDING' " +
                    "ORDER BY created_at ASC LIMIT :limit FOR UPDATE SKIP LOCKED",
            nativeQuery = true)
     List<Transaction> findAndLockPendingTransactions(@Param("limit") int limit);
-}
\ No newline at end of file
+
+    /**
+     * Lock retryable FAILED transactions that have retries left and last changed
+     * before the given time. Served by the partial index idx_transactions_failed.
+     */
+    @Query(value = "SELECT * FROM transactions WHERE status = 'FAILED' AND retryable = TRUE " +
+                   "AND updated_at < :before AND retry_count < :maxRetries " +
+                   "ORDER BY updated_at ASC LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Transaction> findAndLockFailedTransactionsForRetry(
+        @Param("maxRetries") int maxRetries,
+        @Param("before") LocalDateTime before,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Lock transactions claimed by a worker before the given time and never
+     * settled, e.g. because the node died. Served by idx_transactions_locked.
+     */
+    @Query(value = "SELECT * FROM transactions WHERE status = 'LOCKED' " +
+                   "AND updated_at < :before " +
+                   "ORDER BY updated_at ASC LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Transaction> findAndLockExpiredClaims(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    /**
+     * Move a transaction to another status if its status and version are still
+     * the expected ones, bumping the version as Hibernate would. The createdAt
+     * condition confines the update to the row's partition.
+     *
+     * @return 1 if the transaction was updated, 0 if it had changed
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Transaction t SET t.status = :next, t.version = t.version + 1, t.updatedAt = :now "
+        + "WHERE t.id = :id AND t.createdAt = :createdAt AND t.status = :expected AND t.version = :version")
+    int compareAndSetStatus(
+        @Param("id") String id,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("expected") TransactionStatus expected,
+        @Param("next") TransactionStatus next,
+        @Param("version") Long version,
+        @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Net position of every account and currency over all COMPLETED transactions
+     */
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT p.account AS account, p.currency AS currency, SUM(p.amount) AS amount FROM ("
+        + "SELECT account_to AS account, currency, amount FROM transactions WHERE status = 'COMPLETED' "
+        + "UNION ALL "
+        + "SELECT account_from AS account, currency, -amount AS amount FROM transactions WHERE status = 'COMPLETED'"
+        + ") p GROUP BY p.account, p.currency",
+           nativeQuery = true)
+    List<AccountPosition> sumCompletedPositions();
+
+    /**
+     * Creation time of the oldest PENDING transaction, if any
+     */
+    @Query("SELECT MIN(t.createdAt) FROM Transaction t WHERE t.status = 'PENDING'")
+    Optional<LocalDateTime> findOldestPendingCreatedAt();
+}
@@ -0,0 +1,39 @@
+package com.transactionengine.transaction.repository;
+
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import com.transactionengine.transaction.model.Transaction.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Transaction View
+ * Read-only projection of the columns clients see, for native queries that
+ * should not hydrate entities
+ */
+public interface TransactionView {
+
+    String getId();
+
+    String getTransactionId();
+
+    String getAccountFrom();
+
+    String getAccountTo();
+
+    BigDecimal getAmount();
+
+    String getCurrency();
+
+    TransactionType getType();
+
+    TransactionStatus getStatus();
+
+    String getDescription();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getCompletedAt();
+
+    String getFailureReason();
+}
\ No newline at end of file
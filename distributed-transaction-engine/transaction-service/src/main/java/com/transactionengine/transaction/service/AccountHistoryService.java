@@ -0,0 +1,135 @@
+package com.transactionengine.transaction.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.transactionengine.transaction.dto.AccountHistoryPage;
+import com.transactionengine.transaction.dto.TransactionResponse;
+import com.transactionengine.transaction.repository.TransactionRepository;
+import com.transactionengine.transaction.repository.TransactionView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Account History Service
+ *
+ * Serves an account's transactions newest first without loading them all:
+ * pages use keyset pagination on (createdAt, id), and exports stream rows
+ * from a database cursor straight to the client. Rows are read as projections,
+ * so no entities are hydrated or tracked.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AccountHistoryService {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final TransactionRepository transactionRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Read one page of an account's history
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param limit Page size, at most MAX_PAGE_SIZE
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public AccountHistoryPage page(String accountId, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // One extra row tells whether another page follows
+        List<TransactionView> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = transactionRepository.findAccountHistory(accountId, size + 1);
+        } else {
+            SeekKey key = SeekKey.decode(cursor);
+            rows = transactionRepository.findAccountHistoryBefore(accountId, key.createdAt(), key.id(), size + 1);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<TransactionView> pageRows = hasMore ? rows.subList(0, size) : rows;
+        TransactionView last = pageRows.isEmpty() ? null : pageRows.get(pageRows.size() - 1);
+
+        return AccountHistoryPage.builder()
+            .accountId(accountId)
+            .transactions(pageRows.stream().map(TransactionResponse::from).toList())
+            .nextCursor(hasMore ? new SeekKey(last.getCreatedAt(), last.getId()).encode() : null)
+            .build();
+    }
+
+    /**
+     * Write an account's full history as NDJSON, one transaction per line
+     *
+     * @return Number of transactions written
+     */
+    public long export(String accountId, OutputStream output) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(TransactionResponse.class);
+        Writer out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        try {
+            long written = readOnly.execute(status -> {
+                long count = 0;
+                try (Stream<TransactionView> rows = transactionRepository.streamAccountHistory(accountId)) {
+                    for (TransactionView row : (Iterable<TransactionView>) rows::iterator) {
+                        out.write(writer.writeValueAsString(TransactionResponse.from(row)));
+                        out.write('\n');
+                        count++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+            out.flush();
+            log.info("Exported {} transactions for account {}", written, accountId);
+            return written;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Position in the (createdAt DESC, id DESC) order, encoded as an opaque cursor
+     */
+    record SeekKey(LocalDateTime createdAt, String id) {
+
+        String encode() {
+            byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + idBytes.length);
+            buffer.putLong(createdAt.toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(createdAt.getNano());
+            buffer.put(idBytes);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+        }
+
+        static SeekKey decode(String cursor) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+                LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+                String id = StandardCharsets.UTF_8.decode(buffer).toString();
+                return new SeekKey(createdAt, id);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+}
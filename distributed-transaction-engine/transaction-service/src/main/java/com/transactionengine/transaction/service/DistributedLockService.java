@@ -1,27 +1,34 @@
 package com.transactionengine.transaction.service;
 
+import com.transactionengine.transaction.service.lock.LockProvider;
+import com.transactionengine.transaction.service.lock.LockProvider.AcquiredLock;
+import com.transactionengine.transaction.service.metrics.TransactionStageTimers;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /**
- * Distributed Lock Service using Redis
+ * Distributed Lock Service
  *
  * Ensures transaction integrity across multiple instances
  * Prevents duplicate processing and race conditions
+ * The lock backend (Redisson, local striped or hybrid) is chosen by LockConfig
+ * Lock wait and lock hold are timed separately through TransactionStageTimers
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class DistributedLockService {
 
-    private final RedissonClient redissonClient;
+    private final LockProvider lockProvider;
+    private final TransactionStageTimers stageTimers;
 
     @Value("${distributed.lock.wait-time:10}")
     private long lockWaitTime;
@@ -37,63 +44,99 @@ public class DistributedLockService {
      * @return Result of the action
      */
     public <T> T executeWithLock(String lockKey, Supplier<T> action) {
-        RLock lock = redissonClient.getLock(lockKey);
-        boolean isLocked = false;
+        return executeWithLock(lockKey, lockWaitTime, lockLeaseTime, TimeUnit.SECONDS, action);
+    }
+
+    /**
+     * Execute action with distributed lock and custom timeout
+     */
+    public <T> T executeWithLock(String lockKey, long waitTime,
+                                  long leaseTime, TimeUnit unit, Supplier<T> action) {
+        AcquiredLock lock;
+        long waitStart = System.nanoTime();
 
         try {
             log.debug("Attempting to acquire lock for key: {}", lockKey);
-            isLocked = lock.tryLock(lockWaitTime, lockLeaseTime, TimeUnit.SECONDS);
-
-            if (isLocked) {
-                log.debug("Lock acquired successfully for key: {}", lockKey);
-                return action.get();
-            } else {
-                log.warn("Failed to acquire lock for key: {} within {} seconds",
-                    lockKey, lockWaitTime);
-                throw new LockAcquisitionException(
-                    "Could not acquire lock for key: " + lockKey);
-            }
+            lock = lockProvider.tryAcquire(lockKey, waitTime, leaseTime, unit);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            stageTimers.lock(lockKey, false, System.nanoTime() - waitStart, 0);
             log.error("Thread interrupted while acquiring lock for key: {}", lockKey, e);
             throw new LockAcquisitionException(
                 "Thread interrupted while acquiring lock", e);
+        }
+
+        long acquiredAt = System.nanoTime();
+        if (lock == null) {
+            stageTimers.lock(lockKey, false, acquiredAt - waitStart, 0);
+            log.warn("Failed to acquire lock for key: {} within {} {}",
+                lockKey, waitTime, unit);
+            throw new LockAcquisitionException(
+                "Could not acquire lock for key: " + lockKey);
+        }
+
+        try {
+            log.debug("Lock acquired successfully for key: {}", lockKey);
+            return action.get();
         } finally {
-            if (isLocked && lock.isHeldByCurrentThread()) {
-                try {
-                    lock.unlock();
-                    log.debug("Lock released successfully for key: {}", lockKey);
-                } catch (Exception e) {
-                    log.error("Error releasing lock for key: {}", lockKey, e);
-                }
+            try {
+                lock.release();
+                log.debug("Lock released successfully for key: {}", lockKey);
+            } catch (Exception e) {
+                log.error("Error releasing lock for key: {}", lockKey, e);
             }
+            stageTimers.lock(lockKey, true, acquiredAt - waitStart, System.nanoTime() - acquiredAt);
         }
     }
 
     /**
-     * Execute action with distributed lock and custom timeout
+     * Execute action holding the locks for all given keys
+     *
+     * Keys are de-duplicated and acquired in natural order, so concurrent
+     * callers locking overlapping key sets cannot deadlock.
+     *
+     * @param lockKeys Keys to lock together
+     * @param action Action to execute under the locks
+     * @return Result of the action
      */
-    public <T> T executeWithLock(String lockKey, long waitTime,
-                                  long leaseTime, TimeUnit unit, Supplier<T> action) {
-        RLock lock = redissonClient.getLock(lockKey);
-        boolean isLocked = false;
+    public <T> T executeWithLocks(Collection<String> lockKeys, Supplier<T> action) {
+        List<String> orderedKeys = List.copyOf(new TreeSet<>(lockKeys));
+        if (orderedKeys.size() == 1) {
+            return executeWithLock(orderedKeys.get(0), action);
+        }
 
+        AcquiredLock lock;
+        long waitStart = System.nanoTime();
         try {
-            isLocked = lock.tryLock(waitTime, leaseTime, unit);
-            if (isLocked) {
-                return action.get();
-            } else {
-                throw new LockAcquisitionException(
-                    "Could not acquire lock for key: " + lockKey);
-            }
+            log.debug("Attempting to acquire locks for keys: {}", orderedKeys);
+            lock = lockProvider.tryAcquireAll(orderedKeys, lockWaitTime, lockLeaseTime, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            stageTimers.lock(orderedKeys, false, System.nanoTime() - waitStart, 0);
+            log.error("Thread interrupted while acquiring locks for keys: {}", orderedKeys, e);
             throw new LockAcquisitionException(
-                "Thread interrupted while acquiring lock", e);
+                "Thread interrupted while acquiring locks", e);
+        }
+
+        long acquiredAt = System.nanoTime();
+        if (lock == null) {
+            stageTimers.lock(orderedKeys, false, acquiredAt - waitStart, 0);
+            log.warn("Failed to acquire locks for keys: {} within {} seconds",
+                orderedKeys, lockWaitTime);
+            throw new LockAcquisitionException(
+                "Could not acquire locks for keys: " + orderedKeys);
+        }
+
+        try {
+            return action.get();
         } finally {
-            if (isLocked && lock.isHeldByCurrentThread()) {
-                lock.unlock();
+            try {
+                lock.release();
+                log.debug("Locks released successfully for keys: {}", orderedKeys);
+            } catch (Exception e) {
+                log.error("Error releasing locks for keys: {}", orderedKeys, e);
             }
+            stageTimers.lock(orderedKeys, true, acquiredAt - waitStart, System.nanoTime() - acquiredAt);
         }
     }
 
@@ -101,19 +144,15 @@ public class DistributedLockService {
      * Check if a lock is currently held
      */
     public boolean isLocked(String lockKey) {
-        RLock lock = redissonClient.getLock(lockKey);
-        return lock.isLocked();
+        return lockProvider.isLocked(lockKey);
     }
 
     /**
      * Force unlock a lock (use with caution)
      */
     public void forceUnlock(String lockKey) {
-        RLock lock = redissonClient.getLock(lockKey);
-        if (lock.isLocked()) {
-            lock.forceUnlock();
-            log.warn("Force unlocked key: {}", lockKey);
-        }
+        lockProvider.forceUnlock(lockKey);
+        log.warn("Force unlocked key: {}", lockKey);
     }
 
     /**
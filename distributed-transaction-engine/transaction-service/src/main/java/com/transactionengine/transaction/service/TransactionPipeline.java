@@ -0,0 +1,158 @@
+package com.transactionengine.transaction.service;
+
+import com.transactionengine.transaction.config.VirtualThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Transaction Processing Pipeline
+ *
+ * Dedicated, bounded executor for the async and batch endpoints. Work is
+ * rejected as soon as all threads are busy and the queue is full, instead of
+ * queueing without limit. Queue depth, active threads and completions are
+ * exported through ExecutorServiceMetrics, plus a rejection counter.
+ *
+ * With spring.threads.virtual.enabled on a Java 21+ JVM, each task runs on its
+ * own virtual thread and a semaphore provides the same fail-fast bound.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TransactionPipeline {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.transaction.processing-threads:20}")
+    private int processingThreads;
+
+    @Value("${app.transaction.pipeline.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${app.transaction.pipeline.virtual-max-concurrency:1000}")
+    private int virtualMaxConcurrency;
+
+    private ExecutorService executor;
+    private ThreadPoolExecutor platformExecutor;
+    private Semaphore virtualPermits;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        rejectedCounter = Counter.builder("transaction.pipeline.rejected")
+            .description("Tasks rejected because the processing pipeline was saturated")
+            .register(meterRegistry);
+
+        if (virtualThreads && VirtualThreads.isSupported()) {
+            virtualPermits = new Semaphore(virtualMaxConcurrency);
+            executor = VirtualThreads.newThreadPerTaskExecutor("txn-pipeline-");
+            Gauge.builder("transaction.pipeline.in-flight", virtualPermits,
+                    permits -> virtualMaxConcurrency - permits.availablePermits())
+                .description("Tasks running on the virtual-thread pipeline")
+                .register(meterRegistry);
+            log.info("Transaction pipeline started on virtual threads, max concurrency {}", virtualMaxConcurrency);
+            return;
+        }
+        if (virtualThreads) {
+            log.warn("Virtual threads requested but running on Java {}; using platform threads",
+                Runtime.version().feature());
+        }
+
+        platformExecutor = new ThreadPoolExecutor(
+            processingThreads, processingThreads,
+            60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new CustomizableThreadFactory("txn-pipeline-"),
+            (task, pool) -> {
+                rejectedCounter.increment();
+                throw new PipelineSaturatedException("Transaction pipeline is saturated");
+            });
+        executor = platformExecutor;
+
+        new ExecutorServiceMetrics(platformExecutor, "transaction-pipeline", Tags.empty()).bindTo(meterRegistry);
+        log.info("Transaction pipeline started with {} threads and queue capacity {}",
+            processingThreads, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Transaction pipeline did not drain within 30 seconds");
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Run a task on the pipeline
+     *
+     * @throws PipelineSaturatedException if the pipeline cannot accept more work
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        if (virtualPermits == null) {
+            return CompletableFuture.supplyAsync(task, executor);
+        }
+
+        if (!virtualPermits.tryAcquire()) {
+            rejectedCounter.increment();
+            throw new PipelineSaturatedException("Transaction pipeline is saturated");
+        }
+        try {
+            return CompletableFuture.supplyAsync(task, executor)
+                .whenComplete((result, ex) -> virtualPermits.release());
+        } catch (RuntimeException e) {
+            virtualPermits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Fail fast if the pipeline cannot take the given number of tasks right now
+     *
+     * @throws PipelineSaturatedException if there is not enough free capacity
+     */
+    public void reserve(int tasks) {
+        int free = freeCapacity();
+        if (free < tasks) {
+            rejectedCounter.increment(tasks);
+            throw new PipelineSaturatedException(
+                "Transaction pipeline cannot accept " + tasks + " tasks (" + free + " free)");
+        }
+    }
+
+    /**
+     * Number of tasks the pipeline could accept right now without rejecting any
+     */
+    public int freeCapacity() {
+        return virtualPermits != null
+            ? virtualPermits.availablePermits()
+            : platformExecutor.getQueue().remainingCapacity()
+                + platformExecutor.getMaximumPoolSize() - platformExecutor.getActiveCount();
+    }
+
+    public static class PipelineSaturatedException extends RuntimeException {
+        public PipelineSaturatedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,25 +1,47 @@
 package com.transactionengine.transaction.service;
 
+import com.transactionengine.transaction.config.LimiterConfig;
 import com.transactionengine.transaction.model.Transaction;
 import com.transactionengine.transaction.model.Transaction.TransactionStatus;
-import com.transactionengine.transaction.repository.TransactionRepository;
+import com.transactionengine.transaction.service.cache.TransactionReadCache;
+import com.transactionengine.transaction.service.idempotency.DuplicateTransactionDetector;
+import com.transactionengine.transaction.service.journal.JournalReplicator;
+import com.transactionengine.transaction.service.ledger.AccountLedger;
+import com.transactionengine.transaction.service.limit.AdaptiveConcurrencyLimiter;
+import com.transactionengine.transaction.service.limit.AdaptiveConcurrencyLimiter.LimitExceededException;
+import com.transactionengine.transaction.service.limit.AdaptiveConcurrencyLimiter.Permit;
+import com.transactionengine.transaction.service.metrics.TransactionMeter;
+import com.transactionengine.transaction.service.metrics.TransactionStage;
+import com.transactionengine.transaction.service.metrics.TransactionStageTimers;
+import com.transactionengine.transaction.service.optimistic.OptimisticTransactionClaimer;
+import com.transactionengine.transaction.service.optimistic.OptimisticTransactionClaimer.ClaimLostException;
+import com.transactionengine.transaction.service.optimistic.ProcessingMode;
+import com.transactionengine.transaction.service.retry.TransactionRetryScheduler;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * High-Performance Transaction Processing Service
@@ -31,19 +53,84 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Slf4j
 public class TransactionProcessingService {
 
-    @Autowired
-    private TransactionRepository transactionRepository;
+    private static final String ACCOUNT_LOCK_PREFIX = "account:lock:";
 
     @Autowired
     private DistributedLockService lockService;
 
+    @Autowired
+    private TransactionWriteBehindBuffer writeBehindBuffer;
+
+    @Autowired
+    private AccountLedger accountLedger;
+
+    @Autowired(required = false)
+    private JournalReplicator journalReplicator;
+
+    @Autowired
+    private DuplicateTransactionDetector duplicateDetector;
+
+    @Autowired
+    private TransactionPipeline pipeline;
+
+    @Autowired
+    private TransactionReadCache readCache;
+
+    @Autowired
+    @Qualifier(LimiterConfig.PROCESSING_LIMITER)
+    private AdaptiveConcurrencyLimiter processingLimiter;
+
+    @Autowired
+    @Lazy
+    private TransactionProcessingService self;
+
+    @Autowired
+    @Lazy
+    private TransactionRetryScheduler retryScheduler;
+
     @Autowired
     private MeterRegistry meterRegistry;
 
-    private final ConcurrentHashMap<String, AtomicInteger> transactionMetrics = new ConcurrentHashMap<>();
+    @Autowired
+    private TransactionMeter transactionMeter;
+
+    @Autowired
+    private TransactionStageTimers stageTimers;
+
+    @Autowired
+    private OptimisticTransactionClaimer optimisticClaimer;
+
     private Counter processedTransactionsCounter;
     private Counter failedTransactionsCounter;
     private Timer transactionTimer;
+    private Timer batchTimer;
+
+    @Value("${app.transaction.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.transaction.batch-max-lock-keys:64}")
+    private int batchMaxLockKeys;
+
+    @Value("${app.transaction.concurrency.mode:locking}")
+    private String concurrencyMode;
+
+    private ProcessingMode processingMode;
+
+    /**
+     * Optimistic mode relies on the version-checked final write failing in the
+     * caller. With the journal that write happens later, on the replicator's
+     * thread, after the caller has already been answered, so the two are exclusive.
+     */
+    @PostConstruct
+    public void resolveProcessingMode() {
+        processingMode = ProcessingMode.valueOf(concurrencyMode.trim().toUpperCase());
+        if (processingMode == ProcessingMode.OPTIMISTIC && journalReplicator != null) {
+            throw new IllegalStateException("app.transaction.concurrency.mode=optimistic needs "
+                + "app.transaction.journal.enabled=false: the journal replicates the version-checked write "
+                + "asynchronously, so a conflict could no longer fail the transaction");
+        }
+        log.info("Processing transactions with {} concurrency control", processingMode);
+    }
 
     @Autowired
     public void initializeMetrics(MeterRegistry registry) {
@@ -58,102 +145,432 @@ public class TransactionProcessingService {
         this.transactionTimer = Timer.builder("transaction.processing.time")
             .description("Transaction processing time")
             .register(registry);
+
+        this.batchTimer = Timer.builder("transaction.batch.processing.time")
+            .description("Processing time of a whole transaction batch")
+            .register(registry);
     }
 
     /**
      * Process transaction with distributed locking and circuit breaker
      *
+     * Both accounts are locked for the duration, so concurrent transfers that
+     * touch the same account are serialized; in OPTIMISTIC mode a conditional
+     * update claims the transaction instead (see OptimisticTransactionClaimer).
+     * Calls beyond the adaptive processing limit are rejected before they wait
+     * for a lock, and go to the retry queue.
+     * The PROCESSING and COMPLETED transitions are coalesced into a single write,
+     * committed to the journal when enabled, otherwise to the database in a
+     * batch together with other transactions.
+     *
      * @param transaction Transaction to process
      * @return Processed transaction
      */
-    @Transactional
     @CircuitBreaker(name = "transaction-processing", fallbackMethod = "processTransactionFallback")
     @Retry(name = "transaction-processing")
     public Transaction processTransaction(Transaction transaction) {
-        String lockKey = "transaction:lock:" + transaction.getTransactionId();
-
-        return lockService.executeWithLock(lockKey, () -> {
-            return transactionTimer.recordCallable(() -> {
-                try {
-                    log.info("Processing transaction: {}", transaction.getTransactionId());
+        Permit permit = processingLimiter.tryAcquire()
+            .orElseThrow(() -> new LimitExceededException("Processing concurrency limit reached"));
+        long start = System.nanoTime();
+        try {
+            validateBeforeProcessing(transaction);
+            Transaction processed = processingMode == ProcessingMode.OPTIMISTIC
+                ? processOptimistically(transaction)
+                : processWithLocks(transaction);
+            permit.success();
+            transactionMeter.record(processed, System.nanoTime() - start);
+            return processed;
+        } catch (RuntimeException e) {
+            transactionMeter.record(transaction, System.nanoTime() - start);
+            if (isOverload(e)) {
+                permit.dropped();
+            } else {
+                permit.ignore();
+            }
+            throw e;
+        }
+    }
 
-                    // Check for duplicate transaction
-                    if (isDuplicateTransaction(transaction)) {
-                        log.warn("Duplicate transaction detected: {}", transaction.getTransactionId());
-                        throw new DuplicateTransactionException("Transaction already processed");
-                    }
+    /**
+     * Validate before any lock or claim is taken, so an invalid request never
+     * locks, e.g., "account:lock:null". The failure is recorded as in process().
+     */
+    private void validateBeforeProcessing(Transaction transaction) {
+        long start = System.nanoTime();
+        try {
+            validateTransaction(transaction);
+        } catch (ValidationException e) {
+            log.warn("Rejected invalid transaction {}: {}", transaction.getTransactionId(), e.getMessage());
+            failedTransactionsCounter.increment();
+            handleTransactionFailure(transaction, e);
+            throw new TransactionProcessingException("Failed to process transaction", e);
+        }
+        stageTimers.stop(TransactionStage.VALIDATION, transaction.getTransactionId(), start);
+    }
 
-                    // Validate transaction
-                    validateTransaction(transaction);
+    private Transaction processWithLocks(Transaction transaction) {
+        List<String> lockKeys = List.of(
+            ACCOUNT_LOCK_PREFIX + transaction.getAccountFrom(),
+            ACCOUNT_LOCK_PREFIX + transaction.getAccountTo());
 
-                    // Update status to processing
-                    transaction.setStatus(TransactionStatus.PROCESSING);
-                    transaction = transactionRepository.save(transaction);
+        return lockService.executeWithLocks(lockKeys, () -> process(transaction, true));
+    }
 
-                    // Simulate processing logic
-                    processTransactionLogic(transaction);
+    /**
+     * Process without the distributed lock. The ledger shards serialize balance
+     * changes per account, but only within this node: the ledger is in memory, so
+     * nodes sharing accounts can still interleave. Optimistic mode therefore suits
+     * deployments that route each account to one node. What remains is keeping two
+     * processors off the same transaction, which the claim and the version-checked
+     * final write do. The claim happens before anything is recorded, so a lost claim never
+     * overwrites the row its winner is working on. A claimed PENDING or FAILED
+     * row cannot be a duplicate, so only transactions not stored yet are checked.
+     */
+    private Transaction processOptimistically(Transaction transaction) {
+        boolean claimed;
+        try {
+            claimed = optimisticClaimer.claim(transaction);
+        } catch (ClaimLostException e) {
+            log.warn("Skipping transaction {}: {}", transaction.getTransactionId(), e.getMessage());
+            throw new TransactionProcessingException("Transaction is processed elsewhere", e);
+        }
+        try {
+            return process(transaction, !claimed);
+        } catch (RuntimeException e) {
+            if (isOptimisticConflict(e)) {
+                optimisticClaimer.recordCommitConflict();
+            }
+            throw e;
+        }
+    }
 
-                    // Mark transaction as completed
-                    transaction.setStatus(TransactionStatus.COMPLETED);
-                    transaction.setCompletedAt(LocalDateTime.now());
-                    transaction = transactionRepository.save(transaction);
+    private Transaction process(Transaction transaction, boolean checkDuplicate) {
+        return transactionTimer.record(() -> {
+            String transactionId = transaction.getTransactionId();
+            long stageStart = System.nanoTime();
+            try {
+                log.info("Processing transaction: {}", transactionId);
+
+                // Check for duplicate transaction
+                if (checkDuplicate && isDuplicateTransaction(transaction)) {
+                    log.warn("Duplicate transaction detected: {}", transactionId);
+                    throw new DuplicateTransactionException("Transaction already processed");
+                }
+                stageStart = stageTimers.stop(TransactionStage.DUPLICATE_CHECK, transactionId, stageStart);
 
-                    // Update metrics
-                    processedTransactionsCounter.increment();
-                    updateTransactionMetrics(transaction.getType().toString());
+                // Update status to processing
+                transaction.setStatus(TransactionStatus.PROCESSING);
+                readCache.update(transaction);
+                stageStart = stageTimers.stop(TransactionStage.MARK_PROCESSING, transactionId, stageStart);
 
-                    log.info("Transaction processed successfully: {}", transaction.getTransactionId());
-                    return transaction;
+                // Apply debit and credit
+                processTransactionLogic(transaction);
+                stageStart = stageTimers.stop(TransactionStage.LEDGER, transactionId, stageStart);
 
-                } catch (Exception e) {
-                    log.error("Error processing transaction: {}", transaction.getTransactionId(), e);
-                    failedTransactionsCounter.increment();
-                    handleTransactionFailure(transaction, e);
-                    throw new TransactionProcessingException("Failed to process transaction", e);
+                // Mark transaction as completed and wait until that state is durable
+                transaction.setStatus(TransactionStatus.COMPLETED);
+                transaction.setCompletedAt(LocalDateTime.now());
+                Transaction persisted;
+                try {
+                    persisted = commit(transaction);
+                } catch (RuntimeException e) {
+                    // Not durable, so the balances must not keep the transfer
+                    accountLedger.revert(transaction);
+                    throw e;
                 }
-            });
+                stageTimers.stop(TransactionStage.COMMIT, transactionId, stageStart);
+
+                duplicateDetector.recordProcessed(persisted.getTransactionId());
+                readCache.update(persisted);
+
+                // Update metrics
+                processedTransactionsCounter.increment();
+
+                log.info("Transaction processed successfully: {}", persisted.getTransactionId());
+                return persisted;
+
+            } catch (Exception e) {
+                log.error("Error processing transaction: {}", transactionId, e);
+                failedTransactionsCounter.increment();
+                long failureStart = System.nanoTime();
+                handleTransactionFailure(transaction, e);
+                stageTimers.stop(TransactionStage.RECORD_FAILURE, transactionId, failureStart);
+                throw new TransactionProcessingException("Failed to process transaction", e);
+            }
         });
     }
 
     /**
      * Async transaction processing for high throughput
      *
+     * Runs on the bounded transaction pipeline and goes through this bean's proxy,
+     * so the circuit breaker and retry still apply.
+     *
      * @param transaction Transaction to process
      * @return CompletableFuture of processed transaction
+     * @throws TransactionPipeline.PipelineSaturatedException if the pipeline is full
      */
-    @Async
     public CompletableFuture<Transaction> processTransactionAsync(Transaction transaction) {
-        return CompletableFuture.supplyAsync(() -> processTransaction(transaction));
+        // Before submitting, so the accepted state can never land after a later one
+        readCache.update(transaction);
+        try {
+            return pipeline.submit(() -> self.processTransaction(transaction));
+        } catch (RuntimeException e) {
+            readCache.invalidate(transaction.getTransactionId());
+            throw e;
+        }
     }
 
     /**
      * Batch process multiple transactions
      *
-     * @param transactions Array of transactions
-     * @return CompletableFuture of results
+     * The batch runs as a single pipeline task: one validation pass, one duplicate
+     * query, account locks taken in rounds of at most batch-max-lock-keys keys,
+     * and chunked batch writes. Each transaction gets its own outcome; failed ones
+     * come back FAILED with a reason instead of failing the whole batch.
+     *
+     * @param transactions Transactions to process
+     * @return CompletableFuture of results, in request order
+     * @throws TransactionPipeline.PipelineSaturatedException if the pipeline is full
      */
-    @Async
-    public CompletableFuture<Transaction[]> processBatchTransactions(Transaction[] transactions) {
-        CompletableFuture<Transaction>[] futures = new CompletableFuture[transactions.length];
+    public CompletableFuture<List<Transaction>> processBatchTransactions(List<Transaction> transactions) {
+        return pipeline.submit(() -> batchTimer.record(() -> self.processBatch(transactions)));
+    }
 
-        for (int i = 0; i < transactions.length; i++) {
-            futures[i] = processTransactionAsync(transactions[i]);
+    /**
+     * Process a batch under the same circuit breaker and processing limit as
+     * single transactions; the whole batch takes one permit. Not retried as a
+     * whole, since part of it may have committed; see processBatchFallback.
+     * Public only so the call goes through this bean's proxy.
+     */
+    @CircuitBreaker(name = "transaction-processing", fallbackMethod = "processBatchFallback")
+    public List<Transaction> processBatch(List<Transaction> transactions) {
+        Permit permit = processingLimiter.tryAcquire()
+            .orElseThrow(() -> new LimitExceededException("Processing concurrency limit reached"));
+        try {
+            boolean overloaded = processBatchWithPermit(transactions);
+            // A batch's latency says nothing about a single call's, so it is not sampled
+            if (overloaded) {
+                permit.dropped();
+            } else {
+                permit.ignore();
+            }
+            return transactions;
+        } catch (RuntimeException e) {
+            if (isOverload(e)) {
+                permit.dropped();
+            } else {
+                permit.ignore();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return Whether a round of account locks could not be acquired in time
+     */
+    private boolean processBatchWithPermit(List<Transaction> transactions) {
+        long start = System.nanoTime();
+        boolean overloaded = false;
+        List<Transaction> accepted = new ArrayList<>(transactions.size());
+        List<Transaction> rejected = new ArrayList<>();
+
+        // Validate everything up front
+        Set<String> seenIds = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            if (!seenIds.add(transaction.getTransactionId())) {
+                // The first occurrence owns the row, so this one is only reported
+                transaction.setStatus(TransactionStatus.FAILED);
+                transaction.setFailureReason("Transaction appears more than once in batch");
+                transaction.setRetryable(false);
+                continue;
+            }
+            try {
+                validateTransaction(transaction);
+                accepted.add(transaction);
+            } catch (ValidationException e) {
+                markFailed(transaction, e);
+                rejected.add(transaction);
+            }
         }
 
-        return CompletableFuture.allOf(futures)
-            .thenApply(v -> {
-                Transaction[] results = new Transaction[transactions.length];
-                for (int i = 0; i < futures.length; i++) {
-                    results[i] = futures[i].join();
+        // One lookup for the whole batch; duplicates are reported but never rewritten
+        Set<String> duplicates = duplicateDetector.findDuplicates(
+            accepted.stream().map(Transaction::getTransactionId).toList());
+        if (!duplicates.isEmpty()) {
+            accepted.removeIf(transaction -> {
+                if (duplicates.contains(transaction.getTransactionId())) {
+                    transaction.setStatus(TransactionStatus.FAILED);
+                    transaction.setFailureReason("Transaction already processed");
+                    transaction.setRetryable(false);
+                    return true;
                 }
-                return results;
+                return false;
             });
+        }
+
+        if (!accepted.isEmpty() && processingMode == ProcessingMode.OPTIMISTIC) {
+            // Rows from the work queue are already claimed as LOCKED, new ones are
+            // guarded by the unique transaction ID, and the final write is version-checked
+            applyAndCommitBatch(accepted, rejected);
+        } else if (!accepted.isEmpty()) {
+            for (LockRound round : lockRounds(accepted)) {
+                try {
+                    lockService.executeWithLocks(round.lockKeys(), () -> {
+                        applyAndCommitBatch(round.transactions(), rejected);
+                        return null;
+                    });
+                } catch (DistributedLockService.LockAcquisitionException e) {
+                    // Recorded as FAILED below; the work queue retries them from the database
+                    log.warn("Could not lock accounts for {} of {} batch transactions",
+                        round.transactions().size(), accepted.size(), e);
+                    overloaded = true;
+                    for (Transaction transaction : round.transactions()) {
+                        markFailed(transaction, e);
+                        rejected.add(transaction);
+                    }
+                }
+            }
+        }
+
+        // Rejected transactions are recorded as FAILED, as in the single-transaction path
+        persistFailures(rejected);
+
+        long elapsed = System.nanoTime() - start;
+        for (Transaction transaction : transactions) {
+            transactionMeter.record(transaction, elapsed);
+        }
+        return overloaded;
+    }
+
+    /**
+     * Split transactions, in order, into rounds that lock at most batchMaxLockKeys
+     * accounts each, so one batch never holds a large share of all accounts at once.
+     * A transaction is never split; a round holds at least one.
+     */
+    private List<LockRound> lockRounds(List<Transaction> transactions) {
+        List<LockRound> rounds = new ArrayList<>();
+        Set<String> keys = new LinkedHashSet<>();
+        List<Transaction> members = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            String fromKey = ACCOUNT_LOCK_PREFIX + transaction.getAccountFrom();
+            String toKey = ACCOUNT_LOCK_PREFIX + transaction.getAccountTo();
+            int added = (keys.contains(fromKey) ? 0 : 1) + (keys.contains(toKey) || toKey.equals(fromKey) ? 0 : 1);
+            if (!members.isEmpty() && keys.size() + added > batchMaxLockKeys) {
+                rounds.add(new LockRound(List.copyOf(keys), members));
+                keys = new LinkedHashSet<>();
+                members = new ArrayList<>();
+            }
+            keys.add(fromKey);
+            keys.add(toKey);
+            members.add(transaction);
+        }
+        if (!members.isEmpty()) {
+            rounds.add(new LockRound(List.copyOf(keys), members));
+        }
+        return rounds;
+    }
+
+    private record LockRound(List<String> lockKeys, List<Transaction> transactions) {
+    }
+
+    /**
+     * Apply accepted transactions to the ledger and commit them, with the account locks held
+     */
+    private void applyAndCommitBatch(List<Transaction> accepted, List<Transaction> rejected) {
+        for (Transaction transaction : accepted) {
+            transaction.setStatus(TransactionStatus.PROCESSING);
+            readCache.update(transaction);
+        }
+
+        List<RuntimeException> ledgerFailures = accountLedger.applyAll(accepted);
+        List<Transaction> applied = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            Transaction transaction = accepted.get(i);
+            if (ledgerFailures.get(i) == null) {
+                transaction.setStatus(TransactionStatus.COMPLETED);
+                transaction.setCompletedAt(LocalDateTime.now());
+                applied.add(transaction);
+            } else {
+                markFailed(transaction, ledgerFailures.get(i));
+                rejected.add(transaction);
+            }
+        }
+
+        for (int from = 0; from < applied.size(); from += batchSize) {
+            List<Transaction> chunk = applied.subList(from, Math.min(from + batchSize, applied.size()));
+            List<CompletableFuture<Transaction>> results = journalReplicator != null
+                ? journalReplicator.commitAll(chunk)
+                : writeBehindBuffer.writeAll(chunk);
+
+            for (int i = 0; i < chunk.size(); i++) {
+                Transaction transaction = chunk.get(i);
+                try {
+                    results.get(i).join();
+                    duplicateDetector.recordProcessed(transaction.getTransactionId());
+                    readCache.update(transaction);
+                    processedTransactionsCounter.increment();
+                } catch (CompletionException e) {
+                    // Not durable, so the balances must not keep the transfer
+                    accountLedger.revert(transaction);
+                    if (processingMode == ProcessingMode.OPTIMISTIC && isOptimisticConflict(e)) {
+                        optimisticClaimer.recordCommitConflict();
+                    }
+                    markFailed(transaction, e.getCause());
+                    rejected.add(transaction);
+                }
+            }
+        }
+    }
+
+    private void markFailed(Transaction transaction, Throwable cause) {
+        log.warn("Batch transaction {} failed: {}", transaction.getTransactionId(), cause.getMessage());
+        failedTransactionsCounter.increment();
+        transaction.setStatus(TransactionStatus.FAILED);
+        transaction.setFailureReason(cause.getMessage());
+        transaction.setRetryCount(transaction.getRetryCount() + 1);
+        transaction.setRetryable(isRetryable(cause));
+    }
+
+    /**
+     * Whether a retry could succeed where this failure did. An invalid or
+     * already processed transaction, or a debit the account cannot cover, fails
+     * the same way every time, so the work queue leaves it alone.
+     */
+    private static boolean isRetryable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ValidationException
+                    || cause instanceof DuplicateTransactionException
+                    || cause instanceof AccountLedger.InsufficientFundsException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void persistFailures(List<Transaction> failed) {
+        for (int from = 0; from < failed.size(); from += batchSize) {
+            List<Transaction> chunk = failed.subList(from, Math.min(from + batchSize, failed.size()));
+            chunk.forEach(readCache::update);
+            writeBehindBuffer.writeAll(chunk).forEach(result -> result.exceptionally(e -> {
+                log.error("Failed to record failed batch transaction", e);
+                return null;
+            }));
+        }
     }
 
     /**
      * Fallback method for circuit breaker
+     *
+     * A failed processing attempt has already been recorded as FAILED, and the
+     * work queue retries it from the database. Anything else, such as an open
+     * circuit, a lock timeout or a call shed by the concurrency limiter, never
+     * reached the database and goes on the retry queue.
      */
     public Transaction processTransactionFallback(Transaction transaction, Exception ex) {
+        if (ex instanceof TransactionProcessingException) {
+            return transaction;
+        }
         log.warn("Circuit breaker triggered for transaction: {}. Using fallback method.",
             transaction.getTransactionId());
 
@@ -161,6 +578,8 @@ public class TransactionProcessingService {
         transaction.setFailureReason("Service temporarily unavailable. Transaction queued for retry.");
         transaction.setRetryCount(transaction.getRetryCount() + 1);
 
+        readCache.update(transaction);
+
         // Queue transaction for later processing
         queueTransactionForRetry(transaction);
 
@@ -168,9 +587,60 @@ public class TransactionProcessingService {
     }
 
     /**
-     * Validate transaction before processing
+     * Fallback for a batch that failed as a whole, usually rejected by the open
+     * circuit or the processing limit before any of it ran. Whatever completed
+     * is reported as such. Rows the work queue claimed stay LOCKED and are
+     * claimed again once their lease expires; new transactions go to the retry queue.
      */
-    private void validateTransaction(Transaction transaction) {
+    public List<Transaction> processBatchFallback(List<Transaction> transactions, Exception ex) {
+        log.warn("Batch of {} transactions rejected: {}", transactions.size(), ex.getMessage());
+        for (Transaction transaction : transactions) {
+            if (transaction.getStatus() == TransactionStatus.COMPLETED) {
+                continue;
+            }
+            transaction.setStatus(TransactionStatus.FAILED);
+            transaction.setFailureReason("Service temporarily unavailable. Transaction queued for retry.");
+            if (transaction.getId() == null) {
+                transaction.setRetryCount(transaction.getRetryCount() + 1);
+                readCache.update(transaction);
+                queueTransactionForRetry(transaction);
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * Whether a failure means a backend was too slow or saturated, as opposed to
+     * a problem with the transaction itself, which says nothing about load
+     */
+    private boolean isOverload(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DistributedLockService.LockAcquisitionException
+                    || cause instanceof TransactionWriteBehindBuffer.WriteBehindException
+                    || cause instanceof DataAccessException
+                    || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether a write was rejected because the row's version had moved on
+     */
+    private boolean isOptimisticConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Validate transaction before processing; package-private for the benchmarks module
+     */
+    void validateTransaction(Transaction transaction) {
         if (transaction.getAmount() == null || transaction.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
             throw new ValidationException("Invalid transaction amount");
         }
@@ -194,65 +664,70 @@ public class TransactionProcessingService {
      * Check for duplicate transactions
      */
     private boolean isDuplicateTransaction(Transaction transaction) {
-        return transactionRepository.existsByTransactionIdAndStatusIn(
-            transaction.getTransactionId(),
-            java.util.List.of(TransactionStatus.COMPLETED, TransactionStatus.PROCESSING)
-        );
+        return duplicateDetector.isDuplicate(transaction.getTransactionId());
     }
 
     /**
      * Process transaction business logic
      */
-    private void processTransactionLogic(Transaction transaction) throws InterruptedException {
-        // Simulate processing time (remove in production)
-        Thread.sleep(10); // 10ms processing time
+    private void processTransactionLogic(Transaction transaction) {
+        // Debit source and credit destination on the owning ledger shards
+        accountLedger.apply(transaction);
 
-        // Here you would implement actual transaction processing:
-        // 1. Debit source account
-        // 2. Credit destination account
-        // 3. Update ledgers
-        // 4. Send notifications
-        // 5. Update audit logs
+        // Notifications and audit logs consume the outbox events written when
+        // the COMPLETED state is persisted (see TransactionOutbox)
     }
 
     /**
-     * Handle transaction failure
+     * Make the final state of a transaction durable. With the journal enabled the
+     * journal is the commit point and Postgres is populated from it asynchronously.
+     */
+    private Transaction commit(Transaction transaction) {
+        if (journalReplicator != null) {
+            return journalReplicator.commit(transaction);
+        }
+        return writeBehindBuffer.write(transaction);
+    }
+
+    /**
+     * Handle transaction failure. After an optimistic conflict the row belongs
+     * to whoever changed it, so the failure is not written over it.
      */
     private void handleTransactionFailure(Transaction transaction, Exception e) {
         transaction.setStatus(TransactionStatus.FAILED);
         transaction.setFailureReason(e.getMessage());
         transaction.setRetryCount(transaction.getRetryCount() + 1);
-        transactionRepository.save(transaction);
+        transaction.setRetryable(isRetryable(e));
+        if (isOptimisticConflict(e)) {
+            return;
+        }
+        // Written through the buffer's merge path, which loads a stored row by its full key
+        writeBehindBuffer.writeAll(List.of(transaction)).get(0).exceptionally(failure -> {
+            log.error("Failed to record failed transaction {}", transaction.getTransactionId(), failure);
+            return null;
+        });
+        readCache.update(transaction);
     }
 
     /**
-     * Queue transaction for retry
+     * Queue transaction for retry, or dead-letter it once out of retries
      */
     private void queueTransactionForRetry(Transaction transaction) {
-        // Implement retry queue logic (e.g., using RabbitMQ or Redis)
-        log.info("Transaction queued for retry: {}", transaction.getTransactionId());
-    }
-
-    /**
-     * Update transaction metrics
-     */
-    private void updateTransactionMetrics(String type) {
-        transactionMetrics.computeIfAbsent(type, k -> new AtomicInteger(0))
-            .incrementAndGet();
+        retryScheduler.enqueue(transaction);
     }
 
     /**
-     * Get current TPS (Transactions Per Second)
+     * Get current TPS (Transactions Per Second), over the last complete second
      */
     public double getCurrentTPS() {
-        return processedTransactionsCounter.count() / 60.0; // Simplified TPS calculation
+        return transactionMeter.rate(1);
     }
 
     /**
-     * Get transaction metrics
+     * Get sliding-window throughput and latency percentiles
      */
-    public ConcurrentHashMap<String, AtomicInteger> getTransactionMetrics() {
-        return transactionMetrics;
+    public TransactionMeter.Snapshot getTransactionMetrics() {
+        return transactionMeter.snapshot();
     }
 
     // Custom Exceptions
@@ -0,0 +1,291 @@
+package com.transactionengine.transaction.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.transactionengine.transaction.dto.TransactionRequest;
+import com.transactionengine.transaction.dto.TransactionResponse;
+import com.transactionengine.transaction.dto.TransactionStreamResult;
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.service.TransactionPipeline.PipelineSaturatedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming NDJSON Ingest
+ *
+ * Reads one transaction request per line and processes records on the
+ * transaction pipeline while the upload is still arriving. At most
+ * max-in-flight records are parsed but not yet answered; once that many are
+ * outstanding, reading stops until results have been written, which pushes
+ * back on the client through TCP flow control. Memory use therefore does not
+ * depend on the size of the upload.
+ *
+ * Results are written in completion order, each tagged with its input line.
+ * A record still processing after record-timeout-ms is reported as unknown,
+ * with its transaction ID to poll, since it may yet complete. Lines longer
+ * than max-line-length characters are skipped and reported as errors.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TransactionStreamIngestor {
+
+    private final TransactionProcessingService transactionService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.transaction.stream.max-in-flight:256}")
+    private int maxInFlight;
+
+    @Value("${app.transaction.stream.record-timeout-ms:30000}")
+    private long recordTimeoutMs;
+
+    @Value("${app.transaction.stream.saturation-backoff-ms:10}")
+    private long saturationBackoffMs;
+
+    @Value("${app.transaction.stream.max-line-length:65536}")
+    private int maxLineLength;
+
+    private ObjectReader requestReader;
+    private ObjectWriter resultWriter;
+    private Counter recordsCounter;
+
+    @PostConstruct
+    public void init() {
+        requestReader = objectMapper.readerFor(TransactionRequest.class);
+        resultWriter = objectMapper.writerFor(TransactionStreamResult.class);
+        recordsCounter = Counter.builder("transaction.stream.records")
+            .description("Records received through the NDJSON ingest endpoint")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Process every record of an NDJSON upload and stream back one result line per record
+     *
+     * @param input Request body, one JSON transaction request per line
+     * @param output Response body
+     * @param factory Turns a validated request into a new transaction
+     * @return Number of records processed
+     */
+    public long ingest(InputStream input, OutputStream output,
+                       Function<TransactionRequest, Transaction> factory) throws IOException {
+        LineReader reader = new LineReader(
+            new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), maxLineLength);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        // Completed results waiting for the writer; never holds more than maxInFlight entries
+        BlockingQueue<TransactionStreamResult> completed = new LinkedBlockingQueue<>();
+
+        long lineNumber = 0;
+        long records = 0;
+        int inFlight = 0;
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() && !reader.truncated()) {
+                continue;
+            }
+            records++;
+            recordsCounter.increment();
+
+            while (inFlight >= maxInFlight) {
+                write(writer, take(completed));
+                inFlight--;
+            }
+
+            inFlight++;
+            if (reader.truncated()) {
+                completed.add(error(lineNumber, "Record longer than " + maxLineLength + " characters"));
+            } else {
+                submit(lineNumber, line, factory, completed);
+            }
+
+            // Write whatever has finished in the meantime without waiting
+            TransactionStreamResult result;
+            boolean wrote = false;
+            while ((result = completed.poll()) != null) {
+                write(writer, result);
+                inFlight--;
+                wrote = true;
+            }
+            if (wrote) {
+                writer.flush();
+            }
+        }
+
+        while (inFlight > 0) {
+            write(writer, take(completed));
+            inFlight--;
+        }
+        writer.flush();
+
+        log.info("Ingested {} records from NDJSON stream", records);
+        return records;
+    }
+
+    private void submit(long lineNumber, String line, Function<TransactionRequest, Transaction> factory,
+                        BlockingQueue<TransactionStreamResult> completed) {
+        Transaction transaction;
+        try {
+            TransactionRequest request = requestReader.readValue(line);
+            Set<ConstraintViolation<TransactionRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                completed.add(error(lineNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "))));
+                return;
+            }
+            transaction = factory.apply(request);
+        } catch (JsonProcessingException e) {
+            completed.add(error(lineNumber, "Malformed record: " + e.getOriginalMessage()));
+            return;
+        }
+
+        // Timed out on a copy, so the processing future itself reflects only the real outcome
+        CompletableFuture<Transaction> processing = submitWhenAccepted(transaction);
+        processing.copy()
+            .orTimeout(recordTimeoutMs, TimeUnit.MILLISECONDS)
+            .whenComplete((processed, ex) -> {
+                if (ex == null) {
+                    completed.add(TransactionStreamResult.builder()
+                        .line(lineNumber)
+                        .transaction(TransactionResponse.from(processed))
+                        .build());
+                } else if (!processing.isDone()) {
+                    completed.add(TransactionStreamResult.builder()
+                        .line(lineNumber)
+                        .transactionId(transaction.getTransactionId())
+                        .outcomeUnknown(true)
+                        .error("No outcome after " + recordTimeoutMs + " ms; it may still complete")
+                        .build());
+                } else {
+                    completed.add(TransactionStreamResult.builder()
+                        .line(lineNumber)
+                        .transactionId(transaction.getTransactionId())
+                        .error(rootMessage(ex))
+                        .build());
+                }
+            });
+    }
+
+    /**
+     * Wait for room on the shared pipeline instead of failing the record when other traffic fills it
+     */
+    private CompletableFuture<Transaction> submitWhenAccepted(Transaction transaction) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(recordTimeoutMs);
+        while (true) {
+            try {
+                return transactionService.processTransactionAsync(transaction);
+            } catch (PipelineSaturatedException e) {
+                if (System.nanoTime() > deadline) {
+                    return CompletableFuture.failedFuture(e);
+                }
+                try {
+                    Thread.sleep(saturationBackoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return CompletableFuture.failedFuture(interrupted);
+                }
+            }
+        }
+    }
+
+    private TransactionStreamResult take(BlockingQueue<TransactionStreamResult> completed) throws IOException {
+        try {
+            return completed.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for stream results", e);
+        }
+    }
+
+    private void write(Writer writer, TransactionStreamResult result) throws IOException {
+        writer.write(resultWriter.writeValueAsString(result));
+        writer.write('\n');
+    }
+
+    /**
+     * Line reader that keeps at most maxLength characters of a line and skips the rest
+     */
+    private static final class LineReader {
+
+        private final BufferedReader reader;
+        private final int maxLength;
+        private final StringBuilder line = new StringBuilder();
+        private boolean truncated;
+
+        private LineReader(BufferedReader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * @return The next line without its terminator, or null at the end of input
+         */
+        String readLine() throws IOException {
+            line.setLength(0);
+            truncated = false;
+            int c;
+            while ((c = reader.read()) != -1 && c != '\n') {
+                if (line.length() < maxLength) {
+                    line.append((char) c);
+                } else {
+                    truncated = true;
+                }
+            }
+            if (c == -1 && line.isEmpty() && !truncated) {
+                return null;
+            }
+            int end = line.length();
+            if (end > 0 && line.charAt(end - 1) == '\r') {
+                line.setLength(end - 1);
+            }
+            return line.toString();
+        }
+
+        /**
+         * Whether the last line read went over the maximum length
+         */
+        boolean truncated() {
+            return truncated;
+        }
+    }
+
+    private static TransactionStreamResult error(long lineNumber, String message) {
+        return TransactionStreamResult.builder().line(lineNumber).error(message).build();
+    }
+
+    private static String rootMessage(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,335 @@
+package com.transactionengine.transaction.service;
+
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.repository.TransactionRepository;
+import com.transactionengine.transaction.service.outbox.TransactionOutbox;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-Behind Buffer for transaction state changes
+ *
+ * Groups writes from many concurrent transactions and flushes them as one
+ * JDBC batch when either the batch size or the flush interval is reached.
+ * Futures complete only after the batch has committed. Outbox events for
+ * completed transactions are written in the same database transaction.
+ *
+ * A write whose caller gave up waiting is cancelled if the flusher has not
+ * picked it up yet, and skipped; once picked up, the caller waits for the
+ * real outcome instead, so a timed-out write never commits behind its back.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TransactionWriteBehindBuffer {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionOutbox outbox;
+
+    @Value("${app.transaction.write-behind.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.transaction.write-behind.flush-interval-ms:5}")
+    private long flushIntervalMs;
+
+    @Value("${app.transaction.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.transaction.write-behind.write-timeout-ms:5000}")
+    private long writeTimeoutMs;
+
+    private BlockingQueue<PendingWrite> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        flusher = new Thread(this::flushLoop, "txn-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Not interrupted: the flusher may be inside a JDBC call. It notices
+        // within one poll interval and exits after its current batch.
+        running = false;
+        flusher.join(writeTimeoutMs + 100);
+        List<PendingWrite> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (remaining.isEmpty()) {
+            return;
+        }
+        if (flusher.isAlive()) {
+            // Stuck in a batch that outlived its own callers; don't block shutdown on another
+            log.warn("Write-behind flusher did not stop in time, failing {} queued writes", remaining.size());
+            remaining.forEach(PendingWrite::cancel);
+        } else {
+            // Flush whatever is left so no caller is left waiting
+            flush(remaining);
+        }
+    }
+
+    /**
+     * Queue a transaction for the next batch flush
+     *
+     * @param transaction Transaction to persist
+     * @return Future completed with the persisted transaction once its batch commits
+     */
+    public CompletableFuture<Transaction> submit(Transaction transaction) {
+        return enqueue(transaction).future();
+    }
+
+    private PendingWrite enqueue(Transaction transaction) {
+        PendingWrite write = new PendingWrite(transaction);
+        try {
+            if (!queue.offer(write, writeTimeoutMs, TimeUnit.MILLISECONDS)) {
+                write.future().completeExceptionally(
+                    new WriteBehindException("Write-behind queue is full"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            write.future().completeExceptionally(e);
+        }
+        return write;
+    }
+
+    /**
+     * Queue a transaction and block until its batch has committed. On timeout
+     * the write is cancelled if it is still queued, so a WriteBehindException
+     * always means the transaction was not written; if its batch is already
+     * being flushed, this waits for that batch's outcome.
+     *
+     * @param transaction Transaction to persist
+     * @return Persisted transaction
+     */
+    public Transaction write(Transaction transaction) {
+        PendingWrite write = enqueue(transaction);
+        try {
+            try {
+                return write.future().get(writeTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (write.cancel()) {
+                    throw new WriteBehindException("Timed out waiting for batch commit", e);
+                }
+                return write.future().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (write.cancel()) {
+                throw new WriteBehindException("Interrupted while waiting for batch commit", e);
+            }
+            // Already being flushed; report what actually happened to it
+            try {
+                return write.future().join();
+            } catch (CompletionException failure) {
+                if (failure.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new WriteBehindException("Batch commit failed", failure.getCause());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new WriteBehindException("Batch commit failed", e.getCause());
+        }
+    }
+
+    /**
+     * Persist transactions in the calling thread, bypassing the queue, as one
+     * JDBC batch. A failing row does not fail the rest of the batch.
+     *
+     * @param transactions Transactions to persist
+     * @return Completed futures, in list order, holding each persisted transaction or its failure
+     */
+    public List<CompletableFuture<Transaction>> writeAll(List<Transaction> transactions) {
+        List<PendingWrite> batch = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            batch.add(new PendingWrite(transaction));
+        }
+        flush(batch);
+        return batch.stream().map(PendingWrite::future).toList();
+    }
+
+    private void flushLoop() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Wait for the batch to fill up, but no longer than the flush interval
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                if (running) {
+                    log.warn("Write-behind flusher interrupted unexpectedly");
+                }
+            } catch (Exception e) {
+                log.error("Unexpected error in write-behind flusher", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        // Cancelled writes are dropped; the rest can no longer be cancelled
+        batch.removeIf(write -> !write.start());
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Coalesce repeated writes of the same transaction, keeping the latest state
+        Map<String, List<PendingWrite>> byTransactionId = new LinkedHashMap<>();
+        for (PendingWrite write : batch) {
+            byTransactionId.computeIfAbsent(write.transaction().getTransactionId(), k -> new ArrayList<>())
+                .add(write);
+        }
+        List<Transaction> entities = new ArrayList<>(byTransactionId.size());
+        List<EntityState> originalStates = new ArrayList<>(byTransactionId.size());
+        for (List<PendingWrite> writes : byTransactionId.values()) {
+            Transaction entity = writes.get(writes.size() - 1).transaction();
+            entities.add(entity);
+            originalStates.add(new EntityState(entity.getId(), entity.getVersion()));
+        }
+
+        try {
+            List<Transaction> saved = transactionTemplate.execute(status -> {
+                transactionRepository.preloadForMerge(entities);
+                List<Transaction> result = transactionRepository.saveAll(entities);
+                outbox.record(result);
+                return result;
+            });
+            int i = 0;
+            for (List<PendingWrite> writes : byTransactionId.values()) {
+                Transaction persisted = saved.get(i++);
+                writes.forEach(write -> write.future().complete(persisted));
+            }
+            log.debug("Flushed {} transaction writes in one batch", entities.size());
+        } catch (Exception e) {
+            log.warn("Batch flush of {} writes failed, retrying individually", entities.size(), e);
+            // The rolled back batch may already have assigned ids and versions to new entities
+            for (int i = 0; i < entities.size(); i++) {
+                entities.get(i).setId(originalStates.get(i).id());
+                entities.get(i).setVersion(originalStates.get(i).version());
+            }
+            flushIndividually(byTransactionId);
+        }
+    }
+
+    /**
+     * Fall back to one transaction per write so a single bad row does not fail the whole batch
+     */
+    private void flushIndividually(Map<String, List<PendingWrite>> byTransactionId) {
+        for (List<PendingWrite> writes : byTransactionId.values()) {
+            Transaction entity = writes.get(writes.size() - 1).transaction();
+            try {
+                Transaction persisted = transactionTemplate.execute(status -> {
+                    transactionRepository.preloadForMerge(List.of(entity));
+                    Transaction result = transactionRepository.save(entity);
+                    outbox.record(List.of(result));
+                    return result;
+                });
+                writes.forEach(write -> write.future().complete(persisted));
+            } catch (Exception e) {
+                writes.forEach(write -> write.future().completeExceptionally(e));
+            }
+        }
+    }
+
+    private static final class PendingWrite {
+
+        private static final int QUEUED = 0;
+        private static final int FLUSHING = 1;
+        private static final int CANCELLED = 2;
+
+        private final Transaction transaction;
+        private final CompletableFuture<Transaction> future = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private PendingWrite(Transaction transaction) {
+            this.transaction = transaction;
+        }
+
+        Transaction transaction() {
+            return transaction;
+        }
+
+        CompletableFuture<Transaction> future() {
+            return future;
+        }
+
+        /**
+         * Claim the write for a flush; false if its caller cancelled it first
+         */
+        boolean start() {
+            return state.compareAndSet(QUEUED, FLUSHING);
+        }
+
+        /**
+         * Withdraw the write; false if a flush has already picked it up
+         */
+        boolean cancel() {
+            if (!state.compareAndSet(QUEUED, CANCELLED)) {
+                return state.get() == CANCELLED;
+            }
+            future.completeExceptionally(new WriteBehindException("Write cancelled before its batch was flushed"));
+            return true;
+        }
+    }
+
+    private record EntityState(String id, Long version) {
+    }
+
+    /**
+     * Raised when a write cannot be queued or its batch does not commit in time
+     */
+    public static class WriteBehindException extends RuntimeException {
+        public WriteBehindException(String message) {
+            super(message);
+        }
+
+        public WriteBehindException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.transactionengine.transaction.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.transactionengine.transaction.dto.TransactionResponse;
+import com.transactionengine.transaction.model.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Transaction Read Cache
+ *
+ * Read-through cache behind GET /transactions/{id}, with a local tier in front
+ * of a Redis tier shared by all nodes. Entries in a terminal state are kept for
+ * long. The processing service pushes every status change in, so polling
+ * clients see progress before the database write lands; a pushed in-flight
+ * state may not be in the database yet, so it stays until a later state
+ * replaces it. In-flight states read from the database expire quickly. Each entry carries a sequence number and a write never replaces a newer
+ * one, so a slow database read cannot bring back an older state. Other nodes
+ * drop their local copy when told over Redis pub/sub and re-read Redis.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TransactionReadCache {
+
+    private static final String REDIS_KEY_PREFIX = "transaction:cache:";
+    private static final String INVALIDATION_TOPIC = "transaction:cache:invalidations";
+    private static final String BODY_FIELD = "body";
+
+    /**
+     * Stores the entry only if it is newer than the stored one.
+     * KEYS[1] = entry hash, ARGV[1] = sequence, ARGV[2] = body, ARGV[3] = ttl in ms, or -1 for none
+     */
+    private static final String PUT_IF_NEWER_SCRIPT = """
+        local current = tonumber(redis.call('hget', KEYS[1], 'seq') or '-1')
+        if current >= tonumber(ARGV[1]) then
+            return 0
+        end
+        redis.call('hset', KEYS[1], 'seq', ARGV[1], 'body', ARGV[2])
+        if ARGV[3] == '-1' then
+            redis.call('persist', KEYS[1])
+        else
+            redis.call('pexpire', KEYS[1], ARGV[3])
+        end
+        return 1
+        """;
+
+    private final ObjectProvider<RedissonClient> redissonClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.transaction.cache.terminal-ttl:10m}")
+    private Duration terminalTtl;
+
+    @Value("${app.transaction.cache.active-ttl:2s}")
+    private Duration activeTtl;
+
+    @Value("${app.transaction.cache.local-max-size:100000}")
+    private long localMaxSize;
+
+    @Value("${app.transaction.cache.redis-enabled:${redisson.enabled:true}}")
+    private boolean redisEnabled;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong lastSequence = new AtomicLong();
+    private Cache<String, CachedTransaction> localTier;
+    private RTopic invalidations;
+    private int listenerId;
+
+    private Counter localHits;
+    private Counter redisHits;
+    private Counter misses;
+    private Counter localInvalidations;
+    private Counter remoteInvalidations;
+    private Timer localStaleness;
+    private Timer redisStaleness;
+
+    @PostConstruct
+    public void init() {
+        localTier = Caffeine.newBuilder()
+            .maximumSize(localMaxSize)
+            .expireAfter(new Expiry<String, CachedTransaction>() {
+                @Override
+                public long expireAfterCreate(String key, CachedTransaction value, long currentTime) {
+                    return expiryNanos(value);
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, CachedTransaction value, long currentTime,
+                                              long currentDuration) {
+                    return expiryNanos(value);
+                }
+
+                @Override
+                public long expireAfterRead(String key, CachedTransaction value, long currentTime,
+                                            long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+        localHits = requests("local-hit");
+        redisHits = requests("redis-hit");
+        misses = requests("miss");
+        localInvalidations = invalidations("local");
+        remoteInvalidations = invalidations("remote");
+        localStaleness = staleness("local");
+        redisStaleness = staleness("redis");
+        Gauge.builder("transaction.cache.hit-ratio", this, TransactionReadCache::hitRatio)
+            .description("Share of transaction reads answered from either cache tier")
+            .register(meterRegistry);
+
+        if (redisEnabled) {
+            invalidations = redissonClient.getObject().getTopic(INVALIDATION_TOPIC, StringCodec.INSTANCE);
+            listenerId = invalidations.addListener(String.class, (channel, message) -> onInvalidation(message));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (invalidations != null) {
+            invalidations.removeListener(listenerId);
+        }
+    }
+
+    /**
+     * Look a transaction up in the local tier, then Redis, then the loader
+     *
+     * @param transactionId Transaction to look up
+     * @param loader Database read, used on a miss in both tiers
+     * @return The cached or loaded transaction, empty if the loader has none
+     */
+    public Optional<TransactionResponse> get(String transactionId,
+                                             Supplier<Optional<TransactionResponse>> loader) {
+        CachedTransaction cached = localTier.getIfPresent(transactionId);
+        if (cached != null) {
+            localHits.increment();
+            localStaleness.record(cached.age());
+            return Optional.of(cached.response());
+        }
+        cached = readRemote(transactionId);
+        if (cached != null) {
+            redisHits.increment();
+            redisStaleness.record(cached.age());
+            putLocal(transactionId, cached);
+            return Optional.of(cached.response());
+        }
+
+        misses.increment();
+        Optional<TransactionResponse> loaded = loader.get();
+        // Sequence 0 loses to any state pushed by the processing service meanwhile
+        loaded.ifPresent(response -> store(new CachedTransaction(0, System.currentTimeMillis(), response)));
+        return loaded;
+    }
+
+    /**
+     * Record the current state of a transaction after a status change
+     *
+     * @param transaction Transaction whose state changed
+     */
+    public void update(Transaction transaction) {
+        store(new CachedTransaction(nextSequence(), System.currentTimeMillis(),
+            TransactionResponse.from(transaction)));
+    }
+
+    /**
+     * Drop a transaction from both tiers and from every other node's local tier
+     *
+     * @param transactionId Transaction to forget
+     */
+    public void invalidate(String transactionId) {
+        localTier.invalidate(transactionId);
+        if (!redisEnabled) {
+            return;
+        }
+        redissonClient.getObject().getKeys().deleteAsync(REDIS_KEY_PREFIX + transactionId)
+            .thenCompose(deleted -> invalidations.publishAsync(nodeId + ":" + transactionId))
+            .whenComplete((receivers, ex) -> {
+                if (ex != null) {
+                    log.warn("Could not invalidate cached transaction {} in Redis", transactionId, ex);
+                } else {
+                    localInvalidations.increment();
+                }
+            });
+    }
+
+    private void store(CachedTransaction entry) {
+        String transactionId = entry.response().getTransactionId();
+        putLocal(transactionId, entry);
+        writeRemote(transactionId, entry);
+    }
+
+    private void putLocal(String transactionId, CachedTransaction entry) {
+        localTier.asMap().merge(transactionId, entry,
+            (current, candidate) -> candidate.sequence() > current.sequence() ? candidate : current);
+    }
+
+    private CachedTransaction readRemote(String transactionId) {
+        if (!redisEnabled) {
+            return null;
+        }
+        try {
+            String json = redissonClient.getObject()
+                .<String, String>getMap(REDIS_KEY_PREFIX + transactionId, StringCodec.INSTANCE)
+                .get(BODY_FIELD);
+            return json == null ? null : objectMapper.readValue(json, CachedTransaction.class);
+        } catch (Exception e) {
+            log.warn("Could not read cached transaction {} from Redis", transactionId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Write without blocking the caller; peers are told only once the newer entry is in Redis
+     */
+    private void writeRemote(String transactionId, CachedTransaction entry) {
+        if (!redisEnabled) {
+            return;
+        }
+        try {
+            RScript script = redissonClient.getObject().getScript(StringCodec.INSTANCE);
+            script.<Boolean>evalAsync(RScript.Mode.READ_WRITE, PUT_IF_NEWER_SCRIPT, RScript.ReturnType.BOOLEAN,
+                    List.of(REDIS_KEY_PREFIX + transactionId),
+                    String.valueOf(entry.sequence()),
+                    objectMapper.writeValueAsString(entry),
+                    String.valueOf(ttlOf(entry).map(Duration::toMillis).orElse(-1L)))
+                .thenCompose(stored -> Boolean.TRUE.equals(stored)
+                    ? invalidations.publishAsync(nodeId + ":" + transactionId).thenApply(receivers -> true)
+                    : CompletableFuture.completedFuture(false))
+                .whenComplete((published, ex) -> {
+                    if (ex != null) {
+                        log.warn("Could not store cached transaction {} in Redis", transactionId, ex);
+                    } else if (published) {
+                        localInvalidations.increment();
+                    }
+                });
+        } catch (Exception e) {
+            log.warn("Could not store cached transaction {} in Redis", transactionId, e);
+        }
+    }
+
+    private void onInvalidation(String message) {
+        int separator = message.lastIndexOf(':');
+        if (separator < 0 || message.startsWith(nodeId + ":")) {
+            return;
+        }
+        localTier.invalidate(message.substring(separator + 1));
+        remoteInvalidations.increment();
+    }
+
+    /**
+     * Sequence numbers follow the wall clock in microseconds but never repeat or go backwards
+     */
+    private long nextSequence() {
+        long now = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        return lastSequence.updateAndGet(last -> Math.max(last + 1, now));
+    }
+
+    /**
+     * Time to live of an entry, empty for a pushed in-flight state that must
+     * stay until the next state replaces it
+     */
+    private Optional<Duration> ttlOf(CachedTransaction entry) {
+        if (entry.response().getStatus() != null && entry.response().getStatus().isTerminal()) {
+            return Optional.of(terminalTtl);
+        }
+        // Sequence 0 came from the database, which can simply be read again
+        return entry.sequence() == 0 ? Optional.of(activeTtl) : Optional.empty();
+    }
+
+    private long expiryNanos(CachedTransaction entry) {
+        return ttlOf(entry).map(Duration::toNanos).orElse(Long.MAX_VALUE);
+    }
+
+    private double hitRatio() {
+        double hits = localHits.count() + redisHits.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    private Counter requests(String result) {
+        return Counter.builder("transaction.cache.requests")
+            .description("Transaction reads by where the answer came from")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private Counter invalidations(String source) {
+        return Counter.builder("transaction.cache.invalidations")
+            .description("Invalidations published by this node or received from others")
+            .tag("source", source)
+            .register(meterRegistry);
+    }
+
+    private Timer staleness(String tier) {
+        return Timer.builder("transaction.cache.staleness")
+            .description("Age of cache entries when they are served")
+            .tag("tier", tier)
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
+
+    /**
+     * A cached transaction with the sequence of the write that produced it
+     */
+    record CachedTransaction(long sequence, long cachedAtMillis, TransactionResponse response) {
+
+        Duration age() {
+            return Duration.ofMillis(Math.max(0, System.currentTimeMillis() - cachedAtMillis));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.transactionengine.transaction.service.id;
+
+/**
+ * ID Generator
+ * Pluggable source of transaction IDs and primary keys, chosen by IdConfig
+ */
+public interface IdGenerator {
+
+    /**
+     * Next primary key
+     */
+    String nextId();
+
+    /**
+     * Next business ID, such as a transaction ID
+     *
+     * @param prefix ASCII prefix written ahead of the generated part, e.g. "TXN-"
+     */
+    String nextId(String prefix);
+}
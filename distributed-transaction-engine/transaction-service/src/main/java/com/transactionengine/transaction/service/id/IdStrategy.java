@@ -0,0 +1,16 @@
+package com.transactionengine.transaction.service.id;
+
+/**
+ * ID generator implementations, selected with app.transaction.id.generator
+ */
+public enum IdStrategy {
+    /**
+     * Snowflake-style: millisecond timestamp, node ID and sequence, so IDs grow
+     * monotonically and inserts append to the right edge of the indexes
+     */
+    TIME_ORDERED,
+    /**
+     * Random type-4 UUIDs, in the formats used before time-ordered IDs
+     */
+    RANDOM
+}
@@ -0,0 +1,118 @@
+package com.transactionengine.transaction.service.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node ID Lease
+ *
+ * Leases a node ID for the time-ordered generator from Redis. INCR on a shared
+ * counter picks the next candidate and SET NX with an expiry claims it, so no
+ * two live nodes hold the same ID. The holder renews its key at a third of the
+ * TTL; the ID of a node that dies becomes free once the key expires.
+ */
+@Slf4j
+public class NodeIdLease implements AutoCloseable {
+
+    static final String COUNTER_KEY = "txn:id:node-counter";
+    static final String NODE_KEY_PREFIX = "txn:id:node:";
+
+    /**
+     * Extends the key if ARGV[1] still owns it. KEYS[1] = node key, ARGV[2] = TTL in ms
+     */
+    private static final String RENEW_SCRIPT = """
+        if redis.call('get', KEYS[1]) == ARGV[1] then
+            return redis.call('pexpire', KEYS[1], ARGV[2])
+        end
+        return 0
+        """;
+
+    /**
+     * Deletes the key if ARGV[1] still owns it
+     */
+    private static final String RELEASE_SCRIPT = """
+        if redis.call('get', KEYS[1]) == ARGV[1] then
+            return redis.call('del', KEYS[1])
+        end
+        return 0
+        """;
+
+    private final RedissonClient redissonClient;
+    private final Duration ttl;
+    private final String owner = UUID.randomUUID().toString();
+    private final int nodeId;
+    private final ScheduledExecutorService renewer;
+
+    /**
+     * Lease a free node ID, trying each ID at most once
+     *
+     * @throws IllegalStateException if every node ID is held by another node
+     */
+    public NodeIdLease(RedissonClient redissonClient, Duration ttl) {
+        this.redissonClient = redissonClient;
+        this.ttl = ttl;
+        this.nodeId = lease();
+
+        long renewMillis = Math.max(1, ttl.toMillis() / 3);
+        renewer = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("txn-node-id-lease-"));
+        renewer.scheduleWithFixedDelay(this::renew, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public int nodeId() {
+        return nodeId;
+    }
+
+    private int lease() {
+        int ids = TimeOrderedIdGenerator.MAX_NODE_ID + 1;
+        for (int attempt = 0; attempt < ids; attempt++) {
+            int candidate = (int) Math.floorMod(redissonClient.getAtomicLong(COUNTER_KEY).incrementAndGet(), ids);
+            RBucket<String> key = redissonClient.getBucket(NODE_KEY_PREFIX + candidate, StringCodec.INSTANCE);
+            if (key.setIfAbsent(owner, ttl)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("All " + ids + " node IDs are leased by other nodes");
+    }
+
+    private void renew() {
+        try {
+            String key = NODE_KEY_PREFIX + nodeId;
+            Boolean renewed = redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE,
+                RENEW_SCRIPT, RScript.ReturnType.BOOLEAN, List.<Object>of(key), owner, String.valueOf(ttl.toMillis()));
+            if (Boolean.TRUE.equals(renewed)) {
+                return;
+            }
+            // Expired, e.g. after Redis was unreachable for longer than the TTL
+            if (redissonClient.<String>getBucket(key, StringCodec.INSTANCE).setIfAbsent(owner, ttl)) {
+                log.warn("Lease on node ID {} had expired; taken again", nodeId);
+            } else {
+                log.error("Node ID {} is now leased by another node; IDs from both nodes may collide "
+                    + "until this node restarts", nodeId);
+            }
+        } catch (Exception e) {
+            log.warn("Could not renew lease on node ID {}", nodeId, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        renewer.shutdownNow();
+        try {
+            redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, RELEASE_SCRIPT,
+                RScript.ReturnType.BOOLEAN, List.<Object>of(NODE_KEY_PREFIX + nodeId), owner);
+        } catch (Exception e) {
+            log.warn("Could not release node ID {}; it frees up when its lease expires", nodeId, e);
+        }
+    }
+}
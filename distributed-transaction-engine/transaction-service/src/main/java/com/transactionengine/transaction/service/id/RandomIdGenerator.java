@@ -0,0 +1,61 @@
+package com.transactionengine.transaction.service.id;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random type-4 UUIDs in the earlier formats: the canonical 36-character form
+ * for primary keys and 32 upper-case hex digits after the prefix for business
+ * IDs. Uses ThreadLocalRandom rather than the shared SecureRandom behind
+ * UUID.randomUUID, and encodes into one byte buffer.
+ */
+public class RandomIdGenerator implements IdGenerator {
+
+    private static final byte[] LOWER_HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] UPPER_HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    @Override
+    public String nextId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+
+        byte[] buffer = new byte[36];
+        hex(most >>> 32, 8, buffer, 0, LOWER_HEX);
+        buffer[8] = '-';
+        hex(most >>> 16, 4, buffer, 9, LOWER_HEX);
+        buffer[13] = '-';
+        hex(most, 4, buffer, 14, LOWER_HEX);
+        buffer[18] = '-';
+        hex(least >>> 48, 4, buffer, 19, LOWER_HEX);
+        buffer[23] = '-';
+        hex(least, 12, buffer, 24, LOWER_HEX);
+        return new String(buffer, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public String nextId(String prefix) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+
+        int prefixLength = prefix.length();
+        byte[] buffer = new byte[prefixLength + 32];
+        for (int i = 0; i < prefixLength; i++) {
+            buffer[i] = (byte) prefix.charAt(i);
+        }
+        hex(most, 16, buffer, prefixLength, UPPER_HEX);
+        hex(least, 16, buffer, prefixLength + 16, UPPER_HEX);
+        return new String(buffer, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Write the low digits hex digits of value, most significant first
+     */
+    private static void hex(long value, int digits, byte[] buffer, int offset, byte[] alphabet) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = alphabet[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
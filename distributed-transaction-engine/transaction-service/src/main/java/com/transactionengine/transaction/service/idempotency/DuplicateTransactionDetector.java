@@ -0,0 +1,273 @@
+package com.transactionengine.transaction.service.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import com.transactionengine.transaction.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RBucket;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Duplicate Transaction Detector
+ *
+ * Layered idempotency check:
+ * 1. A bounded cache of recently processed IDs answers hot retries.
+ * 2. A Bloom filter answers "definitely new" without any I/O.
+ * 3. Only IDs the filter may have seen fall through to the repository.
+ *
+ * The filter is warmed from the database on startup and only consulted once
+ * warm. With several nodes, enable the shared Redis filter so IDs processed
+ * on one node are visible to the others; it is warmed once, by whichever
+ * node takes its warm-up lock first, and a marker key tells the others.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DuplicateTransactionDetector {
+
+    private static final List<TransactionStatus> PROCESSED_STATUSES =
+        List.of(TransactionStatus.COMPLETED, TransactionStatus.PROCESSING);
+
+    private static final int WARM_UP_CHUNK = 10_000;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<RedissonClient> redissonClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.transaction.idempotency.bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${app.transaction.idempotency.bloom.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${app.transaction.idempotency.bloom.shared:false}")
+    private boolean sharedBloom;
+
+    @Value("${app.transaction.idempotency.bloom.name:transaction:ids:bloom}")
+    private String sharedBloomName;
+
+    @Value("${app.transaction.idempotency.cache.max-size:100000}")
+    private long cacheMaxSize;
+
+    @Value("${app.transaction.idempotency.cache.ttl:10m}")
+    private Duration cacheTtl;
+
+    private ScalableBloomFilter localBloom;
+    private RBloomFilter<String> remoteBloom;
+    private Cache<String, Boolean> recentIds;
+    private volatile boolean warm;
+
+    private Counter cacheHits;
+    private Counter bloomNegatives;
+    private Counter databaseHits;
+    private Counter falsePositives;
+
+    @PostConstruct
+    public void init() {
+        recentIds = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfterWrite(cacheTtl)
+            .build();
+
+        if (sharedBloom) {
+            remoteBloom = redissonClient.getObject().getBloomFilter(sharedBloomName);
+            if (remoteBloom.tryInit(expectedInsertions, falsePositiveRate)) {
+                // A new filter: any warm marker left belongs to one that was dropped
+                warmMarker().delete();
+            }
+        } else {
+            localBloom = new ScalableBloomFilter(expectedInsertions, falsePositiveRate);
+        }
+
+        cacheHits = counter("cache-hit");
+        bloomNegatives = counter("bloom-negative");
+        databaseHits = counter("database-hit");
+        falsePositives = counter("false-positive");
+    }
+
+    /**
+     * Load already processed IDs into the filter without blocking startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread loader = new Thread(() -> {
+            try {
+                if (remoteBloom != null) {
+                    warmSharedFilter();
+                } else {
+                    log.info("Duplicate detection filter warmed with {} transaction IDs",
+                        loadProcessedIds(chunk -> chunk.forEach(localBloom::put)));
+                }
+                warm = true;
+            } catch (Exception e) {
+                log.error("Failed to warm duplicate detection filter; checks will keep using the database", e);
+            }
+        }, "duplicate-filter-warmup");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Warm the shared filter unless another node already has. Nodes starting
+     * together wait on the lock and then find the marker set.
+     */
+    private void warmSharedFilter() {
+        RLock lock = redissonClient.getObject().getLock(sharedBloomName + ":warmup-lock");
+        RBucket<String> marker = warmMarker();
+        lock.lock();
+        try {
+            if (marker.isExists()) {
+                log.info("Shared duplicate detection filter already warmed by another node");
+                return;
+            }
+            long loaded = loadProcessedIds(remoteBloom::add);
+            marker.set("1");
+            log.info("Shared duplicate detection filter warmed with {} transaction IDs", loaded);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stream the IDs of processed transactions to the consumer in chunks
+     *
+     * @return Number of IDs loaded
+     */
+    private long loadProcessedIds(Consumer<List<String>> consumer) {
+        return transactionTemplate.execute(status -> {
+            try (Stream<String> ids = transactionRepository.streamTransactionIdsByStatusIn(PROCESSED_STATUSES)) {
+                List<String> chunk = new ArrayList<>(WARM_UP_CHUNK);
+                long loaded = 0;
+                for (Iterator<String> it = ids.iterator(); it.hasNext(); ) {
+                    chunk.add(it.next());
+                    if (chunk.size() == WARM_UP_CHUNK || !it.hasNext()) {
+                        consumer.accept(chunk);
+                        loaded += chunk.size();
+                        chunk = new ArrayList<>(WARM_UP_CHUNK);
+                    }
+                }
+                return loaded;
+            }
+        });
+    }
+
+    /**
+     * Check whether a transaction ID has already been processed
+     */
+    public boolean isDuplicate(String transactionId) {
+        if (recentIds.getIfPresent(transactionId) != null) {
+            cacheHits.increment();
+            return true;
+        }
+
+        if (warm && !bloomMightContain(transactionId)) {
+            bloomNegatives.increment();
+            return false;
+        }
+
+        boolean exists = transactionRepository.existsByTransactionIdAndStatusIn(transactionId, PROCESSED_STATUSES);
+        if (exists) {
+            databaseHits.increment();
+            recentIds.put(transactionId, Boolean.TRUE);
+        } else if (warm) {
+            falsePositives.increment();
+        }
+        return exists;
+    }
+
+    /**
+     * Check a whole batch of transaction IDs, using at most one database query
+     *
+     * @return IDs that have already been processed
+     */
+    public Set<String> findDuplicates(Collection<String> transactionIds) {
+        Set<String> duplicates = new HashSet<>();
+        List<String> candidates = new ArrayList<>();
+
+        for (String transactionId : transactionIds) {
+            if (recentIds.getIfPresent(transactionId) != null) {
+                cacheHits.increment();
+                duplicates.add(transactionId);
+            } else if (warm && !bloomMightContain(transactionId)) {
+                bloomNegatives.increment();
+            } else {
+                candidates.add(transactionId);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            List<String> existing = transactionRepository
+                .findTransactionIdsByTransactionIdInAndStatusIn(candidates, PROCESSED_STATUSES);
+            existing.forEach(id -> recentIds.put(id, Boolean.TRUE));
+            databaseHits.increment(existing.size());
+            if (warm) {
+                falsePositives.increment(candidates.size() - existing.size());
+            }
+            duplicates.addAll(existing);
+        }
+        return duplicates;
+    }
+
+    /**
+     * Remember a transaction ID once its processed state is durable
+     */
+    public void recordProcessed(String transactionId) {
+        if (remoteBloom != null) {
+            remoteBloom.add(transactionId);
+        } else {
+            localBloom.put(transactionId);
+        }
+        recentIds.put(transactionId, Boolean.TRUE);
+    }
+
+    /**
+     * Add IDs from a bulk load to the Bloom filter only. Rows that end up not
+     * being committed merely send their ID to the database check later.
+     */
+    public void recordPossiblyProcessed(Collection<String> transactionIds) {
+        if (remoteBloom != null) {
+            remoteBloom.add(transactionIds);
+        } else {
+            transactionIds.forEach(localBloom::put);
+        }
+    }
+
+    private RBucket<String> warmMarker() {
+        return redissonClient.getObject().getBucket(sharedBloomName + ":warm");
+    }
+
+    private boolean bloomMightContain(String transactionId) {
+        return remoteBloom != null ? remoteBloom.contains(transactionId) : localBloom.mightContain(transactionId);
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("transaction.duplicate-check")
+            .description("Duplicate transaction checks by the layer that answered them")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
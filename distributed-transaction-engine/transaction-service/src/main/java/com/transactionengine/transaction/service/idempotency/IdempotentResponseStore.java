@@ -0,0 +1,351 @@
+package com.transactionengine.transaction.service.idempotency;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Idempotent Response Store
+ *
+ * Remembers the response produced for a client-supplied Idempotency-Key so a
+ * retried request is answered from the store instead of being processed again.
+ * Responses live in a local TTL cache backed by a Redis tier shared by all nodes.
+ * Concurrent requests with a key that is still in flight on this node wait on
+ * the first request's future. Before running, that request reserves the key in
+ * Redis with an in-progress marker, so a concurrent request on another node is
+ * answered 409 instead of running the action a second time. Failed requests are not remembered, so they can
+ * be retried. A response whose outcome is still open, e.g. a transaction
+ * queued for retry, is not replayed as stored: each retry of the key gets
+ * its current state instead, until it settles.
+ *
+ * Each key is bound to a hash of the request body; reusing a key with a
+ * different body is answered 422 instead of with the other request's response.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotentResponseStore {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String REDIS_KEY_PREFIX = "idempotency:";
+
+    private final ObjectProvider<RedissonClient> redissonClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.transaction.idempotency.response.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${app.transaction.idempotency.response.in-progress-ttl:60s}")
+    private Duration inProgressTtl;
+
+    @Value("${app.transaction.idempotency.response.local-max-size:100000}")
+    private long localMaxSize;
+
+    @Value("${app.transaction.idempotency.response.redis-enabled:${redisson.enabled:true}}")
+    private boolean redisEnabled;
+
+    private final ConcurrentHashMap<String, Stored> inFlight = new ConcurrentHashMap<>();
+    private Cache<String, Stored> localTier;
+
+    private Counter localHits;
+    private Counter redisHits;
+    private Counter inFlightJoins;
+    private Counter misses;
+    private Counter mismatches;
+
+    @PostConstruct
+    public void init() {
+        localTier = Caffeine.newBuilder()
+            .maximumSize(localMaxSize)
+            .expireAfterWrite(ttl)
+            .build();
+
+        localHits = counter("local-hit");
+        redisHits = counter("redis-hit");
+        inFlightJoins = counter("in-flight");
+        misses = counter("miss");
+        mismatches = counter("body-mismatch");
+    }
+
+    /**
+     * Run an action at most once per idempotency key
+     *
+     * @param scope Endpoint the key belongs to, so one key cannot replay another endpoint's response
+     * @param key Client-supplied key, or null to run the action without idempotency
+     * @param request Request body the key is bound to
+     * @param type Response type, used to read responses back from Redis
+     * @param settled Whether a response is final and may be replayed as stored
+     * @param refresh Current state of an unsettled response
+     * @param action Action producing the response
+     * @return Future of the stored, shared or freshly produced response
+     * @throws ResponseStatusException 422 if the key was used with a different request body
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(String scope, String key, Object request, JavaType type,
+                                            Predicate<? super T> settled, UnaryOperator<T> refresh,
+                                            Supplier<CompletableFuture<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String storeKey = scope + ":" + key;
+        String fingerprint = fingerprint(request);
+        Stored cached = localTier.getIfPresent(storeKey);
+        if (cached != null) {
+            localHits.increment();
+            return replay(storeKey, checked(cached, fingerprint), settled, refresh);
+        }
+
+        Stored mine = new Stored(fingerprint, new CompletableFuture<>(), false);
+        Stored existing = inFlight.putIfAbsent(storeKey, mine);
+        if (existing != null) {
+            inFlightJoins.increment();
+            return (CompletableFuture<T>) checked(existing, fingerprint).response();
+        }
+
+        String reservation;
+        try {
+            // A request that finished before this one took the in-flight slot has stored its response by now
+            cached = localTier.getIfPresent(storeKey);
+            if (cached != null) {
+                localHits.increment();
+                return finish(storeKey, mine, replay(storeKey, checked(cached, fingerprint), settled, refresh));
+            }
+            // Claim the key across nodes, or find what another node left there
+            reservation = inProgressMarker(fingerprint);
+            Stored remote = reserveRemote(storeKey, reservation, type);
+            if (remote != null) {
+                checked(remote, fingerprint);
+                if (remote.response() == null) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still being processed");
+                }
+                redisHits.increment();
+                localTier.put(storeKey, remote);
+                return finish(storeKey, mine, replay(storeKey, remote, settled, refresh));
+            }
+        } catch (RuntimeException e) {
+            return finish(storeKey, mine, CompletableFuture.failedFuture(e));
+        }
+        misses.increment();
+
+        try {
+            action.get().whenComplete((result, ex) -> {
+                if (ex == null) {
+                    // Store before leaving the in-flight map so a new request always finds one of them
+                    store(storeKey, fingerprint, result, settled.test(result));
+                } else {
+                    releaseRemote(storeKey, reservation);
+                }
+                inFlight.remove(storeKey, mine);
+                if (ex == null) {
+                    mine.response().complete(result);
+                } else {
+                    mine.response().completeExceptionally(ex);
+                }
+            });
+        } catch (RuntimeException e) {
+            releaseRemote(storeKey, reservation);
+            inFlight.remove(storeKey, mine);
+            mine.response().completeExceptionally(e);
+        }
+        return (CompletableFuture<T>) mine.response();
+    }
+
+    public JavaType typeOf(Class<?> type) {
+        return objectMapper.constructType(type);
+    }
+
+    public JavaType listOf(Class<?> elementType) {
+        return objectMapper.getTypeFactory().constructCollectionType(List.class, elementType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> replay(String storeKey, Stored stored,
+                                            Predicate<? super T> settled, UnaryOperator<T> refresh) {
+        if (stored.settled()) {
+            return (CompletableFuture<T>) stored.response();
+        }
+        T current = refresh.apply((T) stored.response().join());
+        if (settled.test(current)) {
+            store(storeKey, stored.fingerprint(), current, true);
+        }
+        return CompletableFuture.completedFuture(current);
+    }
+
+    /**
+     * Leave the in-flight map with an outcome that did not need the action,
+     * handing it to the requests that joined in the meantime
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> finish(String storeKey, Stored mine, CompletableFuture<T> outcome) {
+        inFlight.remove(storeKey, mine);
+        outcome.whenComplete((result, ex) -> {
+            if (ex == null) {
+                mine.response().complete(result);
+            } else {
+                mine.response().completeExceptionally(ex);
+            }
+        });
+        return (CompletableFuture<T>) mine.response();
+    }
+
+    private void store(String storeKey, String fingerprint, Object response, boolean settled) {
+        localTier.put(storeKey, new Stored(fingerprint, CompletableFuture.completedFuture(response), settled));
+        writeRemote(storeKey, fingerprint, response, settled);
+    }
+
+    private Stored checked(Stored stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            mismatches.increment();
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency-Key was already used with a different request body");
+        }
+        return stored;
+    }
+
+    /**
+     * SHA-256 of the request as JSON. Requests are bound DTOs, so the hash does
+     * not depend on the whitespace or field order the client sent.
+     */
+    private String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException("Cannot hash request body", e);
+        }
+    }
+
+    /**
+     * Set an in-progress marker on the key unless it already holds something
+     *
+     * @return What the key already holds, with a null response for another
+     *         request's marker; null if the marker was set or Redis is off
+     */
+    private Stored reserveRemote(String storeKey, String marker, JavaType type) {
+        if (!redisEnabled) {
+            return null;
+        }
+        try {
+            RBucket<String> bucket = redissonClient.getObject().getBucket(REDIS_KEY_PREFIX + storeKey, StringCodec.INSTANCE);
+            // A second attempt covers a marker released between the two calls
+            for (int attempt = 0; attempt < 2; attempt++) {
+                if (bucket.trySet(marker, inProgressTtl.toMillis(), TimeUnit.MILLISECONDS)) {
+                    return null;
+                }
+                String json = bucket.get();
+                if (json != null) {
+                    return readStored(objectMapper.readTree(json), type);
+                }
+            }
+            return readStored(objectMapper.readTree(marker), type);
+        } catch (Exception e) {
+            log.warn("Could not reserve idempotency key {} in Redis", storeKey, e);
+            return null;
+        }
+    }
+
+    /**
+     * Drop this request's in-progress marker after a failure, unless it was already replaced
+     */
+    private void releaseRemote(String storeKey, String marker) {
+        if (!redisEnabled) {
+            return;
+        }
+        try {
+            redissonClient.getObject().<String>getBucket(REDIS_KEY_PREFIX + storeKey, StringCodec.INSTANCE)
+                .compareAndSetAsync(marker, null)
+                .whenComplete((released, ex) -> {
+                    if (ex != null) {
+                        log.warn("Could not release idempotency key {} in Redis", storeKey, ex);
+                    }
+                });
+        } catch (Exception e) {
+            log.warn("Could not release idempotency key {} in Redis", storeKey, e);
+        }
+    }
+
+    private String inProgressMarker(String fingerprint) {
+        ObjectNode marker = objectMapper.createObjectNode();
+        marker.put("fingerprint", fingerprint);
+        marker.put("inProgress", true);
+        // Distinguishes this request's marker from a later one for the same key
+        marker.put("owner", UUID.randomUUID().toString());
+        return marker.toString();
+    }
+
+    private Stored readStored(JsonNode stored, JavaType type) throws IOException {
+        if (stored.path("inProgress").asBoolean()) {
+            return new Stored(stored.get("fingerprint").asText(), null, false);
+        }
+        Object response = objectMapper.readerFor(type).readValue(stored.get("response"));
+        return new Stored(stored.get("fingerprint").asText(), CompletableFuture.completedFuture(response),
+            stored.get("settled").asBoolean());
+    }
+
+    private void writeRemote(String storeKey, String fingerprint, Object response, boolean settled) {
+        if (!redisEnabled) {
+            return;
+        }
+        try {
+            ObjectNode stored = objectMapper.createObjectNode();
+            stored.put("fingerprint", fingerprint);
+            stored.put("settled", settled);
+            stored.set("response", objectMapper.valueToTree(response));
+            RBucket<String> bucket = redissonClient.getObject().getBucket(REDIS_KEY_PREFIX + storeKey, StringCodec.INSTANCE);
+            bucket.set(objectMapper.writeValueAsString(stored), ttl.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("Could not store idempotent response {} in Redis", storeKey, e);
+        }
+    }
+
+    /**
+     * A response, or the future of one still being produced, with the hash of
+     * its request and whether its outcome is final
+     */
+    private record Stored(String fingerprint, CompletableFuture<Object> response, boolean settled) {
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("transaction.idempotency-key")
+            .description("Idempotency-Key lookups by where the response came from")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
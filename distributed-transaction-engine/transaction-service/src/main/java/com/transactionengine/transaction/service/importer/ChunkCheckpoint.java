@@ -0,0 +1,34 @@
+package com.transactionengine.transaction.service.importer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Marks one chunk of a settlement file as imported. Written by the loader
+ * session in the transaction that commits the chunk's rows.
+ *
+ * @param hash SHA-256 of the chunk's bytes, in hex
+ * @param fileName Name of the file the chunk came from, for reference
+ * @param start Offset of the chunk in the file
+ * @param end Offset just past the chunk
+ */
+record ChunkCheckpoint(String hash, String fileName, long start, long end) {
+
+    private static final String INSERT_SQL = "INSERT INTO settlement_import_chunks "
+        + "(chunk_hash, file_name, chunk_start, chunk_end, rows_inserted, completed_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    void write(Connection connection, long rowsInserted) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            statement.setString(1, hash);
+            statement.setString(2, fileName);
+            statement.setLong(3, start);
+            statement.setLong(4, end);
+            statement.setLong(5, rowsInserted);
+            statement.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+            statement.executeUpdate();
+        }
+    }
+}
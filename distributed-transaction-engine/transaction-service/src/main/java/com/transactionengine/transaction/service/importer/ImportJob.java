@@ -0,0 +1,116 @@
+package com.transactionengine.transaction.service.importer;
+
+import com.transactionengine.transaction.dto.ImportReport;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live state of one settlement import; counters are updated by the chunk workers
+ */
+public class ImportJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id;
+    private final Path file;
+    private final long fileBytes;
+    private final int maxErrors;
+    private final LongAdder parsed = new LongAdder();
+    private final LongAdder inserted = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder chunksSkipped = new LongAdder();
+    private final Queue<String> errors = new ConcurrentLinkedQueue<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long startNanos;
+    private volatile long finishNanos;
+    private volatile String failureReason;
+
+    ImportJob(String id, Path file, long fileBytes, int maxErrors) {
+        this.id = id;
+        this.file = file;
+        this.fileBytes = fileBytes;
+        this.maxErrors = maxErrors;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    void started() {
+        startNanos = System.nanoTime();
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    void finished(String failure) {
+        finishNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+        failureReason = failure;
+        status = failure == null ? Status.COMPLETED : Status.FAILED;
+    }
+
+    void parsed() {
+        parsed.increment();
+    }
+
+    void loaded(long insertedRows, long skippedRows) {
+        inserted.add(insertedRows);
+        skipped.add(skippedRows);
+    }
+
+    /**
+     * A chunk found already imported by an earlier run and not read again
+     */
+    void chunkSkipped() {
+        chunksSkipped.increment();
+    }
+
+    void rejected(String error) {
+        rejected.increment();
+        if (rejected.sum() <= maxErrors) {
+            errors.add(error);
+        }
+    }
+
+    public ImportReport toReport() {
+        long elapsedNanos = startNanos == 0 ? 0
+            : (status == Status.RUNNING ? System.nanoTime() : finishNanos) - startNanos;
+        long rows = parsed.sum();
+
+        return ImportReport.builder()
+            .importId(id)
+            .file(file.getFileName().toString())
+            .status(status.name())
+            .fileBytes(fileBytes)
+            .rowsParsed(rows)
+            .rowsInserted(inserted.sum())
+            .rowsSkipped(skipped.sum())
+            .rowsRejected(rejected.sum())
+            .chunksSkipped(chunksSkipped.sum())
+            .rowsPerSecond(elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos)
+            .elapsedMillis(elapsedNanos / 1_000_000)
+            .startedAt(startedAt)
+            .finishedAt(finishedAt)
+            .failureReason(failureReason)
+            .errors(List.copyOf(errors))
+            .build();
+    }
+}
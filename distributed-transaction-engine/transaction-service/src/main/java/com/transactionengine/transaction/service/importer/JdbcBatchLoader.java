@@ -0,0 +1,143 @@
+package com.transactionengine.transaction.service.importer;
+
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Portable fallback for databases without COPY (e.g. H2 in the local profile):
+ * batched inserts that skip rows whose transaction_id already exists.
+ */
+class JdbcBatchLoader implements TransactionBulkLoader {
+
+    private static final String INSERT_SQL = "INSERT INTO transactions (" + COLUMNS + ") "
+        + "SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ? "
+        + "WHERE NOT EXISTS (SELECT 1 FROM transactions WHERE transaction_id = ?)";
+
+    private final DataSource dataSource;
+    private final int batchSize;
+
+    JdbcBatchLoader(DataSource dataSource, int batchSize) {
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Session open() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            return new BatchSession(connection, connection.prepareStatement(INSERT_SQL));
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    private final class BatchSession implements Session {
+
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private final List<Transaction> pending = new ArrayList<>();
+        private final Map<List<String>, Position> positions = new LinkedHashMap<>();
+        private long inserted;
+        private boolean finished;
+
+        BatchSession(Connection connection, PreparedStatement statement) {
+            this.connection = connection;
+            this.statement = statement;
+        }
+
+        @Override
+        public void add(Transaction transaction) throws SQLException {
+            statement.setString(1, transaction.getId());
+            statement.setString(2, transaction.getTransactionId());
+            statement.setString(3, transaction.getAccountFrom());
+            statement.setString(4, transaction.getAccountTo());
+            statement.setBigDecimal(5, transaction.getAmount());
+            statement.setString(6, transaction.getCurrency());
+            statement.setString(7, transaction.getType().name());
+            statement.setString(8, transaction.getStatus().name());
+            statement.setString(9, transaction.getDescription());
+            statement.setString(10, transaction.getMetadata());
+            statement.setTimestamp(11, timestamp(transaction.getCreatedAt()));
+            statement.setTimestamp(12, timestamp(transaction.getUpdatedAt()));
+            statement.setTimestamp(13, timestamp(transaction.getCompletedAt()));
+            statement.setString(14, transaction.getFailureReason());
+            statement.setInt(15, transaction.getRetryCount());
+            statement.setLong(16, transaction.getVersion());
+            statement.setBoolean(17, transaction.getRetryable());
+            statement.setString(18, transaction.getTransactionId());
+            statement.addBatch();
+            pending.add(transaction);
+
+            if (pending.size() >= batchSize) {
+                executeBatch();
+            }
+        }
+
+        @Override
+        public Result finish(ChunkCheckpoint checkpoint) throws SQLException {
+            executeBatch();
+            checkpoint.write(connection, inserted);
+            connection.commit();
+            finished = true;
+            return new Result(inserted, List.copyOf(positions.values()));
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                statement.close();
+                if (!finished) {
+                    connection.rollback();
+                }
+            } finally {
+                connection.close();
+            }
+        }
+
+        private void executeBatch() throws SQLException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            int[] counts = statement.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                    inserted++;
+                    addPositions(pending.get(i));
+                }
+            }
+            pending.clear();
+        }
+
+        private void addPositions(Transaction transaction) {
+            if (transaction.getStatus() != TransactionStatus.COMPLETED) {
+                return;
+            }
+            addPosition(transaction.getAccountFrom(), transaction.getCurrency(), transaction.getAmount().negate());
+            addPosition(transaction.getAccountTo(), transaction.getCurrency(), transaction.getAmount());
+        }
+
+        private void addPosition(String account, String currency, BigDecimal amount) {
+            positions.merge(List.of(account, currency), new Position(account, currency, amount),
+                (current, change) -> new Position(account, currency, current.amount().add(change.amount())));
+        }
+
+        private Timestamp timestamp(LocalDateTime value) {
+            return value == null ? null : Timestamp.valueOf(value);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.transactionengine.transaction.service.importer;
+
+import com.transactionengine.transaction.model.Transaction;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Loads transactions with COPY into a session-local staging table, then moves
+ * into transactions only the rows whose transaction_id this session managed to
+ * claim in transaction_keys, so existing IDs are skipped.
+ */
+class PostgresCopyLoader implements TransactionBulkLoader {
+
+    private static final String STAGING_TABLE = "transactions_import";
+    private static final int FLUSH_THRESHOLD = 1 << 16;
+    private static final String INSERTED_COMPLETED = "FROM " + STAGING_TABLE + " s JOIN transaction_keys k "
+        + "ON k.transaction_id = s.transaction_id AND k.id = s.id WHERE s.status = 'COMPLETED'";
+
+    private final DataSource dataSource;
+
+    PostgresCopyLoader(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Session open() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TEMP TABLE " + STAGING_TABLE
+                    + " (LIKE transactions INCLUDING DEFAULTS) ON COMMIT DROP");
+            }
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn("COPY " + STAGING_TABLE + " (" + COLUMNS + ") FROM STDIN");
+            return new CopySession(connection, copyIn);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            connection.close();
+            throw e;
+        }
+    }
+
+    private static final class CopySession implements Session {
+
+        private final Connection connection;
+        private final CopyIn copyIn;
+        private final CopyRowEncoder encoder = new CopyRowEncoder(FLUSH_THRESHOLD + 4096);
+        private boolean finished;
+
+        CopySession(Connection connection, CopyIn copyIn) {
+            this.connection = connection;
+            this.copyIn = copyIn;
+        }
+
+        @Override
+        public void add(Transaction transaction) throws SQLException {
+            encoder.text(transaction.getId()).tab()
+                .text(transaction.getTransactionId()).tab()
+                .text(transaction.getAccountFrom()).tab()
+                .text(transaction.getAccountTo()).tab()
+                .decimal(transaction.getAmount()).tab()
+                .text(transaction.getCurrency()).tab()
+                .text(transaction.getType().name()).tab()
+                .text(transaction.getStatus().name()).tab()
+                .text(transaction.getDescription()).tab()
+                .text(transaction.getMetadata()).tab()
+                .timestamp(transaction.getCreatedAt()).tab()
+                .timestamp(transaction.getUpdatedAt()).tab()
+                .timestamp(transaction.getCompletedAt()).tab()
+                .text(transaction.getFailureReason()).tab()
+                .number(transaction.getRetryCount()).tab()
+                .number(transaction.getVersion()).tab()
+                .text(String.valueOf(transaction.getRetryable())).newline();
+
+            if (encoder.size() >= FLUSH_THRESHOLD) {
+                flush();
+            }
+        }
+
+        @Override
+        public Result finish(ChunkCheckpoint checkpoint) throws SQLException {
+            flush();
+            copyIn.endCopy();
+            long inserted;
+            List<Position> positions = new ArrayList<>();
+            try (Statement statement = connection.createStatement()) {
+                // transactions is partitioned and cannot carry a unique transaction_id
+                // index, so claim the IDs in transaction_keys and insert the winners
+                statement.executeUpdate("INSERT INTO transaction_keys (transaction_id, id, created_at) "
+                    + "SELECT DISTINCT ON (transaction_id) transaction_id, id, created_at FROM " + STAGING_TABLE
+                    + " ORDER BY transaction_id ON CONFLICT (transaction_id) DO NOTHING");
+                inserted = statement.executeUpdate("INSERT INTO transactions (" + COLUMNS + ") SELECT "
+                    + prefixed("s.") + " FROM " + STAGING_TABLE + " s JOIN transaction_keys k "
+                    + "ON k.transaction_id = s.transaction_id AND k.id = s.id");
+                // The same join picks out the rows just inserted
+                try (ResultSet rows = statement.executeQuery("SELECT p.account, p.currency, SUM(p.amount) FROM ("
+                        + "SELECT s.account_to AS account, s.currency, s.amount " + INSERTED_COMPLETED
+                        + " UNION ALL "
+                        + "SELECT s.account_from AS account, s.currency, -s.amount " + INSERTED_COMPLETED
+                        + ") p GROUP BY p.account, p.currency")) {
+                    while (rows.next()) {
+                        positions.add(new Position(rows.getString(1), rows.getString(2), rows.getBigDecimal(3)));
+                    }
+                }
+            }
+            checkpoint.write(connection, inserted);
+            connection.commit();
+            finished = true;
+            return new Result(inserted, positions);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (!finished) {
+                    if (copyIn.isActive()) {
+                        copyIn.cancelCopy();
+                    }
+                    connection.rollback();
+                }
+            } finally {
+                connection.close();
+            }
+        }
+
+        private static String prefixed(String alias) {
+            return alias + COLUMNS.replace(", ", ", " + alias);
+        }
+
+        private void flush() throws SQLException {
+            if (encoder.size() > 0) {
+                copyIn.writeToCopy(encoder.buffer(), 0, encoder.size());
+                encoder.reset();
+            }
+        }
+    }
+
+    /**
+     * Writes rows in COPY text format into a reusable byte buffer
+     */
+    static final class CopyRowEncoder {
+
+        private byte[] buffer;
+        private int size;
+
+        CopyRowEncoder(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        byte[] buffer() {
+            return buffer;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        CopyRowEncoder tab() {
+            put((byte) '\t');
+            return this;
+        }
+
+        void newline() {
+            put((byte) '\n');
+        }
+
+        CopyRowEncoder text(String value) {
+            if (value == null) {
+                return nullValue();
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\' -> putEscaped((byte) '\\');
+                    case '\t' -> putEscaped((byte) 't');
+                    case '\n' -> putEscaped((byte) 'n');
+                    case '\r' -> putEscaped((byte) 'r');
+                    default -> {
+                        if (c < 0x80) {
+                            put((byte) c);
+                        } else {
+                            // Rare non-ASCII text: encode the rest of the value as UTF-8
+                            putUtf8(value.substring(i));
+                            return this;
+                        }
+                    }
+                }
+            }
+            return this;
+        }
+
+        CopyRowEncoder decimal(BigDecimal value) {
+            return value == null ? nullValue() : ascii(value.toPlainString());
+        }
+
+        CopyRowEncoder number(Number value) {
+            return value == null ? nullValue() : ascii(value.toString());
+        }
+
+        CopyRowEncoder timestamp(LocalDateTime value) {
+            if (value == null) {
+                return nullValue();
+            }
+            digits(value.getYear(), 4);
+            put((byte) '-');
+            digits(value.getMonthValue(), 2);
+            put((byte) '-');
+            digits(value.getDayOfMonth(), 2);
+            put((byte) ' ');
+            digits(value.getHour(), 2);
+            put((byte) ':');
+            digits(value.getMinute(), 2);
+            put((byte) ':');
+            digits(value.getSecond(), 2);
+            if (value.getNano() != 0) {
+                put((byte) '.');
+                digits(value.getNano() / 1000, 6);
+            }
+            return this;
+        }
+
+        private CopyRowEncoder nullValue() {
+            put((byte) '\\');
+            put((byte) 'N');
+            return this;
+        }
+
+        private CopyRowEncoder ascii(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                put((byte) value.charAt(i));
+            }
+            return this;
+        }
+
+        private void digits(int value, int width) {
+            ensure(width);
+            for (int i = size + width - 1; i >= size; i--) {
+                buffer[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            size += width;
+        }
+
+        private void putUtf8(String value) {
+            String escaped = value.replace("\\", "\\\\").replace("\t", "\\t")
+                .replace("\n", "\\n").replace("\r", "\\r");
+            byte[] bytes = escaped.getBytes(StandardCharsets.UTF_8);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void putEscaped(byte b) {
+            put((byte) '\\');
+            put(b);
+        }
+
+        private void put(byte b) {
+            ensure(1);
+            buffer[size++] = b;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+}
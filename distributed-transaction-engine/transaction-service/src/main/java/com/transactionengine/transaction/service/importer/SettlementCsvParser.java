@@ -0,0 +1,345 @@
+package com.transactionengine.transaction.service.importer;
+
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import com.transactionengine.transaction.model.Transaction.TransactionType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Settlement CSV Parser
+ *
+ * Parses one chunk of a settlement file straight from its bytes:
+ * transaction_id,amount,currency,type,account_from,account_to,timestamp,status,merchant,category,country
+ *
+ * Fields are located by scanning for commas, amounts are read directly into
+ * minor units, enums are matched without building strings and short
+ * repeating values such as currency and country are shared. Quoted fields are
+ * not supported; settlement files do not use them. Not thread-safe: one
+ * parser per chunk.
+ */
+final class SettlementCsvParser {
+
+    static final int FIELD_COUNT = 11;
+
+    private static final byte[] HEADER_PREFIX = "transaction_id,".getBytes(StandardCharsets.US_ASCII);
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+    private static final byte[][] TYPE_NAMES = names(TYPES);
+    private static final byte[][] STATUS_NAMES = names(STATUSES);
+
+    private final ByteBuffer chunk;
+    private final long chunkOffset;
+    private final int[] fieldStart = new int[FIELD_COUNT];
+    private final int[] fieldEnd = new int[FIELD_COUNT];
+    private final ShortStrings shortStrings = new ShortStrings();
+    private final Predicate<LocalDateTime> storableTimestamps;
+    private byte[] line = new byte[256];
+    private long lineOffset;
+
+    SettlementCsvParser(ByteBuffer chunk, long chunkOffset) {
+        this(chunk, chunkOffset, timestamp -> true);
+    }
+
+    /**
+     * @param chunk Bytes of whole lines, positioned at the first one
+     * @param chunkOffset Offset of the chunk in the file, for error messages
+     * @param storableTimestamps Timestamps the transactions table has a partition for
+     */
+    SettlementCsvParser(ByteBuffer chunk, long chunkOffset, Predicate<LocalDateTime> storableTimestamps) {
+        this.chunk = chunk;
+        this.chunkOffset = chunkOffset;
+        this.storableTimestamps = storableTimestamps;
+        if (chunkOffset == 0) {
+            skipHeader();
+        }
+    }
+
+    /**
+     * Parse the next non-empty row into the given record
+     *
+     * @return false once the chunk is exhausted
+     * @throws SettlementFormatException if the row is malformed; the parser has moved past it
+     */
+    boolean next(SettlementRecord record) {
+        int length;
+        do {
+            if (!chunk.hasRemaining()) {
+                return false;
+            }
+            length = readLine();
+        } while (length == 0);
+
+        splitFields(length);
+
+        record.transactionId = string(0);
+        record.amountMinorUnits = amount(1);
+        record.currency = shortStrings.get(line, fieldStart[2], fieldEnd[2] - fieldStart[2]);
+        record.type = match(3, TYPES, TYPE_NAMES);
+        record.accountFrom = string(4);
+        record.accountTo = string(5);
+        record.timestamp = timestamp(6);
+        record.status = match(7, STATUSES, STATUS_NAMES);
+        record.merchant = string(8);
+        record.category = shortStrings.get(line, fieldStart[9], fieldEnd[9] - fieldStart[9]);
+        record.country = shortStrings.get(line, fieldStart[10], fieldEnd[10] - fieldStart[10]);
+
+        if (record.transactionId.isEmpty() || record.accountFrom.isEmpty() || record.accountTo.isEmpty()) {
+            throw error("transaction_id, account_from and account_to are required");
+        }
+        // One such row would fail the whole chunk's insert
+        if (!storableTimestamps.test(record.timestamp)) {
+            throw error("no transactions partition covers timestamp " + record.timestamp);
+        }
+        return true;
+    }
+
+    private void skipHeader() {
+        int start = chunk.position();
+        if (chunk.remaining() < HEADER_PREFIX.length) {
+            return;
+        }
+        for (int i = 0; i < HEADER_PREFIX.length; i++) {
+            if (chunk.get(start + i) != HEADER_PREFIX[i]) {
+                return;
+            }
+        }
+        readLine();
+    }
+
+    /**
+     * Copy the next line, without its terminator, into the line buffer
+     *
+     * @return Line length
+     */
+    private int readLine() {
+        int start = chunk.position();
+        int limit = chunk.limit();
+        int end = start;
+        while (end < limit && chunk.get(end) != '\n') {
+            end++;
+        }
+        int length = end - start;
+        if (length > line.length) {
+            line = new byte[Math.max(length, line.length * 2)];
+        }
+        chunk.get(line, 0, length);
+        if (end < limit) {
+            chunk.get();
+        }
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        lineOffset = chunkOffset + start;
+        return length;
+    }
+
+    private void splitFields(int length) {
+        int field = 0;
+        fieldStart[0] = 0;
+        for (int i = 0; i < length; i++) {
+            if (line[i] == ',') {
+                if (field == FIELD_COUNT - 1) {
+                    throw error("more than " + FIELD_COUNT + " fields");
+                }
+                fieldEnd[field++] = i;
+                fieldStart[field] = i + 1;
+            } else if (line[i] == '"' && i == fieldStart[field]) {
+                throw error("quoted fields are not supported");
+            }
+        }
+        if (field != FIELD_COUNT - 1) {
+            throw error("expected " + FIELD_COUNT + " fields, found " + (field + 1));
+        }
+        fieldEnd[field] = length;
+    }
+
+    private String string(int field) {
+        return new String(line, fieldStart[field], fieldEnd[field] - fieldStart[field], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parse a positive decimal amount with at most two fraction digits into minor units
+     */
+    private long amount(int field) {
+        int i = fieldStart[field];
+        int end = fieldEnd[field];
+        if (i == end) {
+            throw error("amount is required");
+        }
+        boolean negative = line[i] == '-';
+        if (negative) {
+            i++;
+        }
+
+        long value = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            byte b = line[i];
+            if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (b >= '0' && b <= '9') {
+                if (fractionDigits >= 0 && ++fractionDigits > 2) {
+                    throw error("amount has more than two decimal places");
+                }
+                if (value > (Long.MAX_VALUE - 9) / 10) {
+                    throw error("amount is out of range");
+                }
+                value = value * 10 + (b - '0');
+                digits++;
+            } else {
+                throw error("invalid amount");
+            }
+        }
+        if (digits == 0) {
+            throw error("invalid amount");
+        }
+        for (int scale = Math.max(fractionDigits, 0); scale < 2; scale++) {
+            if (value > Long.MAX_VALUE / 10) {
+                throw error("amount is out of range");
+            }
+            value *= 10;
+        }
+        if (negative || value == 0) {
+            throw error("amount must be greater than zero");
+        }
+        return value;
+    }
+
+    /**
+     * Parse an ISO-8601 UTC timestamp, with a fast path for yyyy-MM-ddTHH:mm:ss[.fraction]Z
+     */
+    private LocalDateTime timestamp(int field) {
+        int s = fieldStart[field];
+        int length = fieldEnd[field] - s;
+        if (length >= 20 && line[s + length - 1] == 'Z' && line[s + 4] == '-' && line[s + 7] == '-'
+                && line[s + 10] == 'T' && line[s + 13] == ':' && line[s + 16] == ':') {
+            int nanos = 0;
+            if (length > 20) {
+                if (line[s + 19] != '.' || length > 30) {
+                    return timestampFallback(field);
+                }
+                int scale = 100_000_000;
+                for (int i = s + 20; i < s + length - 1; i++, scale /= 10) {
+                    nanos += digit(line[i]) * scale;
+                }
+            }
+            try {
+                return LocalDateTime.of(
+                    number(s, 4), number(s + 5, 2), number(s + 8, 2),
+                    number(s + 11, 2), number(s + 14, 2), number(s + 17, 2), nanos);
+            } catch (DateTimeException e) {
+                throw error("invalid timestamp: " + e.getMessage());
+            }
+        }
+        return timestampFallback(field);
+    }
+
+    private LocalDateTime timestampFallback(int field) {
+        try {
+            return OffsetDateTime.parse(string(field)).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            throw error("invalid timestamp");
+        }
+    }
+
+    private int number(int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = value * 10 + digit(line[i]);
+        }
+        return value;
+    }
+
+    private int digit(byte b) {
+        if (b < '0' || b > '9') {
+            throw error("invalid timestamp");
+        }
+        return b - '0';
+    }
+
+    /**
+     * Match a field against enum names, ignoring ASCII case
+     */
+    private <E extends Enum<E>> E match(int field, E[] values, byte[][] names) {
+        int start = fieldStart[field];
+        int length = fieldEnd[field] - start;
+        outer:
+        for (int n = 0; n < names.length; n++) {
+            byte[] name = names[n];
+            if (name.length != length) {
+                continue;
+            }
+            for (int i = 0; i < length; i++) {
+                byte b = line[start + i];
+                if (b >= 'a' && b <= 'z') {
+                    b -= 'a' - 'A';
+                }
+                if (b != name[i]) {
+                    continue outer;
+                }
+            }
+            return values[n];
+        }
+        throw error("unknown value '" + string(field) + "'");
+    }
+
+    private SettlementFormatException error(String message) {
+        return new SettlementFormatException(lineOffset, message);
+    }
+
+    private static byte[][] names(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            names[i] = values[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+        return names;
+    }
+
+    /**
+     * Small cache of repeating short values so each distinct one is allocated once per chunk
+     */
+    private static final class ShortStrings {
+
+        private static final int MAX_ENTRIES = 256;
+        private static final int MAX_LENGTH = 32;
+
+        private final byte[][] keys = new byte[MAX_ENTRIES][];
+        private final String[] values = new String[MAX_ENTRIES];
+        private int size;
+
+        String get(byte[] bytes, int offset, int length) {
+            if (length > MAX_LENGTH) {
+                return new String(bytes, offset, length, StandardCharsets.UTF_8);
+            }
+            for (int i = 0; i < size; i++) {
+                if (Arrays.equals(keys[i], 0, keys[i].length, bytes, offset, offset + length)) {
+                    return values[i];
+                }
+            }
+            String value = new String(bytes, offset, length, StandardCharsets.UTF_8);
+            if (size < MAX_ENTRIES) {
+                keys[size] = Arrays.copyOfRange(bytes, offset, offset + length);
+                values[size++] = value;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * A settlement row that cannot be parsed; the row is skipped and reported
+     */
+    static class SettlementFormatException extends RuntimeException {
+        SettlementFormatException(long offset, String message) {
+            super("Row at byte " + offset + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.transactionengine.transaction.service.importer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import com.transactionengine.transaction.service.id.IdGenerator;
+import com.transactionengine.transaction.service.idempotency.DuplicateTransactionDetector;
+import com.transactionengine.transaction.service.importer.SettlementCsvParser.SettlementFormatException;
+import com.transactionengine.transaction.service.importer.TransactionBulkLoader.Position;
+import com.transactionengine.transaction.service.importer.TransactionBulkLoader.Result;
+import com.transactionengine.transaction.service.ledger.AccountLedger;
+import com.transactionengine.transaction.service.partition.TransactionPartitionManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+/**
+ * Settlement File Import
+ *
+ * Imports settlement CSV files (the layout of sample_transactions.csv) in bulk:
+ * 1. The file is split into chunks of roughly chunk-size bytes, each ending on a line boundary.
+ * 2. Chunks are memory-mapped and parsed in parallel, one parser per chunk.
+ * 3. Rows become Transaction entities and are bulk-loaded per chunk, with
+ *    COPY on Postgres and batched inserts elsewhere.
+ *
+ * Each chunk commits together with a checkpoint keyed by the hash of its
+ * bytes, so re-running a failed or interrupted import skips the chunks that
+ * already committed. Amounts must be positive, and rows dated outside the
+ * partitions of the transactions table are rejected. Once a chunk commits,
+ * its COMPLETED rows are applied to the account ledger.
+ *
+ * Only one chunk per worker is mapped at a time, so files larger than memory
+ * import fine. Imports run one after another in the background; progress,
+ * including rows per second, is available from the returned job.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SettlementImportService {
+
+    private static final int ID_BATCH_SIZE = 10_000;
+
+    private final DataSource dataSource;
+    private final DuplicateTransactionDetector duplicateDetector;
+    private final IdGenerator idGenerator;
+    private final AccountLedger ledger;
+    private final ObjectProvider<TransactionPartitionManager> partitionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.import.directory:${java.io.tmpdir}/settlements}")
+    private Path importDirectory;
+
+    @Value("${app.import.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.import.chunk-size-mb:64}")
+    private int chunkSizeMb;
+
+    @Value("${app.import.jdbc-batch-size:1000}")
+    private int jdbcBatchSize;
+
+    @Value("${app.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    private ExecutorService coordinator;
+    private ExecutorService workers;
+    private TransactionBulkLoader loader;
+    private Cache<String, ImportJob> jobs;
+    private Counter rowsImported;
+    private Counter rowsRejected;
+    private Timer importTimer;
+
+    @PostConstruct
+    public void init() throws IOException, SQLException {
+        Files.createDirectories(importDirectory);
+        importDirectory = importDirectory.toRealPath();
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        coordinator = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("settlement-import-"));
+        workers = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("settlement-import-worker-"));
+        jobs = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
+
+        try (Connection connection = dataSource.getConnection()) {
+            loader = connection.isWrapperFor(PGConnection.class)
+                ? new PostgresCopyLoader(dataSource)
+                : new JdbcBatchLoader(dataSource, jdbcBatchSize);
+        }
+
+        rowsImported = Counter.builder("transaction.import.rows")
+            .description("Settlement rows inserted by file imports")
+            .register(meterRegistry);
+        rowsRejected = Counter.builder("transaction.import.rejected")
+            .description("Settlement rows rejected as malformed")
+            .register(meterRegistry);
+        importTimer = Timer.builder("transaction.import.time")
+            .description("Duration of settlement file imports")
+            .register(meterRegistry);
+
+        log.info("Settlement import ready: directory {}, {} workers, {} loader",
+            importDirectory, threads, loader.getClass().getSimpleName());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Queue the import of a file from the import directory
+     *
+     * @param fileName File name, relative to the import directory
+     * @throws IllegalArgumentException if the file is outside the import directory or missing
+     */
+    public ImportJob importFile(String fileName) throws IOException {
+        Path file = importDirectory.resolve(fileName).normalize();
+        if (!file.startsWith(importDirectory) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No settlement file '" + fileName + "' in the import directory");
+        }
+        return submit(file, false);
+    }
+
+    /**
+     * Spool an uploaded file into the import directory and queue its import;
+     * the spooled copy is removed once the import finishes
+     */
+    public ImportJob importUpload(InputStream body) throws IOException {
+        Path file = Files.createTempFile(importDirectory, "upload-", ".csv");
+        try {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return submit(file, true);
+    }
+
+    public Optional<ImportJob> findJob(String importId) {
+        return Optional.ofNullable(jobs.getIfPresent(importId));
+    }
+
+    private ImportJob submit(Path file, boolean deleteAfterImport) throws IOException {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file, Files.size(file), maxReportedErrors);
+        jobs.put(job.getId(), job);
+        coordinator.execute(() -> {
+            try {
+                run(job);
+            } finally {
+                if (deleteAfterImport) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        log.warn("Could not delete spooled import {}", file, e);
+                    }
+                }
+            }
+        });
+        return job;
+    }
+
+    private void run(ImportJob job) {
+        job.started();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        log.info("Importing settlement file {}", job.getFile());
+
+        try (FileChannel channel = FileChannel.open(job.getFile(), StandardOpenOption.READ)) {
+            Predicate<LocalDateTime> storable = storableTimestamps();
+            List<long[]> chunks = split(channel, (long) chunkSizeMb << 20);
+            List<CompletableFuture<Void>> results = new ArrayList<>(chunks.size());
+            for (long[] chunk : chunks) {
+                results.add(CompletableFuture.runAsync(
+                    () -> importChunk(channel, chunk[0], chunk[1], storable, job), workers));
+            }
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+            job.finished(null);
+        } catch (CompletionException e) {
+            log.error("Import of {} failed", job.getFile(), e.getCause());
+            job.finished(e.getCause().getMessage());
+        } catch (IOException | SQLException | RuntimeException e) {
+            log.error("Import of {} failed", job.getFile(), e);
+            job.finished(e.getMessage());
+        } finally {
+            sample.stop(importTimer);
+        }
+
+        var report = job.toReport();
+        log.info("Imported {}: {} rows parsed, {} inserted, {} skipped, {} rejected in {} ms ({} rows/s)",
+            report.getFile(), report.getRowsParsed(), report.getRowsInserted(), report.getRowsSkipped(),
+            report.getRowsRejected(), report.getElapsedMillis(), Math.round(report.getRowsPerSecond()));
+    }
+
+    /**
+     * Split a file into [start, end) ranges of about chunkSize bytes that end on a line boundary
+     */
+    static List<long[]> split(FileChannel channel, long chunkSize) throws IOException {
+        long size = channel.size();
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long start = 0;
+
+        while (start < size) {
+            long end = Math.min(start + chunkSize, size);
+            // Extend the chunk to the end of the line it cuts through
+            while (end < size) {
+                probe.clear();
+                int read = channel.read(probe, end);
+                int newline = -1;
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        newline = i;
+                        break;
+                    }
+                }
+                if (newline >= 0) {
+                    end += newline + 1;
+                    break;
+                }
+                end += read;
+            }
+            chunks.add(new long[] {start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Timestamps the attached partitions accept, read once per import
+     */
+    private Predicate<LocalDateTime> storableTimestamps() throws SQLException {
+        TransactionPartitionManager manager = partitionManager.getIfAvailable();
+        Optional<NavigableMap<LocalDateTime, LocalDateTime>> ranges =
+            manager == null ? Optional.empty() : manager.acceptedRanges();
+        if (ranges.isEmpty()) {
+            return timestamp -> true;
+        }
+        NavigableMap<LocalDateTime, LocalDateTime> accepted = ranges.get();
+        return timestamp -> {
+            Map.Entry<LocalDateTime, LocalDateTime> range = accepted.floorEntry(timestamp);
+            return range != null && timestamp.isBefore(range.getValue());
+        };
+    }
+
+    private void importChunk(FileChannel channel, long start, long end, Predicate<LocalDateTime> storable,
+                             ImportJob job) {
+        try {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            ChunkCheckpoint checkpoint = new ChunkCheckpoint(
+                sha256(mapped), job.getFile().getFileName().toString(), start, end);
+            if (isImported(checkpoint)) {
+                log.info("Skipping chunk at byte {} of {}: imported by an earlier run", start, job.getFile());
+                job.chunkSkipped();
+                return;
+            }
+            SettlementCsvParser parser = new SettlementCsvParser(mapped, start, storable);
+            SettlementRecord record = new SettlementRecord();
+            List<String> loadedIds = new ArrayList<>(ID_BATCH_SIZE);
+            long parsed = 0;
+
+            try (TransactionBulkLoader.Session session = loader.open()) {
+                while (true) {
+                    try {
+                        if (!parser.next(record)) {
+                            break;
+                        }
+                    } catch (SettlementFormatException e) {
+                        job.rejected(e.getMessage());
+                        rowsRejected.increment();
+                        continue;
+                    }
+                    session.add(toTransaction(record));
+                    loadedIds.add(record.transactionId);
+                    if (loadedIds.size() == ID_BATCH_SIZE) {
+                        duplicateDetector.recordPossiblyProcessed(loadedIds);
+                        loadedIds.clear();
+                    }
+                    job.parsed();
+                    parsed++;
+                }
+                duplicateDetector.recordPossiblyProcessed(loadedIds);
+
+                Result result = session.finish(checkpoint);
+                job.loaded(result.inserted(), parsed - result.inserted());
+                rowsImported.increment(result.inserted());
+                // Committed; the ledger would otherwise only see these rows after a restart
+                for (Position position : result.positions()) {
+                    ledger.restore(position.account(), position.currency(),
+                        AccountLedger.toMinorUnits(position.amount()));
+                }
+            }
+        } catch (IOException | SQLException e) {
+            throw new ImportException("Chunk at byte " + start + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private boolean isImported(ChunkCheckpoint checkpoint) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "SELECT 1 FROM settlement_import_chunks WHERE chunk_hash = ?")) {
+            statement.setString(1, checkpoint.hash());
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next();
+            }
+        }
+    }
+
+    private static String sha256(ByteBuffer chunk) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(chunk.duplicate());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Transaction toTransaction(SettlementRecord record) {
+        return Transaction.builder()
+            .id(idGenerator.nextId())
+            .transactionId(record.transactionId)
+            .accountFrom(record.accountFrom)
+            .accountTo(record.accountTo)
+            .amount(BigDecimal.valueOf(record.amountMinorUnits, 2))
+            .currency(record.currency)
+            .type(record.type)
+            .status(record.status)
+            .description(record.merchant.isEmpty() ? null : record.merchant)
+            .metadata("{\"source\":\"settlement-import\",\"category\":\"" + jsonEscape(record.category)
+                + "\",\"country\":\"" + jsonEscape(record.country) + "\"}")
+            .createdAt(record.timestamp)
+            .updatedAt(record.timestamp)
+            .completedAt(record.status == TransactionStatus.COMPLETED ? record.timestamp : null)
+            .retryCount(0)
+            .retryable(true)
+            .version(0L)
+            .build();
+    }
+
+    private static String jsonEscape(String value) {
+        if (value.indexOf('"') < 0 && value.indexOf('\\') < 0) {
+            return value;
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * Raised when a chunk cannot be loaded; fails the import it belongs to
+     */
+    public static class ImportException extends RuntimeException {
+        public ImportException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.transactionengine.transaction.service.importer;
+
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import com.transactionengine.transaction.model.Transaction.TransactionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * One parsed settlement row. Reused by the parser for every row of a chunk.
+ */
+final class SettlementRecord {
+
+    String transactionId;
+    long amountMinorUnits;
+    String currency;
+    TransactionType type;
+    String accountFrom;
+    String accountTo;
+    LocalDateTime timestamp;
+    TransactionStatus status;
+    String merchant;
+    String category;
+    String country;
+}
@@ -0,0 +1,51 @@
+package com.transactionengine.transaction.service.importer;
+
+import com.transactionengine.transaction.model.Transaction;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Bulk loader for imported transactions
+ *
+ * Each session runs on its own connection and commits once, in finish.
+ * Rows whose transaction_id already exists are skipped, so re-importing a
+ * file is harmless.
+ */
+interface TransactionBulkLoader {
+
+    String COLUMNS = "id, transaction_id, account_from, account_to, amount, currency, type, status, "
+        + "description, metadata, created_at, updated_at, completed_at, failure_reason, retry_count, version, "
+        + "retryable";
+
+    Session open() throws SQLException;
+
+    interface Session extends AutoCloseable {
+
+        void add(Transaction transaction) throws SQLException;
+
+        /**
+         * Commit the session together with the checkpoint marking its chunk as imported
+         *
+         * @return Rows inserted and the balance changes of the COMPLETED ones among them
+         */
+        Result finish(ChunkCheckpoint checkpoint) throws SQLException;
+
+        /**
+         * Release the connection, rolling back if the session was not finished
+         */
+        @Override
+        void close() throws SQLException;
+    }
+
+    /**
+     * @param inserted Number of rows inserted
+     * @param positions Net change per account and currency from the inserted COMPLETED rows
+     */
+    record Result(long inserted, List<Position> positions) {
+    }
+
+    record Position(String account, String currency, BigDecimal amount) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.transactionengine.transaction.service.journal;
+
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import com.transactionengine.transaction.model.Transaction.TransactionType;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Journal Record Codec
+ *
+ * Binary encoding of a transaction state transition. Layout:
+ * sequence (8), status (1, high bit set when not retryable), type (1), amount unscaled (8), amount scale (1),
+ * retry count (4), version (8), createdAt/updatedAt/completedAt as epoch micros (8 each),
+ * then id, transactionId, accountFrom, accountTo, currency, description, metadata
+ * and failureReason as length-prefixed UTF-8 (2 + n, length -1 for null).
+ */
+final class JournalRecordCodec {
+
+    static final int SEQUENCE_OFFSET = 0;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final byte NULL_ENUM = -1;
+    // Set in the status byte of a failure that must not be retried; records
+    // written before the flag existed decode as retryable
+    private static final byte NOT_RETRYABLE = 0x40;
+
+    private JournalRecordCodec() {
+    }
+
+    static void encode(Transaction transaction, ByteBuffer buffer) {
+        buffer.putLong(0L); // sequence, patched in by the journal under its append lock
+        byte status = transaction.getStatus() == null ? NULL_ENUM : (byte) transaction.getStatus().ordinal();
+        if (status != NULL_ENUM && Boolean.FALSE.equals(transaction.getRetryable())) {
+            status |= NOT_RETRYABLE;
+        }
+        buffer.put(status);
+        buffer.put(transaction.getType() == null ? NULL_ENUM : (byte) transaction.getType().ordinal());
+
+        BigDecimal amount = transaction.getAmount();
+        if (amount == null) {
+            buffer.putLong(NULL_LONG);
+            buffer.put((byte) 0);
+        } else {
+            buffer.putLong(amount.unscaledValue().longValueExact());
+            buffer.put((byte) amount.scale());
+        }
+
+        buffer.putInt(transaction.getRetryCount() == null ? -1 : transaction.getRetryCount());
+        buffer.putLong(transaction.getVersion() == null ? NULL_LONG : transaction.getVersion());
+        buffer.putLong(toMicros(transaction.getCreatedAt()));
+        buffer.putLong(toMicros(transaction.getUpdatedAt()));
+        buffer.putLong(toMicros(transaction.getCompletedAt()));
+
+        putString(buffer, transaction.getId());
+        putString(buffer, transaction.getTransactionId());
+        putString(buffer, transaction.getAccountFrom());
+        putString(buffer, transaction.getAccountTo());
+        putString(buffer, transaction.getCurrency());
+        putString(buffer, transaction.getDescription());
+        putString(buffer, transaction.getMetadata());
+        putString(buffer, transaction.getFailureReason());
+    }
+
+    static JournalEntry decode(ByteBuffer buffer) {
+        long sequence = buffer.getLong();
+        byte status = buffer.get();
+        boolean retryable = status == NULL_ENUM || (status & NOT_RETRYABLE) == 0;
+        if (status != NULL_ENUM) {
+            status &= ~NOT_RETRYABLE;
+        }
+        byte type = buffer.get();
+        long unscaled = buffer.getLong();
+        byte scale = buffer.get();
+        int retryCount = buffer.getInt();
+        long version = buffer.getLong();
+        long createdAt = buffer.getLong();
+        long updatedAt = buffer.getLong();
+        long completedAt = buffer.getLong();
+
+        Transaction transaction = Transaction.builder()
+            .status(status == NULL_ENUM ? null : TransactionStatus.values()[status])
+            .retryable(retryable)
+            .type(type == NULL_ENUM ? null : TransactionType.values()[type])
+            .amount(unscaled == NULL_LONG ? null : new BigDecimal(BigInteger.valueOf(unscaled), scale))
+            .retryCount(retryCount < 0 ? null : retryCount)
+            .version(version == NULL_LONG ? null : version)
+            .createdAt(fromMicros(createdAt))
+            .updatedAt(fromMicros(updatedAt))
+            .completedAt(fromMicros(completedAt))
+            .id(getString(buffer))
+            .transactionId(getString(buffer))
+            .accountFrom(getString(buffer))
+            .accountTo(getString(buffer))
+            .currency(getString(buffer))
+            .description(getString(buffer))
+            .metadata(getString(buffer))
+            .failureReason(getString(buffer))
+            .build();
+
+        return new JournalEntry(sequence, transaction);
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Field too large for journal record: " + bytes.length + " bytes");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return NULL_LONG;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NULL_LONG) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(
+            Math.floorDiv(micros, 1_000_000L), (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Decoded journal record
+     */
+    record JournalEntry(long sequence, Transaction transaction) {
+    }
+}
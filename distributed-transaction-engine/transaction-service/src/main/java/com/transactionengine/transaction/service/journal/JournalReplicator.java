@@ -0,0 +1,269 @@
+package com.transactionengine.transaction.service.journal;
+
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import com.transactionengine.transaction.repository.TransactionRepository;
+import com.transactionengine.transaction.service.TransactionWriteBehindBuffer;
+import com.transactionengine.transaction.service.id.IdGenerator;
+import com.transactionengine.transaction.service.journal.JournalRecordCodec.JournalEntry;
+import com.transactionengine.transaction.service.journal.TransactionJournal.Appended;
+import com.transactionengine.transaction.service.journal.TransactionJournal.JournalException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journal Replicator
+ *
+ * Makes the journal the commit point for transactions and populates Postgres
+ * from it asynchronously through the write-behind buffer. Records that never
+ * reached the database before a crash are replayed on startup.
+ *
+ * Records are handed to the buffer from the replicator's own thread, never
+ * from the committer's, so a full buffer slows replication, not commits. A
+ * record whose write fails is retried with exponential backoff until it
+ * lands; a constraint violation counts as applied only once the row with the
+ * record's transaction ID and primary key is found in the database.
+ */
+@Component
+@ConditionalOnProperty(name = "app.transaction.journal.enabled", havingValue = "true")
+@Slf4j
+@RequiredArgsConstructor
+public class JournalReplicator {
+
+    private final TransactionJournal journal;
+    private final TransactionWriteBehindBuffer writeBehindBuffer;
+    private final TransactionRepository transactionRepository;
+    private final IdGenerator idGenerator;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.transaction.journal.commit-timeout-ms:5000}")
+    private long commitTimeoutMs;
+
+    @Value("${app.transaction.journal.retry-backoff-ms:100}")
+    private long retryBackoffMs;
+
+    @Value("${app.transaction.journal.retry-max-backoff-ms:30000}")
+    private long retryMaxBackoffMs;
+
+    private ScheduledExecutorService replicator;
+    private Counter retries;
+
+    @PostConstruct
+    public void start() {
+        replicator = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("txn-journal-replicator-"));
+        retries = Counter.builder("transaction.journal.replication.retries")
+            .description("Journal records whose database write failed and was rescheduled")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Whatever is still unapplied stays in the journal and is replayed on restart
+        replicator.shutdown();
+        if (!replicator.awaitTermination(10, TimeUnit.SECONDS)) {
+            replicator.shutdownNow();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnStartup() {
+        Gauge.builder("transaction.journal.unapplied", journal, TransactionJournal::unappliedCount)
+            .description("Journal records not yet applied to the database")
+            .register(meterRegistry);
+
+        // Only the latest state of each transaction needs to reach the database
+        Map<String, JournalEntry> latest = new LinkedHashMap<>();
+        journal.replay(entry -> {
+            JournalEntry previous = latest.put(entry.transaction().getTransactionId(), entry);
+            if (previous != null) {
+                journal.markApplied(previous.sequence());
+            }
+        });
+
+        if (!latest.isEmpty()) {
+            log.info("Replaying {} journaled transactions into the database", latest.size());
+            latest.values().forEach(entry -> replicate(entry.sequence(), entry.transaction()));
+        }
+    }
+
+    /**
+     * Make a transaction durable in the journal, then queue it for the database
+     *
+     * @param transaction Transaction in its final state
+     * @return The same transaction, once its journal record has been forced
+     */
+    public Transaction commit(Transaction transaction) {
+        assignId(transaction);
+        Appended appended = journal.append(transaction);
+        long sequence;
+        try {
+            sequence = journal.await(appended);
+        } catch (JournalException e) {
+            abandon(appended.sequence(), transaction, e.getMessage());
+            throw e;
+        }
+        replicate(sequence, transaction);
+        return transaction;
+    }
+
+    /**
+     * Journal a batch of transactions. All records share one group commit, and
+     * each is queued for the database once it is durable.
+     *
+     * @param transactions Transactions in their final state
+     * @return Futures, in list order, completed once each record has been forced
+     */
+    public List<CompletableFuture<Transaction>> commitAll(List<Transaction> transactions) {
+        List<CompletableFuture<Transaction>> results = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            try {
+                assignId(transaction);
+                Appended appended = journal.append(transaction);
+                // A copy, so the timeout does not complete the journal's own future
+                results.add(appended.forced().copy()
+                    .orTimeout(commitTimeoutMs, TimeUnit.MILLISECONDS)
+                    .handle((sequence, ex) -> {
+                        if (ex != null) {
+                            JournalException failure = TransactionJournal.commitFailure(ex);
+                            abandon(appended.sequence(), transaction, failure.getMessage());
+                            throw new CompletionException(failure);
+                        }
+                        replicate(sequence, transaction);
+                        return transaction;
+                    }));
+            } catch (RuntimeException e) {
+                results.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        return results;
+    }
+
+    @Scheduled(fixedDelayString = "${app.transaction.journal.checkpoint-interval-ms:1000}")
+    public void checkpoint() {
+        journal.checkpoint();
+    }
+
+    /**
+     * Give a new transaction its primary key, id and created_at, before it is
+     * journaled, so every attempt to replicate it writes, and looks for, the
+     * same row in the same partition
+     */
+    private void assignId(Transaction transaction) {
+        if (transaction.getId() == null) {
+            transaction.setId(idGenerator.nextId());
+        }
+        if (transaction.getCreatedAt() == null) {
+            // Microseconds, as the journal and the timestamp(6) column store it
+            transaction.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        }
+    }
+
+    /**
+     * Supersede a record whose commit was given up on. The caller reports the
+     * transaction as failed and writes the failure to the database itself, but
+     * the record may still have been forced; a FAILED record after it makes
+     * replay restore the failure rather than the transaction. Both records are
+     * marked applied so they do not hold back the checkpoint.
+     */
+    private void abandon(long sequence, Transaction transaction, String reason) {
+        Transaction failed = Transaction.builder()
+            .id(transaction.getId())
+            .transactionId(transaction.getTransactionId())
+            .accountFrom(transaction.getAccountFrom())
+            .accountTo(transaction.getAccountTo())
+            .amount(transaction.getAmount())
+            .currency(transaction.getCurrency())
+            .type(transaction.getType())
+            .status(TransactionStatus.FAILED)
+            .description(transaction.getDescription())
+            .metadata(transaction.getMetadata())
+            .createdAt(transaction.getCreatedAt())
+            .updatedAt(LocalDateTime.now())
+            .failureReason(reason)
+            .retryCount(transaction.getRetryCount())
+            .retryable(true)
+            .version(transaction.getVersion())
+            .build();
+        try {
+            journal.markApplied(journal.append(failed).sequence());
+        } catch (RuntimeException e) {
+            log.error("Could not journal the failure of transaction {}; record {} may replay as {}",
+                transaction.getTransactionId(), sequence, transaction.getStatus(), e);
+        }
+        journal.markApplied(sequence);
+    }
+
+    private void replicate(long sequence, Transaction transaction) {
+        Long version = transaction.getVersion();
+        schedule(() -> attempt(sequence, transaction, version, 0), 0);
+    }
+
+    private void attempt(long sequence, Transaction transaction, Long version, int failures) {
+        // A failed flush may have left a version on the entity for a row that was rolled back
+        transaction.setVersion(version);
+        writeBehindBuffer.submit(transaction).whenComplete((persisted, ex) -> {
+            if (ex == null) {
+                journal.markApplied(sequence);
+            } else {
+                schedule(() -> onFailure(sequence, transaction, version, failures, ex), 0);
+            }
+        });
+    }
+
+    private void onFailure(long sequence, Transaction transaction, Long version, int failures, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof DataIntegrityViolationException && isApplied(transaction)) {
+            // Written by an earlier attempt whose outcome was lost
+            journal.markApplied(sequence);
+            return;
+        }
+        long delay = Math.min(retryMaxBackoffMs, retryBackoffMs << Math.min(failures, 20));
+        log.warn("Failed to apply journal record {} for transaction {}, retrying in {} ms: {}",
+            sequence, transaction.getTransactionId(), delay, cause.getMessage());
+        retries.increment();
+        schedule(() -> attempt(sequence, transaction, version, failures + 1), delay);
+    }
+
+    private boolean isApplied(Transaction transaction) {
+        try {
+            return transactionRepository.existsByTransactionIdAndId(transaction.getTransactionId(), transaction.getId());
+        } catch (RuntimeException e) {
+            log.warn("Could not check whether transaction {} is in the database", transaction.getTransactionId(), e);
+            return false;
+        }
+    }
+
+    private void schedule(Runnable task, long delayMs) {
+        try {
+            replicator.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.info("Replicator stopped; journal records still unapplied are replayed on restart");
+        }
+    }
+}
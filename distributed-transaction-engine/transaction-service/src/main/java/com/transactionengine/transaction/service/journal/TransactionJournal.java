@@ -0,0 +1,452 @@
+package com.transactionengine.transaction.service.journal;
+
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.service.journal.JournalRecordCodec.JournalEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Transaction Journal
+ *
+ * Append-only write-ahead log of transaction state transitions, stored in
+ * memory-mapped segment files. Appends are made durable by a group-commit
+ * thread that forces everything written since the previous force in one call.
+ * Records are framed as [length][crc32c][payload]; a zero length marks the end
+ * of the written part of a segment.
+ *
+ * A checkpoint file records the highest sequence whose record has also been
+ * applied to Postgres. On startup, records after the checkpoint are handed back
+ * for replay and segments wholly below it are deleted.
+ */
+@Component
+@ConditionalOnProperty(name = "app.transaction.journal.enabled", havingValue = "true")
+@Slf4j
+public class TransactionJournal {
+
+    private static final int HEADER_SIZE = 8;
+    private static final int END_MARKER_SIZE = 4;
+    private static final int MAX_RECORD_SIZE = 256 * 1024;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    @Value("${app.transaction.journal.directory:./data/journal}")
+    private String directory;
+
+    @Value("${app.transaction.journal.segment-size:67108864}")
+    private int segmentSize;
+
+    @Value("${app.transaction.journal.commit-timeout-ms:5000}")
+    private long commitTimeoutMs;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final CRC32C crc = new CRC32C();
+    // Guarded by appendLock; a thread-local would allocate per virtual thread
+    private final ByteBuffer scratch = ByteBuffer.allocate(MAX_RECORD_SIZE);
+    private final LinkedBlockingQueue<CommitWaiter> commitWaiters = new LinkedBlockingQueue<>();
+    private final ConcurrentSkipListSet<Long> unapplied = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListMap<Long, Path> segmentFiles = new ConcurrentSkipListMap<>();
+
+    private Path journalDir;
+    private volatile Segment current;
+    private long nextSequence;
+    private long writtenSequence;
+    private long checkpointSequence;
+    private List<JournalEntry> recovered = new ArrayList<>();
+    private Thread committer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void open() throws IOException {
+        journalDir = Paths.get(directory);
+        Files.createDirectories(journalDir);
+        checkpointSequence = readCheckpoint();
+        nextSequence = checkpointSequence + 1;
+
+        try (Stream<Path> files = Files.list(journalDir)) {
+            files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .forEach(path -> segmentFiles.put(baseSequenceOf(path), path));
+        }
+
+        Segment last = null;
+        for (Map.Entry<Long, Path> entry : segmentFiles.entrySet()) {
+            if (last != null) {
+                last.close();
+            }
+            last = Segment.open(entry.getValue(), segmentSize);
+            recover(last);
+        }
+        current = last != null ? last : createSegment(nextSequence);
+        writtenSequence = nextSequence - 1;
+        recovered.forEach(entry -> unapplied.add(entry.sequence()));
+
+        running = true;
+        committer = new Thread(this::commitLoop, "txn-journal-commit");
+        committer.setDaemon(true);
+        committer.start();
+
+        log.info("Transaction journal opened at {} ({} segments, {} records to replay)",
+            journalDir.toAbsolutePath(), segmentFiles.size(), recovered.size());
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        committer.join(commitTimeoutMs);
+        appendLock.lock();
+        try {
+            current.forceAll();
+        } finally {
+            appendLock.unlock();
+        }
+        checkpoint();
+    }
+
+    /**
+     * Append a transaction state transition
+     *
+     * @param transaction Transaction in its new state
+     * @return The record's sequence, with a future completed once it has been forced to disk
+     */
+    public Appended append(Transaction transaction) {
+        CommitWaiter waiter;
+        appendLock.lock();
+        try {
+            if (!running) {
+                throw new JournalException("Journal is closed");
+            }
+
+            ByteBuffer buffer = scratch;
+            buffer.clear();
+            try {
+                JournalRecordCodec.encode(transaction, buffer);
+            } catch (BufferOverflowException e) {
+                throw new JournalException("Transaction " + transaction.getTransactionId()
+                    + " exceeds journal record size");
+            }
+            buffer.flip();
+            int length = buffer.remaining();
+
+            if (current.remaining() < HEADER_SIZE + length + END_MARKER_SIZE) {
+                roll();
+            }
+
+            long sequence = nextSequence++;
+            buffer.putLong(JournalRecordCodec.SEQUENCE_OFFSET, sequence);
+            crc.reset();
+            crc.update(buffer.duplicate());
+            current.write(length, (int) crc.getValue(), buffer);
+
+            unapplied.add(sequence);
+            writtenSequence = sequence;
+            waiter = new CommitWaiter(sequence, new CompletableFuture<>());
+            commitWaiters.add(waiter);
+        } finally {
+            appendLock.unlock();
+        }
+        return new Appended(waiter.sequence(), waiter.future());
+    }
+
+    /**
+     * Wait until an appended record is durable
+     *
+     * @return Sequence of the record
+     * @throws JournalException if the record was not forced within the commit timeout
+     */
+    public long await(Appended appended) {
+        try {
+            return appended.forced().get(commitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JournalException("Interrupted while waiting for journal commit");
+        } catch (TimeoutException e) {
+            throw commitFailure(e);
+        } catch (ExecutionException e) {
+            throw commitFailure(e.getCause());
+        }
+    }
+
+    /**
+     * Describe why a record did not become durable, from the failure of its forced future
+     */
+    static JournalException commitFailure(Throwable failure) {
+        if (failure instanceof CompletionException && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        if (failure instanceof TimeoutException) {
+            return new JournalException("Timed out waiting for journal commit");
+        }
+        return new JournalException("Journal commit failed: " + failure.getMessage());
+    }
+
+    /**
+     * Hand records found after the last checkpoint to a consumer, once
+     */
+    public void replay(Consumer<JournalEntry> consumer) {
+        List<JournalEntry> entries = recovered;
+        recovered = new ArrayList<>();
+        entries.forEach(consumer);
+    }
+
+    /**
+     * Transactions in the records found after the last checkpoint, in journal
+     * order, without handing them off as replay() does
+     */
+    public List<Transaction> recoveredTransactions() {
+        return recovered.stream().map(JournalEntry::transaction).toList();
+    }
+
+    /**
+     * Record that the given record has been applied to the database
+     */
+    public void markApplied(long sequence) {
+        unapplied.remove(sequence);
+    }
+
+    /**
+     * Persist the highest sequence applied to the database and drop segments below it
+     */
+    public void checkpoint() {
+        long appliedThrough;
+        appendLock.lock();
+        try {
+            appliedThrough = unapplied.isEmpty() ? writtenSequence : unapplied.first() - 1;
+        } finally {
+            appendLock.unlock();
+        }
+        if (appliedThrough <= checkpointSequence) {
+            return;
+        }
+
+        try {
+            writeCheckpoint(appliedThrough);
+            checkpointSequence = appliedThrough;
+            deleteAppliedSegments(appliedThrough);
+        } catch (IOException e) {
+            log.error("Failed to write journal checkpoint at sequence {}", appliedThrough, e);
+        }
+    }
+
+    public int unappliedCount() {
+        return unapplied.size();
+    }
+
+    private void commitLoop() {
+        List<CommitWaiter> batch = new ArrayList<>();
+
+        while (running || !commitWaiters.isEmpty()) {
+            try {
+                CommitWaiter first = commitWaiters.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                commitWaiters.drainTo(batch);
+
+                // One force covers every record appended so far
+                current.force();
+                batch.forEach(waiter -> waiter.future().complete(waiter.sequence()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Journal group commit failed", e);
+                batch.forEach(waiter -> waiter.future().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Scan a segment, collecting records after the checkpoint and positioning it for appends
+     */
+    private void recover(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        CRC32C check = new CRC32C();
+
+        while (position + HEADER_SIZE <= segmentSize) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_SIZE + length > segmentSize) {
+                break;
+            }
+            ByteBuffer payload = buffer.slice(position + HEADER_SIZE, length);
+            check.reset();
+            check.update(payload.duplicate());
+            if ((int) check.getValue() != buffer.getInt(position + 4)) {
+                log.warn("Torn journal record in {} at offset {}, truncating", segment.path, position);
+                segment.zeroFrom(position);
+                break;
+            }
+
+            JournalEntry entry = JournalRecordCodec.decode(payload);
+            if (entry.sequence() > checkpointSequence) {
+                recovered.add(entry);
+            }
+            nextSequence = Math.max(nextSequence, entry.sequence() + 1);
+            position += HEADER_SIZE + length;
+        }
+        segment.position = position;
+    }
+
+    private void roll() {
+        try {
+            current.forceAll();
+            current.close();
+            current = createSegment(nextSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll journal segment", e);
+        }
+    }
+
+    private Segment createSegment(long baseSequence) throws IOException {
+        Path path = journalDir.resolve(String.format("%020d%s", baseSequence, SEGMENT_SUFFIX));
+        Segment segment = Segment.open(path, segmentSize);
+        segmentFiles.put(baseSequence, path);
+        log.debug("Opened journal segment {}", path);
+        return segment;
+    }
+
+    private void deleteAppliedSegments(long appliedThrough) throws IOException {
+        // A segment can go once the next segment starts at or below the checkpoint
+        Long base = segmentFiles.firstKey();
+        while (base != null) {
+            Long nextBase = segmentFiles.higherKey(base);
+            if (nextBase == null || nextBase - 1 > appliedThrough) {
+                break;
+            }
+            Files.deleteIfExists(segmentFiles.remove(base));
+            base = nextBase;
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path path = journalDir.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path)) {
+            return 0L;
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(path)).getLong();
+    }
+
+    private void writeCheckpoint(long sequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(journalDir.resolve(CHECKPOINT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence), 0);
+            channel.force(false);
+        }
+    }
+
+    private static long baseSequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Memory-mapped segment file. Writes happen under the journal's append lock.
+     */
+    private static final class Segment {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private volatile int position;
+        private volatile int forcedPosition;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path path, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(path, channel, buffer);
+        }
+
+        int remaining() {
+            return buffer.capacity() - position;
+        }
+
+        void write(int length, int checksum, ByteBuffer payload) {
+            int start = position;
+            buffer.put(start + HEADER_SIZE, payload, 0, length);
+            buffer.putInt(start + 4, checksum);
+            // Length goes last so a reader never sees a length without its payload
+            buffer.putInt(start, length);
+            position = start + HEADER_SIZE + length;
+        }
+
+        void force() {
+            int end = position;
+            int start = forcedPosition;
+            if (end > start) {
+                buffer.force(start, end - start);
+                forcedPosition = end;
+            }
+        }
+
+        void forceAll() {
+            buffer.force();
+            forcedPosition = position;
+        }
+
+        void zeroFrom(int offset) {
+            for (int i = offset; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private record CommitWaiter(long sequence, CompletableFuture<Long> future) {
+    }
+
+    /**
+     * An appended record. The sequence is known as soon as the record is
+     * written; forced completes with it once the record is durable.
+     */
+    public record Appended(long sequence, CompletableFuture<Long> forced) {
+    }
+
+    public static class JournalException extends RuntimeException {
+        public JournalException(String message) {
+            super(message);
+        }
+    }
+}
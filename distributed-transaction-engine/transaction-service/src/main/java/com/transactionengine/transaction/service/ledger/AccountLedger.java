@@ -0,0 +1,342 @@
+package com.transactionengine.transaction.service.ledger;
+
+import com.transactionengine.transaction.model.Transaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-Memory Account Ledger
+ *
+ * Accounts are partitioned across shards, each owned by a single writer thread.
+ * Balances are kept as long minor units. A transfer within one shard is applied
+ * as a single command; a transfer across shards debits on the source shard and
+ * then hands the credit off to the destination shard.
+ *
+ * A transfer that has not started on its source shard by the apply timeout
+ * is cancelled and never applied, so a timed-out transaction leaves balances
+ * untouched; one that has started is waited for. Reverts bypass admission
+ * control, so a saturated shard can never drop them.
+ *
+ * Balances live in this JVM only, so accounts must be routed to a single node
+ * when several instances run. LedgerRecovery rebuilds them on startup.
+ */
+@Component
+@Slf4j
+public class AccountLedger {
+
+    private static final int MINOR_UNIT_SCALE = 2;
+
+    @Value("${app.ledger.shards:8}")
+    private int shardCount;
+
+    @Value("${app.ledger.queue-capacity:65536}")
+    private int queueCapacity;
+
+    @Value("${app.ledger.submit-timeout-ms:1000}")
+    private long submitTimeoutMs;
+
+    @Value("${app.ledger.apply-timeout-ms:5000}")
+    private long applyTimeoutMs;
+
+    @Value("${app.ledger.overdraft-limit:100000000000}")
+    private long overdraftLimit;
+
+    private LedgerShard[] shards;
+
+    @PostConstruct
+    public void start() {
+        shards = new LedgerShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new LedgerShard(i, queueCapacity, submitTimeoutMs, overdraftLimit);
+            shards[i].start();
+        }
+        log.info("Account ledger started with {} shards", shardCount);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (LedgerShard shard : shards) {
+            shard.stop();
+        }
+    }
+
+    /**
+     * Apply a transaction to the ledger and wait for both legs to complete
+     *
+     * @param transaction Transaction to apply
+     */
+    public void apply(Transaction transaction) {
+        RuntimeException failure = await(applyAsync(transaction));
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Apply a batch of transactions, letting all shards work on it concurrently.
+     * Transactions touching the same account are applied in list order: a
+     * credit from another shard only reaches its account once the debit has
+     * run, so a later debit of that account waits for it instead of being
+     * judged on a balance the credit has not reached yet.
+     *
+     * @param transactions Transactions to apply
+     * @return Failure for each transaction, in list order, or null where it was applied
+     */
+    public List<RuntimeException> applyAll(List<Transaction> transactions) {
+        List<PendingTransfer> transfers = new ArrayList<>(transactions.size());
+        List<RuntimeException> failures = new ArrayList<>(transactions.size());
+        // Indexes of the transfers crediting each account from another shard, not yet waited for
+        Map<String, List<Integer>> creditsInTransit = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            List<Integer> credits = creditsInTransit.remove(transaction.getAccountFrom());
+            if (credits != null) {
+                for (int credit : credits) {
+                    if (transfers.get(credit) != null) {
+                        failures.set(credit, await(transfers.get(credit)));
+                        transfers.set(credit, null);
+                    }
+                }
+            }
+            try {
+                transfers.add(applyAsync(transaction));
+                failures.add(null);
+                if (shardFor(transaction.getAccountFrom()) != shardFor(transaction.getAccountTo())) {
+                    creditsInTransit.computeIfAbsent(transaction.getAccountTo(), account -> new ArrayList<>())
+                        .add(transfers.size() - 1);
+                }
+            } catch (RuntimeException e) {
+                transfers.add(null);
+                failures.add(e);
+            }
+        }
+
+        for (int i = 0; i < transfers.size(); i++) {
+            if (transfers.get(i) != null) {
+                failures.set(i, await(transfers.get(i)));
+            }
+        }
+        return failures;
+    }
+
+    private PendingTransfer applyAsync(Transaction transaction) {
+        long amount = toMinorUnits(transaction.getAmount());
+        return transfer(transaction.getAccountFrom(), transaction.getAccountTo(), transaction.getCurrency(),
+            amount, true);
+    }
+
+    /**
+     * Wait for a transfer up to the apply timeout. A transfer not started by
+     * then is cancelled; a started one only has its credit left, which never
+     * blocks, so its real outcome is waited for.
+     */
+    private RuntimeException await(PendingTransfer transfer) {
+        try {
+            transfer.result.get(applyTimeoutMs, TimeUnit.MILLISECONDS);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (transfer.cancel()) {
+                return new LedgerException("Interrupted while applying transaction to ledger");
+            }
+            return outcome(transfer);
+        } catch (TimeoutException e) {
+            if (transfer.cancel()) {
+                return new LedgerException("Timed out applying transaction to ledger");
+            }
+            return outcome(transfer);
+        } catch (ExecutionException e) {
+            return unwrap(e.getCause());
+        }
+    }
+
+    private RuntimeException outcome(PendingTransfer transfer) {
+        try {
+            transfer.result.join();
+            return null;
+        } catch (CompletionException e) {
+            return unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new LedgerException(cause.getMessage());
+    }
+
+    /**
+     * Undo a previously applied transaction, e.g. when it could not be persisted.
+     * Queued past admission control and without waiting, so it can be neither
+     * rejected by a saturated shard nor mask the caller's original failure; it
+     * runs after everything already queued on the shards involved.
+     *
+     * @param transaction Transaction to revert
+     */
+    public void revert(Transaction transaction) {
+        long amount = toMinorUnits(transaction.getAmount());
+        transfer(transaction.getAccountTo(), transaction.getAccountFrom(), transaction.getCurrency(), amount, false)
+            .result.whenComplete((ignored, e) -> {
+                if (e != null) {
+                    log.error("Failed to revert transaction {} in ledger", transaction.getTransactionId(), e);
+                }
+            });
+    }
+
+    /**
+     * Add a position recovered on startup, or imported from a settlement file,
+     * to an account's balance
+     *
+     * @param minorUnits Signed amount in minor units
+     */
+    public void restore(String account, String currency, long minorUnits) {
+        LedgerShard shard = shardFor(account);
+        shard.handOff(() -> shard.credit(account, currency, minorUnits));
+    }
+
+    /**
+     * Wait until every command queued so far has run on every shard
+     */
+    public void sync() {
+        List<CompletableFuture<Void>> markers = new ArrayList<>(shards.length);
+        for (LedgerShard shard : shards) {
+            CompletableFuture<Void> marker = new CompletableFuture<>();
+            shard.handOff(() -> marker.complete(null));
+            markers.add(marker);
+        }
+        CompletableFuture.allOf(markers.toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * Move an amount between two accounts
+     *
+     * @param amount Amount in minor units
+     * @return Future completed once the destination has been credited
+     */
+    public CompletableFuture<Void> transfer(String accountFrom, String accountTo, String currency, long amount) {
+        return transfer(accountFrom, accountTo, currency, amount, true).result;
+    }
+
+    /**
+     * @param checked Whether the debit honours the overdraft limit and the
+     *                command goes through admission control; false for reverts
+     */
+    private PendingTransfer transfer(String accountFrom, String accountTo, String currency,
+                                     long amount, boolean checked) {
+        LedgerShard source = shardFor(accountFrom);
+        LedgerShard destination = shardFor(accountTo);
+        PendingTransfer transfer = new PendingTransfer();
+        CompletableFuture<Void> result = transfer.result;
+
+        Runnable debit = () -> {
+            if (!transfer.start()) {
+                return;
+            }
+            if (!source.debit(accountFrom, currency, amount, checked)) {
+                result.completeExceptionally(new InsufficientFundsException(
+                    "Insufficient funds in account " + accountFrom));
+                return;
+            }
+            if (source == destination) {
+                source.credit(accountTo, currency, amount);
+                result.complete(null);
+            } else {
+                // Second phase runs on the destination shard's thread
+                destination.handOff(() -> {
+                    destination.credit(accountTo, currency, amount);
+                    result.complete(null);
+                });
+            }
+        };
+        if (checked) {
+            source.submit(debit);
+        } else {
+            source.handOff(debit);
+        }
+        return transfer;
+    }
+
+    /**
+     * Read the current balance of an account in minor units
+     */
+    public CompletableFuture<Long> balance(String account, String currency) {
+        LedgerShard shard = shardFor(account);
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        shard.submit(() -> result.complete(shard.balance(account, currency)));
+        return result;
+    }
+
+    /**
+     * Convert a decimal amount to minor units, rejecting sub-minor precision
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        try {
+            return amount.setScale(MINOR_UNIT_SCALE, RoundingMode.UNNECESSARY)
+                .unscaledValue()
+                .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new LedgerException("Amount " + amount + " cannot be represented in minor units");
+        }
+    }
+
+    private LedgerShard shardFor(String account) {
+        int h = account.hashCode();
+        return shards[Math.floorMod(h ^ (h >>> 16), shards.length)];
+    }
+
+    /**
+     * A transfer that either starts on its source shard or is cancelled by its
+     * caller, never both
+     */
+    private static final class PendingTransfer {
+
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        private final AtomicBoolean decided = new AtomicBoolean();
+
+        /**
+         * Source shard thread; false if the caller cancelled first
+         */
+        boolean start() {
+            return decided.compareAndSet(false, true);
+        }
+
+        /**
+         * Caller; false if the source shard has already started the transfer
+         */
+        boolean cancel() {
+            if (!decided.compareAndSet(false, true)) {
+                return false;
+            }
+            result.completeExceptionally(new LedgerException("Transfer cancelled before it started"));
+            return true;
+        }
+    }
+
+    public static class LedgerException extends RuntimeException {
+        public LedgerException(String message) {
+            super(message);
+        }
+    }
+
+    public static class InsufficientFundsException extends LedgerException {
+        public InsufficientFundsException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.transactionengine.transaction.service.ledger;
+
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import com.transactionengine.transaction.repository.AccountPosition;
+import com.transactionengine.transaction.repository.TransactionRepository;
+import com.transactionengine.transaction.service.journal.TransactionJournal;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Ledger Recovery
+ *
+ * Rebuilds the in-memory balances before the application takes traffic:
+ * 1. Opening balances from app.ledger.opening-balances, a CSV file of
+ *    account,currency,amount lines, if configured.
+ * 2. The net position of every account over all COMPLETED transactions in
+ *    the database.
+ * 3. COMPLETED transactions still in the journal that have not reached the
+ *    database yet; JournalReplicator replays them into it once ready.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class LedgerRecovery {
+
+    private static final int LOOKUP_CHUNK = 1000;
+
+    private final AccountLedger ledger;
+    private final TransactionRepository transactionRepository;
+    private final ObjectProvider<TransactionJournal> journal;
+
+    @Value("${app.ledger.opening-balances:}")
+    private String openingBalances;
+
+    @PostConstruct
+    public void recover() {
+        long start = System.nanoTime();
+        int opening = restoreOpeningBalances();
+
+        List<AccountPosition> positions = transactionRepository.sumCompletedPositions();
+        for (AccountPosition position : positions) {
+            ledger.restore(position.getAccount(), position.getCurrency(),
+                AccountLedger.toMinorUnits(position.getAmount()));
+        }
+
+        int journaled = restoreJournaledTransactions();
+        ledger.sync();
+        log.info("Ledger recovered in {} ms: {} opening balances, {} positions from the database, "
+                + "{} journaled transactions", (System.nanoTime() - start) / 1_000_000, opening,
+            positions.size(), journaled);
+    }
+
+    private int restoreOpeningBalances() {
+        if (openingBalances == null || openingBalances.isBlank()) {
+            return 0;
+        }
+        int restored = 0;
+        try (Stream<String> lines = Files.lines(Path.of(openingBalances.trim()))) {
+            for (String line : (Iterable<String>) lines::iterator) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 3) {
+                    throw new IllegalStateException("Malformed opening balance line: " + line);
+                }
+                ledger.restore(fields[0].trim(), fields[1].trim(),
+                    AccountLedger.toMinorUnits(new BigDecimal(fields[2].trim())));
+                restored++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read opening balances from " + openingBalances, e);
+        }
+        return restored;
+    }
+
+    private int restoreJournaledTransactions() {
+        TransactionJournal transactionJournal = journal.getIfAvailable();
+        if (transactionJournal == null) {
+            return 0;
+        }
+
+        // Only the latest state of each transaction counts
+        Map<String, Transaction> latest = new LinkedHashMap<>();
+        for (Transaction transaction : transactionJournal.recoveredTransactions()) {
+            latest.put(transaction.getTransactionId(), transaction);
+        }
+        latest.values().removeIf(transaction -> transaction.getStatus() != TransactionStatus.COMPLETED);
+        if (latest.isEmpty()) {
+            return 0;
+        }
+
+        // Those already COMPLETED in the database are in the positions
+        Set<String> inDatabase = new HashSet<>();
+        List<String> ids = List.copyOf(latest.keySet());
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK) {
+            inDatabase.addAll(transactionRepository.findTransactionIdsByTransactionIdInAndStatusIn(
+                ids.subList(from, Math.min(from + LOOKUP_CHUNK, ids.size())), List.of(TransactionStatus.COMPLETED)));
+        }
+        int restored = 0;
+        for (Transaction transaction : latest.values()) {
+            if (inDatabase.contains(transaction.getTransactionId())) {
+                continue;
+            }
+            long amount = AccountLedger.toMinorUnits(transaction.getAmount());
+            ledger.restore(transaction.getAccountFrom(), transaction.getCurrency(), -amount);
+            ledger.restore(transaction.getAccountTo(), transaction.getCurrency(), amount);
+            restored++;
+        }
+        return restored;
+    }
+}
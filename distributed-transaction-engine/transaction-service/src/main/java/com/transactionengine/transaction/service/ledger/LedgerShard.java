@@ -0,0 +1,131 @@
+package com.transactionengine.transaction.service.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ledger Shard
+ *
+ * Owns the balances of a subset of accounts. All reads and writes of those
+ * balances run on the shard's single thread, so no locking is needed.
+ * Commands from callers are bounded by a permit count; hand-offs from other
+ * shards bypass that bound so two shards can never block on each other.
+ */
+@Slf4j
+class LedgerShard {
+
+    private final int index;
+    private final long overdraftLimit;
+    private final BlockingQueue<Runnable> commands = new LinkedBlockingQueue<>();
+    private final Semaphore admission;
+    private final long admissionTimeoutMs;
+    private final Map<String, Balance> balances = new HashMap<>();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    LedgerShard(int index, int capacity, long admissionTimeoutMs, long overdraftLimit) {
+        this.index = index;
+        this.overdraftLimit = overdraftLimit;
+        this.admission = new Semaphore(capacity);
+        this.admissionTimeoutMs = admissionTimeoutMs;
+        this.worker = new Thread(this::run, "ledger-shard-" + index);
+        this.worker.setDaemon(true);
+    }
+
+    void start() {
+        worker.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Submit a command from outside the ledger, waiting for capacity if the shard is saturated
+     */
+    void submit(Runnable command) {
+        try {
+            if (!admission.tryAcquire(admissionTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new AccountLedger.LedgerException("Ledger shard " + index + " is saturated");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountLedger.LedgerException("Interrupted while submitting to ledger shard " + index);
+        }
+        commands.add(() -> {
+            try {
+                command.run();
+            } finally {
+                admission.release();
+            }
+        });
+    }
+
+    /**
+     * Queue a command past admission control: hand-offs from other shards,
+     * reverts and recovery. Never blocks.
+     */
+    void handOff(Runnable command) {
+        commands.add(command);
+    }
+
+    /**
+     * Debit an account, optionally honouring the overdraft limit. Shard thread only.
+     *
+     * @return false if the debit would exceed the overdraft limit
+     */
+    boolean debit(String account, String currency, long amount, boolean enforceLimit) {
+        Balance balance = balances.computeIfAbsent(key(account, currency), k -> new Balance());
+        if (enforceLimit && balance.minorUnits - amount < -overdraftLimit) {
+            return false;
+        }
+        balance.minorUnits -= amount;
+        return true;
+    }
+
+    /**
+     * Credit an account. Shard thread only.
+     */
+    void credit(String account, String currency, long amount) {
+        balances.computeIfAbsent(key(account, currency), k -> new Balance()).minorUnits += amount;
+    }
+
+    /**
+     * Read a balance. Shard thread only.
+     */
+    long balance(String account, String currency) {
+        Balance balance = balances.get(key(account, currency));
+        return balance == null ? 0L : balance.minorUnits;
+    }
+
+    private void run() {
+        while (running || !commands.isEmpty()) {
+            try {
+                Runnable command = commands.poll(100, TimeUnit.MILLISECONDS);
+                if (command != null) {
+                    command.run();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Ledger shard {} command failed", index, e);
+            }
+        }
+    }
+
+    private static String key(String account, String currency) {
+        return account + '|' + currency;
+    }
+
+    private static final class Balance {
+        long minorUnits;
+    }
+}
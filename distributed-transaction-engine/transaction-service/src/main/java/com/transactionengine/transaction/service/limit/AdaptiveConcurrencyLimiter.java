@@ -0,0 +1,197 @@
+package com.transactionengine.transaction.service.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive Concurrency Limiter
+ *
+ * Caps the number of calls in flight and adjusts the cap from observed
+ * latency, in the manner of the Gradient2 limiter: a short-term average of
+ * call times is compared with a long-term one. While they agree the limit
+ * grows by its square root per sample; once calls slow down, e.g. because
+ * Postgres or Redis is struggling, the limit shrinks in proportion. A call
+ * that timed out or was shed downstream cuts the limit by the backoff ratio.
+ *
+ * Calls over the limit are rejected at once instead of waiting, so load is
+ * shed before it piles up on locks and connections.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int SHORT_WINDOW = 10;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final int longWindow;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+    private volatile double limit;
+
+    // Guarded by this
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, Settings settings, MeterRegistry registry) {
+        this.name = name;
+        this.minLimit = settings.minLimit();
+        this.maxLimit = settings.maxLimit();
+        this.smoothing = settings.smoothing();
+        this.tolerance = settings.tolerance();
+        this.backoffRatio = settings.backoffRatio();
+        this.longWindow = settings.longWindow();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, settings.initialLimit()));
+
+        Gauge.builder("transaction.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Current adaptive concurrency limit")
+            .tag("limiter", name)
+            .register(registry);
+        Gauge.builder("transaction.limiter.in-flight", inFlight, AtomicInteger::get)
+            .description("Calls currently holding a limiter permit")
+            .tag("limiter", name)
+            .register(registry);
+        this.rejected = Counter.builder("transaction.limiter.rejected")
+            .description("Calls rejected because the concurrency limit was reached")
+            .tag("limiter", name)
+            .register(registry);
+    }
+
+    /**
+     * Take a permit if the limit allows another call
+     *
+     * @return The permit, which must be released exactly once, or empty if the call is to be shed
+     */
+    public Optional<Permit> tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return Optional.empty();
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return Optional.of(new Permit(System.nanoTime(), current + 1));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+        } else {
+            shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+            longRttNanos += (rttNanos - longRttNanos) / longWindow;
+        }
+
+        // After a sustained slowdown the long-term average catches up with the new
+        // normal; pull it back down so the limit recovers quickly once latency drops
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // Fast calls at low concurrency say nothing about the capacity at the limit
+        double current = limit;
+        if (inFlightAtStart < current / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double target = current * gradient + Math.sqrt(current);
+        setLimit(current * (1 - smoothing) + target * smoothing);
+    }
+
+    private synchronized void onDrop() {
+        setLimit(limit * backoffRatio);
+    }
+
+    private void setLimit(double newLimit) {
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    /**
+     * Permit for one call; report how it went through exactly one of the outcome methods
+     */
+    public final class Permit {
+
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * The call completed normally; its latency feeds the limit
+         */
+        public void success() {
+            if (release()) {
+                onSample(System.nanoTime() - startNanos, inFlightAtStart);
+            }
+        }
+
+        /**
+         * The call timed out or was rejected downstream; the limit backs off
+         */
+        public void dropped() {
+            if (release()) {
+                onDrop();
+            }
+        }
+
+        /**
+         * The call failed for reasons unrelated to load, e.g. validation; not sampled
+         */
+        public void ignore() {
+            release();
+        }
+
+        private boolean release() {
+            if (!released.compareAndSet(false, true)) {
+                return false;
+            }
+            inFlight.decrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     * @param initialLimit Limit before any latency has been observed
+     * @param minLimit     Floor the limit never drops below
+     * @param maxLimit     Ceiling the limit never grows beyond
+     * @param smoothing    Weight of each new estimate, 0 to 1
+     * @param tolerance    Slowdown of the short-term average that is accepted before the limit shrinks
+     * @param backoffRatio Factor applied to the limit when a call is dropped
+     * @param longWindow   Samples averaged into the long-term latency
+     */
+    public record Settings(int initialLimit, int minLimit, int maxLimit, double smoothing,
+                           double tolerance, double backoffRatio, int longWindow) {
+    }
+
+    public static class LimitExceededException extends RuntimeException {
+        public LimitExceededException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.transactionengine.transaction.service.lock;
+
+/**
+ * Lock Mode
+ * Selects the LockProvider backing DistributedLockService
+ */
+public enum LockMode {
+    /** Every lock is a Redisson RLock */
+    REDISSON,
+    /** In-process striped locks only, for single-node deployments */
+    LOCAL,
+    /**
+     * Local striped locks in front of Redisson, so only one thread per stripe
+     * waits on Redis. Each lock still costs a Redis round trip.
+     */
+    HYBRID
+}
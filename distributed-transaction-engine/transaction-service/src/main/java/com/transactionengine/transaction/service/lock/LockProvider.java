@@ -0,0 +1,52 @@
+package com.transactionengine.transaction.service.lock;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lock Provider
+ * Pluggable lock backend used by DistributedLockService
+ */
+public interface LockProvider {
+
+    /**
+     * Try to acquire the lock for a key
+     *
+     * @param lockKey Key to lock
+     * @param waitTime Maximum time to wait for the lock
+     * @param leaseTime Time after which the lock is released automatically (if supported)
+     * @param unit Time unit for waitTime and leaseTime
+     * @return Handle for releasing the lock, or null if it could not be acquired in time
+     */
+    AcquiredLock tryAcquire(String lockKey, long waitTime, long leaseTime, TimeUnit unit)
+        throws InterruptedException;
+
+    /**
+     * Try to acquire the locks for several keys as one unit
+     *
+     * Either all keys are locked or none are. Callers pass keys in a canonical
+     * order so that two multi-key acquisitions can never deadlock each other.
+     *
+     * @param lockKeys Distinct keys to lock, in canonical order
+     * @return Handle releasing all keys, or null if they could not be acquired in time
+     */
+    AcquiredLock tryAcquireAll(List<String> lockKeys, long waitTime, long leaseTime, TimeUnit unit)
+        throws InterruptedException;
+
+    /**
+     * Check if a lock is currently held
+     */
+    boolean isLocked(String lockKey);
+
+    /**
+     * Force unlock a lock regardless of owner
+     */
+    void forceUnlock(String lockKey);
+
+    /**
+     * Handle to a held lock
+     */
+    interface AcquiredLock {
+        void release();
+    }
+}
@@ -0,0 +1,36 @@
+package com.transactionengine.transaction.service.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one use of the distributed locks, with the wait
+ * to acquire them and the time they were held reported separately
+ */
+@Name("com.transactionengine.DistributedLock")
+@Label("Distributed Lock")
+@Description("Wait for and hold of one distributed lock acquisition")
+@Category({"Transaction Engine", "Locking"})
+@StackTrace(false)
+@Enabled(false)
+class DistributedLockEvent extends jdk.jfr.Event {
+
+    @Label("Lock Keys")
+    String lockKeys;
+
+    @Label("Acquired")
+    boolean acquired;
+
+    @Label("Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitDuration;
+
+    @Label("Hold")
+    @Timespan(Timespan.NANOSECONDS)
+    long holdDuration;
+}
@@ -0,0 +1,137 @@
+package com.transactionengine.transaction.service.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Flight Recorder Endpoint
+ *
+ * Starts and stops JDK Flight Recorder recordings on a running pod, without a
+ * restart or JVM flags. Recordings use a built-in JFR configuration (profile
+ * by default) plus the transaction stage and distributed lock events, and are
+ * written to app.transaction.jfr.directory when stopped or when their duration
+ * runs out. The file name carries the recording id, so recordings started in
+ * the same second do not overwrite each other.
+ *
+ *   GET    /actuator/jfr                   list recordings
+ *   POST   /actuator/jfr                   start one; optional settings and durationSeconds
+ *   DELETE /actuator/jfr/{id}              stop one and write it to disk
+ */
+@Component
+@Endpoint(id = "jfr")
+@Slf4j
+public class FlightRecorderEndpoint {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${app.transaction.jfr.directory:./data/jfr}")
+    private String directory;
+
+    @Value("${app.transaction.jfr.default-settings:profile}")
+    private String defaultSettings;
+
+    @Value("${app.transaction.jfr.max-duration:30m}")
+    private Duration maxDuration;
+
+    @ReadOperation
+    public List<RecordingInfo> recordings() {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+            .map(RecordingInfo::of)
+            .toList();
+    }
+
+    /**
+     * Start a recording that stops by itself after durationSeconds, capped at max-duration
+     *
+     * @param settings Built-in JFR configuration, "default" or "profile"
+     */
+    @WriteOperation
+    public RecordingInfo start(@Nullable String settings, @Nullable Long durationSeconds) throws IOException {
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings == null ? defaultSettings : settings);
+        } catch (ParseException | IOException e) {
+            throw new InvalidEndpointRequestException("Unknown JFR settings: " + settings, "Unknown JFR settings");
+        }
+
+        Duration duration = durationSeconds == null
+            ? maxDuration
+            : Duration.ofSeconds(Math.max(1, Math.min(durationSeconds, maxDuration.toSeconds())));
+        Recording recording = new Recording(configuration);
+        String name = "transaction-service-" + LocalDateTime.now().format(FILE_TIMESTAMP) + "-" + recording.getId();
+        Path destination = Path.of(directory).resolve(name + ".jfr");
+        try {
+            Files.createDirectories(destination.getParent());
+        } catch (IOException e) {
+            recording.close();
+            throw e;
+        }
+        recording.setName(name);
+        recording.enable(TransactionStageEvent.class);
+        recording.enable(DistributedLockEvent.class);
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        recording.setDestination(destination);
+        recording.start();
+
+        log.info("Started JFR recording {} ({}) for {} to {}", recording.getId(), configuration.getName(),
+            duration, destination);
+        return RecordingInfo.of(recording);
+    }
+
+    /**
+     * Stop a running recording; it is written to its destination
+     */
+    @DeleteOperation
+    public RecordingInfo stop(@Selector long id) {
+        Recording recording = FlightRecorder.getFlightRecorder().getRecordings().stream()
+            .filter(candidate -> candidate.getId() == id)
+            .findFirst()
+            .orElseThrow(() -> new InvalidEndpointRequestException(
+                "No JFR recording with id " + id, "Unknown recording"));
+
+        if (recording.getState() == RecordingState.RUNNING || recording.getState() == RecordingState.DELAYED) {
+            recording.stop();
+            log.info("Stopped JFR recording {}; written to {}", id, recording.getDestination());
+        }
+        RecordingInfo info = RecordingInfo.of(recording);
+        recording.close();
+        return info;
+    }
+
+    public record RecordingInfo(long id, String name, String state, Instant startTime, Duration duration,
+                                String destination) {
+
+        static RecordingInfo of(Recording recording) {
+            return new RecordingInfo(
+                recording.getId(),
+                recording.getName(),
+                recording.getState().name(),
+                recording.getStartTime(),
+                recording.getDuration(),
+                recording.getDestination() == null ? null : recording.getDestination().toString());
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.transactionengine.transaction.service.metrics;
+
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import com.transactionengine.transaction.model.Transaction.TransactionType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Transaction Meter
+ *
+ * Sliding-window throughput and latency of settled transactions. Counts go
+ * into a ring of one-second buckets of LongAdders, one per series: the total,
+ * each transaction type, each status and each currency. Rates over the last
+ * 1, 10 and 60 complete seconds are sums over the ring, so they neither grow
+ * with uptime nor need a lock. Latencies go into an HdrHistogram recorder; a
+ * ticker thread moves each second's histogram into a ring of its own and
+ * computes p50, p99 and p999 per window, which readers get without locking.
+ *
+ * Everything is exported as Micrometer gauges and returned by snapshot().
+ */
+@Component
+@Slf4j
+public class TransactionMeter {
+
+    /**
+     * Windows in seconds; each ends with the last complete second
+     */
+    public static final int[] WINDOWS = {1, 10, 60};
+
+    private static final int RING_SIZE = 64;
+    private static final int MAX_WINDOW = 60;
+
+    // Currencies beyond this many share the OTHER series
+    private static final int MAX_CURRENCIES = 32;
+    private static final String OTHER_CURRENCY = "OTHER";
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int LATENCY_DIGITS = 2;
+    private static final double[] PERCENTILES = {50.0, 99.0, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p99", "p999"};
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+    private static final int TYPE_OFFSET = 1;
+    private static final int STATUS_OFFSET = TYPE_OFFSET + TYPES.length;
+    private static final int CURRENCY_OFFSET = STATUS_OFFSET + STATUSES.length;
+    private static final int SERIES = CURRENCY_OFFSET + MAX_CURRENCIES;
+
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clock;
+
+    private final AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<>(RING_SIZE);
+    private final Map<String, Integer> currencyIndex = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> currencies = new AtomicReferenceArray<>(MAX_CURRENCIES);
+    private final AtomicInteger currencyCount = new AtomicInteger();
+
+    private final Recorder latencyRecorder = new Recorder(1, MAX_LATENCY_MICROS, LATENCY_DIGITS);
+    // Owned by the ticker thread
+    private final Histogram[] latencyRing = new Histogram[MAX_WINDOW];
+    private final Histogram[] windowLatency = new Histogram[WINDOWS.length];
+    private Histogram spareInterval;
+    private int latencySlot;
+
+    private volatile double[][] latencyMillis = new double[WINDOWS.length][PERCENTILES.length];
+    private ScheduledExecutorService ticker;
+
+    @Autowired
+    public TransactionMeter(MeterRegistry meterRegistry) {
+        this(meterRegistry, System::currentTimeMillis);
+    }
+
+    TransactionMeter(MeterRegistry meterRegistry, LongSupplier clock) {
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (int i = 0; i < latencyRing.length; i++) {
+            latencyRing[i] = newHistogram();
+        }
+        for (int i = 0; i < windowLatency.length; i++) {
+            windowLatency[i] = newHistogram();
+        }
+        currencyIndex.put(OTHER_CURRENCY, MAX_CURRENCIES - 1);
+        currencies.set(MAX_CURRENCIES - 1, OTHER_CURRENCY);
+
+        for (int w = 0; w < WINDOWS.length; w++) {
+            String window = WINDOWS[w] + "s";
+            int windowIndex = w;
+            registerRate("transaction.throughput", null, null, 0, windowIndex);
+            for (TransactionType type : TYPES) {
+                registerRate("transaction.throughput.type", "type", type.name(),
+                    TYPE_OFFSET + type.ordinal(), windowIndex);
+            }
+            for (TransactionStatus status : STATUSES) {
+                registerRate("transaction.throughput.status", "status", status.name(),
+                    STATUS_OFFSET + status.ordinal(), windowIndex);
+            }
+            for (int p = 0; p < PERCENTILES.length; p++) {
+                int percentile = p;
+                Gauge.builder("transaction.latency", this, meter -> meter.latencyMillis[windowIndex][percentile])
+                    .description("Transaction latency percentile over a sliding window, in milliseconds")
+                    .tag("window", window)
+                    .tag("quantile", PERCENTILE_NAMES[p])
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            }
+        }
+        registerCurrency(MAX_CURRENCIES - 1);
+
+        ticker = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("txn-meter-"));
+        ticker.scheduleAtFixedRate(this::tick, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (ticker != null) {
+            ticker.shutdown();
+            ticker.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Count a settled transaction and its latency
+     *
+     * @param transaction Transaction in its final state for this attempt
+     * @param latencyNanos Time the attempt took
+     */
+    public void record(Transaction transaction, long latencyNanos) {
+        Bucket bucket = currentBucket(clock.getAsLong() / 1000);
+        LongAdder[] counts = bucket.counts;
+        counts[0].increment();
+        if (transaction.getType() != null) {
+            counts[TYPE_OFFSET + transaction.getType().ordinal()].increment();
+        }
+        if (transaction.getStatus() != null) {
+            counts[STATUS_OFFSET + transaction.getStatus().ordinal()].increment();
+        }
+        if (transaction.getCurrency() != null) {
+            counts[CURRENCY_OFFSET + currencySeries(transaction.getCurrency())].increment();
+        }
+
+        long micros = Math.max(1, Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        latencyRecorder.recordValue(micros);
+    }
+
+    /**
+     * Transactions per second over the last complete seconds
+     *
+     * @param windowSeconds 1 to 60
+     */
+    public double rate(int windowSeconds) {
+        return rate(0, windowSeconds);
+    }
+
+    /**
+     * Current rates and latency percentiles for every window
+     */
+    public Snapshot snapshot() {
+        Map<String, Double> throughput = new LinkedHashMap<>();
+        Map<String, Map<String, Double>> latency = new LinkedHashMap<>();
+        Map<String, Map<String, Double>> byType = new LinkedHashMap<>();
+        Map<String, Map<String, Double>> byStatus = new LinkedHashMap<>();
+        Map<String, Map<String, Double>> byCurrency = new LinkedHashMap<>();
+
+        double[][] percentiles = latencyMillis;
+        int knownCurrencies = Math.min(currencyCount.get(), MAX_CURRENCIES - 1);
+        for (int w = 0; w < WINDOWS.length; w++) {
+            String window = WINDOWS[w] + "s";
+            throughput.put(window, rate(0, WINDOWS[w]));
+
+            Map<String, Double> windowLatency = new LinkedHashMap<>();
+            for (int p = 0; p < PERCENTILES.length; p++) {
+                windowLatency.put(PERCENTILE_NAMES[p], percentiles[w][p]);
+            }
+            latency.put(window, windowLatency);
+
+            for (TransactionType type : TYPES) {
+                putRate(byType, type.name(), window, TYPE_OFFSET + type.ordinal(), WINDOWS[w]);
+            }
+            for (TransactionStatus status : STATUSES) {
+                putRate(byStatus, status.name(), window, STATUS_OFFSET + status.ordinal(), WINDOWS[w]);
+            }
+            for (int c = 0; c < knownCurrencies; c++) {
+                String currency = currencies.get(c);
+                if (currency != null) {
+                    putRate(byCurrency, currency, window, CURRENCY_OFFSET + c, WINDOWS[w]);
+                }
+            }
+            putRate(byCurrency, OTHER_CURRENCY, window, CURRENCY_OFFSET + MAX_CURRENCIES - 1, WINDOWS[w]);
+        }
+        return new Snapshot(throughput, latency, byType, byStatus, byCurrency);
+    }
+
+    private void putRate(Map<String, Map<String, Double>> target, String key, String window,
+                         int series, int windowSeconds) {
+        target.computeIfAbsent(key, k -> new LinkedHashMap<>()).put(window, rate(series, windowSeconds));
+    }
+
+    private double rate(int series, int windowSeconds) {
+        long now = clock.getAsLong() / 1000;
+        long sum = 0;
+        for (long second = now - windowSeconds; second < now; second++) {
+            Bucket bucket = buckets.get((int) (second & (RING_SIZE - 1)));
+            if (bucket != null && bucket.second == second) {
+                sum += bucket.counts[series].sum();
+            }
+        }
+        return (double) sum / windowSeconds;
+    }
+
+    /**
+     * The bucket for this second; the first writer of a new second replaces
+     * the stale bucket in its slot
+     */
+    private Bucket currentBucket(long second) {
+        int slot = (int) (second & (RING_SIZE - 1));
+        while (true) {
+            Bucket bucket = buckets.get(slot);
+            if (bucket != null && bucket.second == second) {
+                return bucket;
+            }
+            if (bucket != null && bucket.second > second) {
+                // The clock stepped back; count into the newer second rather than lose it
+                return bucket;
+            }
+            Bucket fresh = new Bucket(second);
+            if (buckets.compareAndSet(slot, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    /**
+     * Series of a currency. Once every series is taken, unknown currencies go to
+     * OTHER without being added to the index, so the index stays bounded
+     */
+    private int currencySeries(String currency) {
+        Integer index = currencyIndex.get(currency);
+        if (index != null) {
+            return index;
+        }
+        if (currencyCount.get() >= MAX_CURRENCIES - 1) {
+            return MAX_CURRENCIES - 1;
+        }
+        // Returning null from the mapping function leaves the currency out of the index
+        index = currencyIndex.computeIfAbsent(currency, key -> {
+            int next = currencyCount.getAndIncrement();
+            if (next >= MAX_CURRENCIES - 1) {
+                return null;
+            }
+            currencies.set(next, key);
+            registerCurrency(next);
+            return next;
+        });
+        return index != null ? index : MAX_CURRENCIES - 1;
+    }
+
+    private void registerCurrency(int index) {
+        for (int w = 0; w < WINDOWS.length; w++) {
+            registerRate("transaction.throughput.currency", "currency", currencies.get(index),
+                CURRENCY_OFFSET + index, w);
+        }
+    }
+
+    private void registerRate(String name, String tagKey, String tagValue, int series, int windowIndex) {
+        int windowSeconds = WINDOWS[windowIndex];
+        Gauge.Builder<TransactionMeter> gauge = Gauge.builder(name, this, meter -> meter.rate(series, windowSeconds))
+            .description("Settled transactions per second over a sliding window")
+            .tag("window", windowSeconds + "s");
+        if (tagKey != null) {
+            gauge.tag(tagKey, tagValue);
+        }
+        gauge.register(meterRegistry);
+    }
+
+    /**
+     * Move the last second's latencies into the ring and refresh the window percentiles
+     */
+    private void tick() {
+        try {
+            Histogram interval = latencyRecorder.getIntervalHistogram(spareInterval);
+            latencySlot = (latencySlot + 1) % MAX_WINDOW;
+            Histogram slot = latencyRing[latencySlot];
+            slot.reset();
+            slot.add(interval);
+            spareInterval = interval;
+
+            double[][] refreshed = new double[WINDOWS.length][PERCENTILES.length];
+            for (int w = 0; w < WINDOWS.length; w++) {
+                Histogram window = windowLatency[w];
+                window.reset();
+                for (int s = 0; s < WINDOWS[w]; s++) {
+                    window.add(latencyRing[(latencySlot - s + MAX_WINDOW) % MAX_WINDOW]);
+                }
+                for (int p = 0; p < PERCENTILES.length; p++) {
+                    refreshed[w][p] = window.getTotalCount() == 0
+                        ? 0.0
+                        : window.getValueAtPercentile(PERCENTILES[p]) / 1000.0;
+                }
+            }
+            latencyMillis = refreshed;
+        } catch (Exception e) {
+            log.error("Transaction meter tick failed", e);
+        }
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(1, MAX_LATENCY_MICROS, LATENCY_DIGITS);
+    }
+
+    private static final class Bucket {
+        final long second;
+        final LongAdder[] counts = new LongAdder[SERIES];
+
+        Bucket(long second) {
+            this.second = second;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * Rates in transactions per second and latencies in milliseconds, keyed by window ("1s", "10s", "60s")
+     */
+    public record Snapshot(
+        Map<String, Double> throughput,
+        Map<String, Map<String, Double>> latencyMillis,
+        Map<String, Map<String, Double>> byType,
+        Map<String, Map<String, Double>> byStatus,
+        Map<String, Map<String, Double>> byCurrency) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.transactionengine.transaction.service.metrics;
+
+/**
+ * Stages of processing a transaction, as timed by TransactionStageTimers
+ */
+public enum TransactionStage {
+    VALIDATION("validation"),
+    LOCK_WAIT("lock.wait"),
+    LOCK_HOLD("lock.hold"),
+    DUPLICATE_CHECK("duplicate.check"),
+    MARK_PROCESSING("mark.processing"),
+    LEDGER("ledger"),
+    COMMIT("commit"),
+    RECORD_FAILURE("record.failure");
+
+    private final String tag;
+
+    TransactionStage(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,31 @@
+package com.transactionengine.transaction.service.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one stage of processing a transaction
+ */
+@Name("com.transactionengine.TransactionStage")
+@Label("Transaction Stage")
+@Description("Time one transaction spent in one processing stage")
+@Category({"Transaction Engine", "Processing"})
+@StackTrace(false)
+@Enabled(false)
+class TransactionStageEvent extends jdk.jfr.Event {
+
+    @Label("Transaction ID")
+    String transactionId;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Stage Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long stageDuration;
+}
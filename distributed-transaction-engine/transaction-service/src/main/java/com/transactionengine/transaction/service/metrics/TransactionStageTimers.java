@@ -0,0 +1,76 @@
+package com.transactionengine.transaction.service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction Stage Timers
+ *
+ * Per-stage latency of transaction processing, so a p99 spike can be pinned
+ * on lock wait, lock hold, the duplicate check, the ledger or the commit.
+ * Callers take System.nanoTime() at the start of a stage and pass it to
+ * stop(), which records the stage into a Micrometer timer and, while a
+ * Flight Recorder recording has them enabled, emits a TransactionStageEvent
+ * or DistributedLockEvent. The events cost nothing when no recording is on.
+ */
+@Component
+public class TransactionStageTimers {
+
+    private final Map<TransactionStage, Timer> timers = new EnumMap<>(TransactionStage.class);
+
+    public TransactionStageTimers(MeterRegistry meterRegistry) {
+        for (TransactionStage stage : TransactionStage.values()) {
+            timers.put(stage, Timer.builder("transaction.stage.time")
+                .description("Time spent in one stage of transaction processing")
+                .tag("stage", stage.getTag())
+                .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Record a stage that started at startNanos and ends now
+     *
+     * @return The end of the stage, to serve as the start of the next one
+     */
+    public long stop(TransactionStage stage, String transactionId, long startNanos) {
+        long now = System.nanoTime();
+        long duration = now - startNanos;
+        timers.get(stage).record(duration, TimeUnit.NANOSECONDS);
+
+        TransactionStageEvent event = new TransactionStageEvent();
+        if (event.isEnabled()) {
+            event.transactionId = transactionId;
+            event.stage = stage.getTag();
+            event.stageDuration = duration;
+            event.commit();
+        }
+        return now;
+    }
+
+    /**
+     * Record one use of the distributed locks, after release or a failed acquisition
+     *
+     * @param lockKeys Keys that were locked, for the Flight Recorder event
+     * @param acquired Whether the locks were acquired at all; holdNanos is 0 if not
+     */
+    public void lock(Object lockKeys, boolean acquired, long waitNanos, long holdNanos) {
+        timers.get(TransactionStage.LOCK_WAIT).record(waitNanos, TimeUnit.NANOSECONDS);
+        if (acquired) {
+            timers.get(TransactionStage.LOCK_HOLD).record(holdNanos, TimeUnit.NANOSECONDS);
+        }
+
+        DistributedLockEvent event = new DistributedLockEvent();
+        if (event.isEnabled()) {
+            event.lockKeys = String.valueOf(lockKeys);
+            event.acquired = acquired;
+            event.waitDuration = waitNanos;
+            event.holdDuration = holdNanos;
+            event.commit();
+        }
+    }
+}
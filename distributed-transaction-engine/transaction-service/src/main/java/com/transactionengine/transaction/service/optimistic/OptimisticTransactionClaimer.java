@@ -0,0 +1,184 @@
+package com.transactionengine.transaction.service.optimistic;
+
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import com.transactionengine.transaction.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Optimistic Transaction Claimer
+ *
+ * Claims a stored transaction for processing without a distributed lock: one
+ * conditional UPDATE moves it to LOCKED only if its status and version are
+ * still the ones this node read. LOCKED is the work queue's claim state, so a
+ * claim whose node dies is a lease like any other: the work queue takes the
+ * row over once it has been LOCKED for longer than claim-lease-ms. A claim that matches no row is an
+ * optimistic lock failure; the row is read again and the claim retried after
+ * a jittered exponential backoff, up to max-attempts. Once another processor
+ * has taken or settled the transaction the claim is lost for good.
+ *
+ * A transaction not yet in the database needs no claim: the unique
+ * transaction_id makes its first insert the only one that can commit.
+ */
+@Component
+@Slf4j
+public class OptimisticTransactionClaimer {
+
+    private final TransactionRepository transactionRepository;
+
+    @Value("${app.transaction.concurrency.optimistic.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.transaction.concurrency.optimistic.backoff-ms:2}")
+    private long backoffMs;
+
+    @Value("${app.transaction.concurrency.optimistic.max-backoff-ms:50}")
+    private long maxBackoffMs;
+
+    private final Counter claimed;
+    private final Counter lost;
+    private final Counter exhausted;
+    private final Counter claimConflicts;
+    private final Counter commitConflicts;
+    private final DistributionSummary attempts;
+
+    public OptimisticTransactionClaimer(TransactionRepository transactionRepository, MeterRegistry registry) {
+        this.transactionRepository = transactionRepository;
+        this.claimed = claims("claimed", registry);
+        this.lost = claims("lost", registry);
+        this.exhausted = claims("exhausted", registry);
+        this.claimConflicts = conflicts("claim", registry);
+        this.commitConflicts = conflicts("commit", registry);
+        this.attempts = DistributionSummary.builder("transaction.optimistic.claim.attempts")
+            .description("Conditional updates needed to claim a transaction")
+            .publishPercentiles(0.5, 0.99)
+            .register(registry);
+    }
+
+    /**
+     * Move a stored transaction to LOCKED, retrying on conflicting updates
+     *
+     * @param transaction Transaction to claim; its status and version are updated to the claimed row
+     * @return True if a stored transaction was claimed, which also rules out a duplicate;
+     *         false if the transaction is not in the database yet
+     * @throws ClaimLostException if another processor owns or has settled the transaction
+     * @throws OptimisticLockingFailureException if the row stayed contended for max-attempts
+     */
+    public boolean claim(Transaction transaction) {
+        if (transaction.getVersion() == null) {
+            return false;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                tryClaim(transaction);
+                claimed.increment();
+                attempts.record(attempt);
+                return true;
+            } catch (OptimisticLockingFailureException e) {
+                claimConflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                refresh(transaction);
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Count a final write rejected because the row changed after it was claimed
+     */
+    public void recordCommitConflict() {
+        commitConflicts.increment();
+    }
+
+    private void tryClaim(Transaction transaction) {
+        TransactionStatus expected = transaction.getStatus();
+        if (!isClaimable(expected)) {
+            lost.increment();
+            throw new ClaimLostException("Transaction " + transaction.getTransactionId() + " is already " + expected);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated = transactionRepository.compareAndSetStatus(transaction.getId(), transaction.getCreatedAt(),
+            expected, TransactionStatus.LOCKED, transaction.getVersion(), now);
+        if (updated == 0) {
+            throw new OptimisticLockingFailureException("Transaction " + transaction.getTransactionId()
+                + " changed since version " + transaction.getVersion());
+        }
+        transaction.setStatus(TransactionStatus.LOCKED);
+        transaction.setVersion(transaction.getVersion() + 1);
+        transaction.setUpdatedAt(now);
+    }
+
+    /**
+     * Adopt the stored status and version before the next attempt
+     */
+    private void refresh(Transaction transaction) {
+        Transaction current = transactionRepository
+            .findByIdAndCreatedAt(transaction.getId(), transaction.getCreatedAt()).orElse(null);
+        if (current == null) {
+            lost.increment();
+            throw new ClaimLostException("Transaction " + transaction.getTransactionId() + " is gone");
+        }
+        transaction.setStatus(current.getStatus());
+        transaction.setVersion(current.getVersion());
+        transaction.setRetryCount(current.getRetryCount());
+    }
+
+    /**
+     * Full jitter: a uniform wait up to an exponentially growing cap, so
+     * contenders that collided once do not collide again in lockstep
+     */
+    private void backoff(int attempt) {
+        long cap = Math.min(maxBackoffMs, backoffMs << Math.min(attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(cap + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OptimisticLockingFailureException("Interrupted while backing off a contended claim");
+        }
+    }
+
+    /**
+     * PROCESSING and LOCKED belong to another processor, COMPLETED and the
+     * other terminal states except FAILED are final
+     */
+    private static boolean isClaimable(TransactionStatus status) {
+        return status == TransactionStatus.PENDING || status == TransactionStatus.FAILED;
+    }
+
+    private static Counter claims(String outcome, MeterRegistry registry) {
+        return Counter.builder("transaction.optimistic.claims")
+            .description("Optimistic claims of stored transactions, by outcome")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    private static Counter conflicts(String phase, MeterRegistry registry) {
+        return Counter.builder("transaction.optimistic.conflicts")
+            .description("Writes rejected because the row's version had moved on")
+            .tag("phase", phase)
+            .register(registry);
+    }
+
+    /**
+     * Raised when another processor has taken or settled the transaction
+     */
+    public static class ClaimLostException extends RuntimeException {
+        public ClaimLostException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.transactionengine.transaction.service.optimistic;
+
+/**
+ * Concurrency control for transaction processing, selected with
+ * app.transaction.concurrency.mode
+ */
+public enum ProcessingMode {
+    /**
+     * Both accounts are locked through the distributed lock for the whole
+     * processing of a transaction
+     */
+    LOCKING,
+    /**
+     * No distributed lock; a conditional update on status and version claims
+     * the row, and conflicts are retried
+     */
+    OPTIMISTIC
+}
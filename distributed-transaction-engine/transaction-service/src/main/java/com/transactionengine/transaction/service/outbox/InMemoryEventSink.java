@@ -0,0 +1,38 @@
+package com.transactionengine.transaction.service.outbox;
+
+import com.transactionengine.transaction.model.OutboxEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recently published events in memory, for local runs and tests
+ */
+public class InMemoryEventSink implements OutboxEventSink {
+
+    private final int capacity;
+    private final Deque<OutboxEvent> events = new ArrayDeque<>();
+
+    public InMemoryEventSink(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        for (OutboxEvent event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    /**
+     * Published events still held, oldest first
+     */
+    public synchronized List<OutboxEvent> recent() {
+        return new ArrayList<>(events);
+    }
+}
@@ -0,0 +1,19 @@
+package com.transactionengine.transaction.service.outbox;
+
+import com.transactionengine.transaction.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Outbox Event Sink
+ * Destination the outbox relay publishes to. Define a bean of this type to
+ * replace the sink selected by app.transaction.outbox.sink.
+ */
+public interface OutboxEventSink {
+
+    /**
+     * Publish a batch of events in order. Returning normally means every event
+     * was accepted; throwing leaves the whole batch in the outbox for the next attempt.
+     */
+    void publish(List<OutboxEvent> events) throws Exception;
+}
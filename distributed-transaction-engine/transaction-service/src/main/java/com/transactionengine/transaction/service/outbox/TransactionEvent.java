@@ -0,0 +1,27 @@
+package com.transactionengine.transaction.service.outbox;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Event published for one account side of a transaction. Delivery is at least
+ * once; eventId is stable across redeliveries, so consumers can deduplicate on it.
+ *
+ * @param direction DEBIT for the source account, CREDIT for the destination
+ * @param sequence  Position in the account's event stream, gap-free and in commit
+ *                  order; null where the database has no outbox sequence (H2)
+ */
+public record TransactionEvent(
+    String eventId,
+    String eventType,
+    String transactionId,
+    String accountId,
+    String counterpartyAccountId,
+    String direction,
+    BigDecimal amount,
+    String currency,
+    String transactionType,
+    LocalDateTime occurredAt,
+    Long sequence
+) {
+}
@@ -0,0 +1,154 @@
+package com.transactionengine.transaction.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Transaction Outbox
+ *
+ * Writes the events for settled transactions into the outbox table, as one
+ * JDBC batch inside the caller's database transaction, so an event exists
+ * exactly when the status change it describes has committed. Each completed
+ * transaction yields a DEBIT event for the source account and a CREDIT event
+ * for the destination, so every account sees its own ordered stream.
+ *
+ * The outbox id is assigned at insert, not at commit, so on its own it does
+ * not order events across concurrent writers. On Postgres each write first
+ * bumps the per-account rows in transaction_outbox_sequence, in account order
+ * to rule out deadlocks. The row locks are held until commit, so writers of
+ * one account commit one after another, on any node, and the sequence and
+ * the id of that account's events both follow commit order.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionOutbox {
+
+    static final String COMPLETED_EVENT = "TRANSACTION_COMPLETED";
+
+    private static final String INSERT_SQL = "INSERT INTO transaction_outbox "
+        + "(account_id, account_seq, event_type, transaction_id, payload, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String RESERVE_SQL = "INSERT INTO transaction_outbox_sequence (account_id, last_seq) "
+        + "SELECT * FROM unnest(?::varchar[], ?::bigint[]) ORDER BY 1 "
+        + "ON CONFLICT (account_id) DO UPDATE "
+        + "SET last_seq = transaction_outbox_sequence.last_seq + EXCLUDED.last_seq "
+        + "RETURNING account_id, last_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final DataSource dataSource;
+
+    private boolean postgres;
+
+    @PostConstruct
+    public void init() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = connection.isWrapperFor(PGConnection.class);
+        }
+    }
+
+    /**
+     * Add events for the completed transactions among those just written
+     *
+     * @param transactions Transactions saved in the current database transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(List<Transaction> transactions) {
+        List<Side> sides = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getStatus() != TransactionStatus.COMPLETED) {
+                continue;
+            }
+            sides.add(new Side(transaction, transaction.getAccountFrom(), transaction.getAccountTo(), "DEBIT"));
+            if (!transaction.getAccountTo().equals(transaction.getAccountFrom())) {
+                sides.add(new Side(transaction, transaction.getAccountTo(), transaction.getAccountFrom(), "CREDIT"));
+            }
+        }
+        if (sides.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> nextSequence = postgres ? reserveSequences(sides) : Map.of();
+        List<Object[]> rows = new ArrayList<>(sides.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Side side : sides) {
+            Long sequence = postgres ? nextSequence.merge(side.account(), 1L, Long::sum) - 1 : null;
+            rows.add(row(side, sequence, now));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * Advance the sequence of every account by its number of events, locking
+     * the accounts' rows in account order
+     *
+     * @return First reserved sequence number per account
+     */
+    private Map<String, Long> reserveSequences(List<Side> sides) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Side side : sides) {
+            counts.merge(side.account(), 1L, Long::sum);
+        }
+        Map<String, Long> first = new HashMap<>(counts.size() * 2);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(RESERVE_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar", counts.keySet().toArray()));
+            statement.setArray(2, connection.createArrayOf("bigint", counts.values().toArray()));
+            return statement;
+        }, resultSet -> {
+            String account = resultSet.getString(1);
+            first.put(account, resultSet.getLong(2) - counts.get(account) + 1);
+        });
+        return first;
+    }
+
+    private Object[] row(Side side, Long sequence, Timestamp now) {
+        Transaction transaction = side.transaction();
+        String account = side.account();
+        String direction = side.direction();
+        TransactionEvent event = new TransactionEvent(
+            transaction.getTransactionId() + ":" + direction,
+            COMPLETED_EVENT,
+            transaction.getTransactionId(),
+            account,
+            side.counterparty(),
+            direction,
+            transaction.getAmount(),
+            transaction.getCurrency(),
+            transaction.getType().name(),
+            transaction.getCompletedAt(),
+            sequence);
+        try {
+            return new Object[] {
+                account, sequence, COMPLETED_EVENT, transaction.getTransactionId(),
+                objectMapper.writeValueAsString(event), now
+            };
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize event for " + transaction.getTransactionId(), e);
+        }
+    }
+
+    private record Side(Transaction transaction, String account, String counterparty, String direction) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.transactionengine.transaction.service.outbox;
+
+import com.transactionengine.transaction.model.OutboxEvent;
+import com.transactionengine.transaction.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction Outbox Relay
+ *
+ * Publishes outbox events to the configured sink in batches, oldest first,
+ * and deletes them once the sink has accepted them. A failed batch stays in
+ * the outbox and is retried as a whole, so no later event of an account
+ * overtakes an earlier one. Delivery is at least once: a crash between
+ * publishing and deleting publishes the batch again.
+ *
+ * On Postgres every poll takes a transaction-scoped advisory lock, so only
+ * one node relays at a time. Ordering by id is safe per account because
+ * TransactionOutbox serializes the writers of an account on its sequence row:
+ * a committed event of an account can never be followed by a lower id of the
+ * same account committing later. Across accounts ids may still commit out of
+ * order, which no consumer relies on.
+ */
+@Component
+@ConditionalOnProperty(name = "app.transaction.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+@RequiredArgsConstructor
+public class TransactionOutboxRelay {
+
+    private static final long ADVISORY_LOCK_KEY = 0x7478_6f75_7462L;
+
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxEventSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.transaction.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.transaction.outbox.poll-interval-ms:200}")
+    private long pollIntervalMs;
+
+    private ScheduledExecutorService relay;
+    private boolean postgres;
+    private Counter published;
+    private Counter failures;
+    private Timer deliveryLag;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = connection.isWrapperFor(PGConnection.class);
+        }
+        published = Counter.builder("transaction.outbox.published")
+            .description("Outbox events accepted by the sink")
+            .register(meterRegistry);
+        failures = Counter.builder("transaction.outbox.publish.failures")
+            .description("Outbox batches the sink rejected; they are retried")
+            .register(meterRegistry);
+        deliveryLag = Timer.builder("transaction.outbox.delivery.lag")
+            .description("Time from writing an outbox event to the sink accepting it")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+
+        relay = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("txn-outbox-relay-"));
+        relay.scheduleWithFixedDelay(this::drain, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Outbox relay started: batches of {} to {}", batchSize, sink.getClass().getSimpleName());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (relay != null) {
+            relay.shutdown();
+            relay.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Relay batches until the outbox is drained or a batch fails
+     */
+    void drain() {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize && !relay.isShutdown());
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Outbox relay batch failed; it will be retried", e);
+        }
+    }
+
+    private int relayBatch() {
+        return transactionTemplate.execute(status -> {
+            if (postgres && !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY))) {
+                return 0;
+            }
+            List<OutboxEvent> events = outboxRepository.findOldest(PageRequest.of(0, batchSize));
+            if (events.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                sink.publish(events);
+            } catch (Exception e) {
+                throw new OutboxPublishException("Sink rejected " + events.size() + " outbox events", e);
+            }
+            outboxRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+
+            LocalDateTime now = LocalDateTime.now();
+            for (OutboxEvent event : events) {
+                deliveryLag.record(Duration.between(event.getCreatedAt(), now));
+            }
+            published.increment(events.size());
+            return events.size();
+        });
+    }
+
+    public static class OutboxPublishException extends RuntimeException {
+        public OutboxPublishException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.transactionengine.transaction.service.partition;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Transaction Partition Manager
+ *
+ * Keeps the monthly partitions of the transactions table (see
+ * V1__partition_transactions.sql) in shape:
+ * 1. Partitions are created premake-months ahead of the current month, so
+ *    inserts never run out of range.
+ * 2. Partitions that ended more than retention-months ago are detached
+ *    concurrently, then moved to the archive schema or dropped. Either way
+ *    their rows' transaction_keys entries are deleted, in batches.
+ *
+ * Runs at startup and on a cron. Nodes take a Postgres advisory lock first,
+ * so only one of them does the work. Does nothing on databases other than
+ * Postgres, such as H2 in the local profile.
+ */
+@Component
+@ConditionalOnProperty(name = "app.transaction.partitions.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+@RequiredArgsConstructor
+public class TransactionPartitionManager {
+
+    private static final String PARENT_TABLE = "transactions";
+    private static final long ADVISORY_LOCK_KEY = 0x7478_7061_7274L;
+    private static final Pattern RANGE_BOUND = Pattern.compile("FOR VALUES FROM \\((.+)\\) TO \\((.+)\\)");
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final int KEY_DELETE_BATCH = 10_000;
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.transaction.partitions.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${app.transaction.partitions.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${app.transaction.partitions.archive-schema:archive}")
+    private String archiveSchema;
+
+    @Value("${app.transaction.partitions.drop-expired:false}")
+    private boolean dropExpired;
+
+    private final AtomicInteger attachedPartitions = new AtomicInteger();
+    private volatile boolean postgres;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = connection.isWrapperFor(PGConnection.class);
+        } catch (SQLException e) {
+            log.error("Could not inspect the database; transaction partitions are not managed", e);
+            return;
+        }
+        if (!postgres) {
+            log.info("Database is not Postgres; transaction partitions are not managed");
+            return;
+        }
+        Gauge.builder("transaction.partitions", attachedPartitions, AtomicInteger::get)
+            .description("Partitions attached to the transactions table")
+            .register(meterRegistry);
+        maintain();
+    }
+
+    /**
+     * Create upcoming partitions and retire expired ones
+     */
+    @Scheduled(cron = "${app.transaction.partitions.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        if (!postgres) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            // DETACH ... CONCURRENTLY refuses to run inside a transaction block
+            connection.setAutoCommit(true);
+            if (!tryLock(connection)) {
+                log.debug("Partition maintenance is running on another node");
+                return;
+            }
+            try {
+                List<Partition> partitions = partitions(connection);
+                createUpcoming(connection, partitions);
+                retireExpired(connection, partitions);
+                attachedPartitions.set(partitions(connection).size());
+            } finally {
+                unlock(connection);
+            }
+        } catch (SQLException e) {
+            log.error("Transaction partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Ranges of created_at the attached partitions accept, keyed by their
+     * inclusive start and mapped to their exclusive end. Retired months leave
+     * gaps, and nothing past the last premade partition is accepted.
+     *
+     * @return The ranges, or empty if the table is not partitioned (not Postgres)
+     */
+    public Optional<NavigableMap<LocalDateTime, LocalDateTime>> acceptedRanges() throws SQLException {
+        if (!postgres) {
+            return Optional.empty();
+        }
+        NavigableMap<LocalDateTime, LocalDateTime> ranges = new TreeMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            for (Partition partition : partitions(connection)) {
+                if (!partition.detachPending()) {
+                    ranges.put(partition.from(), partition.to());
+                }
+            }
+        }
+        return Optional.of(ranges);
+    }
+
+    private void createUpcoming(Connection connection, List<Partition> partitions) throws SQLException {
+        LocalDateTime end = partitions.stream()
+            .map(Partition::to)
+            .max(LocalDateTime::compareTo)
+            .orElseThrow(() -> new SQLException("Table " + PARENT_TABLE + " has no range partitions"));
+        LocalDateTime horizon = LocalDate.now().withDayOfMonth(1).plusMonths(premakeMonths + 1L).atStartOfDay();
+
+        try (Statement statement = connection.createStatement()) {
+            while (end.isBefore(horizon)) {
+                LocalDateTime next = end.plusMonths(1);
+                String name = PARENT_TABLE + "_" + MONTH_SUFFIX.format(end);
+                statement.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + PARENT_TABLE
+                    + " FOR VALUES FROM ('" + end + "') TO ('" + next + "')");
+                log.info("Created transaction partition {} for [{}, {})", name, end, next);
+                end = next;
+            }
+        }
+    }
+
+    private void retireExpired(Connection connection, List<Partition> partitions) throws SQLException {
+        LocalDateTime cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths).atStartOfDay();
+
+        try (Statement statement = connection.createStatement()) {
+            for (Partition partition : partitions) {
+                if (partition.to().isAfter(cutoff)) {
+                    continue;
+                }
+                // A detach interrupted on an earlier run only needs finalizing
+                statement.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition.name()
+                    + (partition.detachPending() ? " FINALIZE" : " CONCURRENTLY"));
+
+                if (dropExpired) {
+                    statement.execute("DROP TABLE " + partition.name());
+                    log.info("Dropped expired transaction partition {}", partition.name());
+                } else {
+                    statement.execute("CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+                    statement.execute("ALTER TABLE " + partition.name() + " SET SCHEMA " + archiveSchema);
+                    log.info("Archived expired transaction partition {} to schema {}", partition.name(), archiveSchema);
+                }
+                deleteKeys(statement, partition);
+            }
+        }
+    }
+
+    /**
+     * Delete the transaction_keys entries of a retired partition, one short
+     * autocommitted batch at a time so the key table is never locked for long
+     */
+    private void deleteKeys(Statement statement, Partition partition) throws SQLException {
+        long deleted = 0;
+        int batch;
+        do {
+            batch = statement.executeUpdate("DELETE FROM transaction_keys WHERE ctid = ANY (ARRAY("
+                + "SELECT ctid FROM transaction_keys WHERE created_at < '" + partition.to() + "' "
+                + "LIMIT " + KEY_DELETE_BATCH + "))");
+            deleted += batch;
+        } while (batch == KEY_DELETE_BATCH);
+        log.info("Deleted {} transaction keys of retired partition {}", deleted, partition.name());
+    }
+
+    private List<Partition> partitions(Connection connection) throws SQLException {
+        List<Partition> partitions = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(
+                 "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid), i.inhdetachpending "
+                     + "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                     + "WHERE i.inhparent = '" + PARENT_TABLE + "'::regclass")) {
+            while (rows.next()) {
+                Matcher bound = RANGE_BOUND.matcher(rows.getString(2));
+                if (bound.matches()) {
+                    partitions.add(new Partition(rows.getString(1), parseBound(bound.group(1)),
+                        parseBound(bound.group(2)), rows.getBoolean(3)));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private static LocalDateTime parseBound(String literal) {
+        if (literal.equals("MINVALUE")) {
+            return LocalDateTime.MIN;
+        }
+        if (literal.equals("MAXVALUE")) {
+            return LocalDateTime.MAX;
+        }
+        // Bounds come back as quoted timestamps, e.g. '2026-11-01 00:00:00'
+        return LocalDateTime.parse(literal.substring(1, literal.length() - 1).replace(' ', 'T'));
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT pg_try_advisory_lock(" + ADVISORY_LOCK_KEY + ")")) {
+            return rows.next() && rows.getBoolean(1);
+        }
+    }
+
+    private static void unlock(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT pg_advisory_unlock(" + ADVISORY_LOCK_KEY + ")");
+        }
+    }
+
+    /**
+     * Attached partition and its range, from inclusive to exclusive
+     */
+    private record Partition(String name, LocalDateTime from, LocalDateTime to, boolean detachPending) {
+    }
+}
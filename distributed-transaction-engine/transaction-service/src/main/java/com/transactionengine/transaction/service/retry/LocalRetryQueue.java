@@ -0,0 +1,87 @@
+package com.transactionengine.transaction.service.retry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * In-process retry queue ordered by due time, for single-node runs and tests.
+ * Dead-lettered payloads are kept in memory as well.
+ */
+public class LocalRetryQueue implements RetryQueue {
+
+    private final TreeSet<Entry> byDueTime = new TreeSet<>(
+        Comparator.comparingLong(Entry::dueAtMillis).thenComparing(Entry::transactionId));
+    private final Map<String, Entry> byTransactionId = new HashMap<>();
+    private final Map<String, String> deadLetters = new HashMap<>();
+
+    @Override
+    public synchronized void schedule(String transactionId, String payload, long dueAtMillis) {
+        remove(transactionId);
+        put(new Entry(transactionId, payload, dueAtMillis));
+    }
+
+    @Override
+    public synchronized List<RetryItem> pollDue(long nowMillis, int max, long leaseUntilMillis) {
+        List<Entry> due = new ArrayList<>(Math.min(max, byDueTime.size()));
+        Iterator<Entry> entries = byDueTime.iterator();
+        while (due.size() < max && entries.hasNext()) {
+            Entry entry = entries.next();
+            if (entry.dueAtMillis() > nowMillis) {
+                break;
+            }
+            due.add(entry);
+        }
+
+        List<RetryItem> items = new ArrayList<>(due.size());
+        for (Entry entry : due) {
+            remove(entry.transactionId());
+            put(new Entry(entry.transactionId(), entry.payload(), leaseUntilMillis));
+            items.add(new RetryItem(entry.transactionId(), entry.payload(), entry.dueAtMillis(), leaseUntilMillis));
+        }
+        return items;
+    }
+
+    @Override
+    public synchronized void acknowledge(RetryItem item) {
+        Entry current = byTransactionId.get(item.transactionId());
+        if (current != null && current.dueAtMillis() == item.leaseUntilMillis()) {
+            remove(item.transactionId());
+        }
+    }
+
+    @Override
+    public synchronized void deadLetter(String transactionId, String payload) {
+        remove(transactionId);
+        deadLetters.put(transactionId, payload);
+    }
+
+    @Override
+    public synchronized long size() {
+        return byTransactionId.size();
+    }
+
+    @Override
+    public synchronized long deadLetterSize() {
+        return deadLetters.size();
+    }
+
+    private void put(Entry entry) {
+        byTransactionId.put(entry.transactionId(), entry);
+        byDueTime.add(entry);
+    }
+
+    private void remove(String transactionId) {
+        Entry previous = byTransactionId.remove(transactionId);
+        if (previous != null) {
+            byDueTime.remove(previous);
+        }
+    }
+
+    private record Entry(String transactionId, String payload, long dueAtMillis) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.transactionengine.transaction.service.retry;
+
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Retry queue in Redis, shared by all nodes: a sorted set of transaction IDs
+ * scored by due time, a hash of payloads, and a hash of dead-lettered payloads.
+ * Every operation is a single Lua script, so concurrent pollers never lease
+ * the same item.
+ */
+public class RedisRetryQueue implements RetryQueue {
+
+    // One hash tag, so all keys live in the same slot on Redis Cluster
+    private static final String QUEUE_KEY = "{transaction:retry}:queue";
+    private static final String PAYLOADS_KEY = "{transaction:retry}:payloads";
+    private static final String DEAD_LETTER_KEY = "{transaction:retry}:dead";
+
+    /**
+     * KEYS[1] = queue, KEYS[2] = payloads; ARGV[1] = id, ARGV[2] = payload, ARGV[3] = due time
+     */
+    private static final String SCHEDULE_SCRIPT = """
+        redis.call('zadd', KEYS[1], ARGV[3], ARGV[1])
+        redis.call('hset', KEYS[2], ARGV[1], ARGV[2])
+        return 1
+        """;
+
+    /**
+     * Leases due items by moving their score to the lease end.
+     * KEYS[1] = queue, KEYS[2] = payloads; ARGV[1] = now, ARGV[2] = max, ARGV[3] = lease end.
+     * Returns id, due time and payload for each item.
+     */
+    private static final String POLL_SCRIPT = """
+        local due = redis.call('zrangebyscore', KEYS[1], '-inf', ARGV[1], 'WITHSCORES', 'LIMIT', 0, tonumber(ARGV[2]))
+        local result = {}
+        for i = 1, #due, 2 do
+            redis.call('zadd', KEYS[1], ARGV[3], due[i])
+            table.insert(result, due[i])
+            table.insert(result, due[i + 1])
+            table.insert(result, redis.call('hget', KEYS[2], due[i]) or '')
+        end
+        return result
+        """;
+
+    /**
+     * Removes the item only if it still carries the lease it was polled under.
+     * KEYS[1] = queue, KEYS[2] = payloads; ARGV[1] = id, ARGV[2] = lease end
+     */
+    private static final String ACKNOWLEDGE_SCRIPT = """
+        if tonumber(redis.call('zscore', KEYS[1], ARGV[1]) or '-1') ~= tonumber(ARGV[2]) then
+            return 0
+        end
+        redis.call('zrem', KEYS[1], ARGV[1])
+        redis.call('hdel', KEYS[2], ARGV[1])
+        return 1
+        """;
+
+    /**
+     * KEYS[1] = queue, KEYS[2] = payloads, KEYS[3] = dead letters; ARGV[1] = id, ARGV[2] = payload
+     */
+    private static final String DEAD_LETTER_SCRIPT = """
+        redis.call('zrem', KEYS[1], ARGV[1])
+        redis.call('hdel', KEYS[2], ARGV[1])
+        redis.call('hset', KEYS[3], ARGV[1], ARGV[2])
+        return 1
+        """;
+
+    private final RedissonClient redissonClient;
+
+    public RedisRetryQueue(RedissonClient redissonClient) {
+        this.redissonClient = redissonClient;
+    }
+
+    @Override
+    public void schedule(String transactionId, String payload, long dueAtMillis) {
+        script().eval(RScript.Mode.READ_WRITE, SCHEDULE_SCRIPT, RScript.ReturnType.INTEGER,
+            List.of(QUEUE_KEY, PAYLOADS_KEY), transactionId, payload, String.valueOf(dueAtMillis));
+    }
+
+    @Override
+    public List<RetryItem> pollDue(long nowMillis, int max, long leaseUntilMillis) {
+        List<Object> flat = script().eval(RScript.Mode.READ_WRITE, POLL_SCRIPT, RScript.ReturnType.MULTI,
+            List.of(QUEUE_KEY, PAYLOADS_KEY),
+            String.valueOf(nowMillis), String.valueOf(max), String.valueOf(leaseUntilMillis));
+
+        List<RetryItem> items = new ArrayList<>(flat.size() / 3);
+        for (int i = 0; i + 2 < flat.size(); i += 3) {
+            items.add(new RetryItem(
+                String.valueOf(flat.get(i)),
+                String.valueOf(flat.get(i + 2)),
+                (long) Double.parseDouble(String.valueOf(flat.get(i + 1))),
+                leaseUntilMillis));
+        }
+        return items;
+    }
+
+    @Override
+    public void acknowledge(RetryItem item) {
+        script().eval(RScript.Mode.READ_WRITE, ACKNOWLEDGE_SCRIPT, RScript.ReturnType.INTEGER,
+            List.of(QUEUE_KEY, PAYLOADS_KEY), item.transactionId(), String.valueOf(item.leaseUntilMillis()));
+    }
+
+    @Override
+    public void deadLetter(String transactionId, String payload) {
+        script().eval(RScript.Mode.READ_WRITE, DEAD_LETTER_SCRIPT, RScript.ReturnType.INTEGER,
+            List.of(QUEUE_KEY, PAYLOADS_KEY, DEAD_LETTER_KEY), transactionId, payload);
+    }
+
+    @Override
+    public long size() {
+        return redissonClient.getScoredSortedSet(QUEUE_KEY, StringCodec.INSTANCE).size();
+    }
+
+    @Override
+    public long deadLetterSize() {
+        return redissonClient.getMap(DEAD_LETTER_KEY, StringCodec.INSTANCE).size();
+    }
+
+    private RScript script() {
+        return redissonClient.getScript(StringCodec.INSTANCE);
+    }
+}
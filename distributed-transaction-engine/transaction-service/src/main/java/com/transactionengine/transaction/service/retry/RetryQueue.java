@@ -0,0 +1,56 @@
+package com.transactionengine.transaction.service.retry;
+
+import java.util.List;
+
+/**
+ * Retry Queue
+ * Transactions waiting for another processing attempt, ordered by the time
+ * the attempt is due. Polled items are leased rather than removed, so an item
+ * whose node dies before acknowledging it becomes due again.
+ */
+public interface RetryQueue {
+
+    /**
+     * Add or replace the item for a transaction
+     *
+     * @param transactionId Transaction the payload belongs to
+     * @param payload Serialized transaction
+     * @param dueAtMillis Epoch millis at which the next attempt is due
+     */
+    void schedule(String transactionId, String payload, long dueAtMillis);
+
+    /**
+     * Lease up to max items that are due, oldest first
+     *
+     * @param nowMillis Current epoch millis
+     * @param max Maximum number of items to return
+     * @param leaseUntilMillis Epoch millis at which unacknowledged items become due again
+     */
+    List<RetryItem> pollDue(long nowMillis, int max, long leaseUntilMillis);
+
+    /**
+     * Remove a leased item, unless it has been rescheduled since it was polled
+     */
+    void acknowledge(RetryItem item);
+
+    /**
+     * Move a transaction out of the queue into the dead-letter store
+     */
+    void deadLetter(String transactionId, String payload);
+
+    /**
+     * Number of items waiting or leased
+     */
+    long size();
+
+    /**
+     * Number of items in the dead-letter store
+     */
+    long deadLetterSize();
+
+    /**
+     * A leased item, with the time it was due and the lease it was polled under
+     */
+    record RetryItem(String transactionId, String payload, long dueAtMillis, long leaseUntilMillis) {
+    }
+}
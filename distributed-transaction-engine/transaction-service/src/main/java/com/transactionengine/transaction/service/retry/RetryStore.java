@@ -0,0 +1,12 @@
+package com.transactionengine.transaction.service.retry;
+
+/**
+ * Retry Store
+ * Selects the RetryQueue backing TransactionRetryScheduler
+ */
+public enum RetryStore {
+    /** Sorted set in Redis, shared by all nodes and surviving restarts */
+    REDIS,
+    /** In-process queue for single-node runs and tests; lost on restart */
+    LOCAL
+}
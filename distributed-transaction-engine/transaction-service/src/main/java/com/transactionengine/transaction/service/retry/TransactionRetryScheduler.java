@@ -0,0 +1,246 @@
+package com.transactionengine.transaction.service.retry;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.service.TransactionPipeline;
+import com.transactionengine.transaction.service.TransactionProcessingService;
+import com.transactionengine.transaction.service.TransactionWriteBehindBuffer;
+import com.transactionengine.transaction.service.cache.TransactionReadCache;
+import com.transactionengine.transaction.service.retry.RetryQueue.RetryItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transaction Retry Scheduler
+ *
+ * Retries transactions that were rejected before they could be processed,
+ * e.g. by the open circuit breaker or a lock timeout, and so never reached
+ * the database. Each is kept in the retry queue, due after an exponential
+ * backoff with jitter. A poller thread leases due items in batches, sized to
+ * the free pipeline capacity, and runs them through processTransaction again.
+ * Transactions that reach app.transaction.max-retries go to the dead-letter
+ * store and are recorded as FAILED.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TransactionRetryScheduler {
+
+    private final RetryQueue retryQueue;
+    private final TransactionProcessingService processingService;
+    private final TransactionPipeline pipeline;
+    private final TransactionWriteBehindBuffer writeBehindBuffer;
+    private final TransactionReadCache readCache;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.transaction.max-retries:5}")
+    private int maxRetries;
+
+    @Value("${app.transaction.retry.initial-delay-ms:1000}")
+    private long initialDelayMs;
+
+    @Value("${app.transaction.retry.multiplier:2.0}")
+    private double multiplier;
+
+    @Value("${app.transaction.retry.max-delay-ms:300000}")
+    private long maxDelayMs;
+
+    @Value("${app.transaction.retry.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.transaction.retry.poll-interval-ms:500}")
+    private long pollIntervalMs;
+
+    @Value("${app.transaction.retry.lease-ms:60000}")
+    private long leaseMs;
+
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong deadLetterDepth = new AtomicLong();
+    private ScheduledExecutorService poller;
+    private Counter scheduled;
+    private Counter attempted;
+    private Counter deadLettered;
+    private Counter unqueued;
+    private Timer lateness;
+
+    @PostConstruct
+    public void init() {
+        scheduled = Counter.builder("transaction.retry.scheduled")
+            .description("Transactions put on the retry queue")
+            .register(meterRegistry);
+        attempted = Counter.builder("transaction.retry.attempts")
+            .description("Retry attempts started from the retry queue")
+            .register(meterRegistry);
+        deadLettered = Counter.builder("transaction.retry.dead-lettered")
+            .description("Transactions moved to the dead-letter store")
+            .register(meterRegistry);
+        unqueued = Counter.builder("transaction.retry.unqueued")
+            .description("Failed transactions that could not be queued and were recorded as FAILED instead")
+            .register(meterRegistry);
+        lateness = Timer.builder("transaction.retry.lateness")
+            .description("Delay between an attempt falling due and being picked up")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        Gauge.builder("transaction.retry.depth", depth, AtomicLong::get)
+            .description("Transactions waiting in the retry queue")
+            .register(meterRegistry);
+        Gauge.builder("transaction.retry.dead-letter.depth", deadLetterDepth, AtomicLong::get)
+            .description("Transactions in the dead-letter store")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        poller = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("txn-retry-poller-"));
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (poller != null) {
+            poller.shutdown();
+            poller.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Queue a failed transaction for its next attempt, or dead-letter it if it
+     * has no retries left. Never throws; a transaction that cannot be queued is
+     * recorded as FAILED instead, where the work queue's retry claim picks it up.
+     *
+     * @param transaction Failed transaction, with retryCount already incremented
+     */
+    public void enqueue(Transaction transaction) {
+        try {
+            String payload = objectMapper.writeValueAsString(transaction);
+            if (transaction.getRetryCount() >= maxRetries) {
+                deadLetter(transaction, payload);
+                return;
+            }
+            long delay = backoff(transaction.getRetryCount());
+            retryQueue.schedule(transaction.getTransactionId(), payload, System.currentTimeMillis() + delay);
+            scheduled.increment();
+            log.info("Transaction {} queued for retry {} in {} ms",
+                transaction.getTransactionId(), transaction.getRetryCount(), delay);
+        } catch (Exception e) {
+            log.error("Could not queue transaction {} for retry; recording it as FAILED",
+                transaction.getTransactionId(), e);
+            recordUnqueued(transaction);
+        }
+    }
+
+    /**
+     * Persist a transaction the retry queue would not take, so it is not lost
+     * with this node's memory
+     */
+    private void recordUnqueued(Transaction transaction) {
+        unqueued.increment();
+        readCache.update(transaction);
+        // Merge path: the transaction may already have a stored row
+        writeBehindBuffer.writeAll(List.of(transaction)).get(0).exceptionally(e -> {
+            log.error("Failed to record unqueued transaction {}", transaction.getTransactionId(), e);
+            return null;
+        });
+    }
+
+    /**
+     * Lease due items and resubmit them, batch after batch, while the pipeline has room
+     */
+    void poll() {
+        try {
+            List<RetryItem> due;
+            do {
+                int capacity = Math.min(batchSize, pipeline.freeCapacity());
+                if (capacity <= 0) {
+                    break;
+                }
+                long now = System.currentTimeMillis();
+                due = retryQueue.pollDue(now, capacity, now + leaseMs);
+                for (RetryItem item : due) {
+                    lateness.record(Math.max(0, now - item.dueAtMillis()), TimeUnit.MILLISECONDS);
+                    retry(item);
+                }
+            } while (due.size() == batchSize && !poller.isShutdown());
+
+            depth.set(retryQueue.size());
+            deadLetterDepth.set(retryQueue.deadLetterSize());
+        } catch (Exception e) {
+            log.error("Retry queue poll failed", e);
+        }
+    }
+
+    private void retry(RetryItem item) {
+        Transaction transaction;
+        try {
+            transaction = objectMapper.readValue(item.payload(), Transaction.class);
+        } catch (JsonProcessingException e) {
+            log.error("Unreadable retry payload for transaction {}; dead-lettering it", item.transactionId(), e);
+            retryQueue.deadLetter(item.transactionId(), item.payload());
+            deadLettered.increment();
+            return;
+        }
+
+        attempted.increment();
+        try {
+            // A failed attempt re-enqueues through the fallback, which replaces the
+            // lease, so acknowledging afterwards only removes settled items
+            pipeline.submit(() -> processingService.processTransaction(transaction))
+                .whenComplete((result, ex) -> acknowledge(item));
+        } catch (TransactionPipeline.PipelineSaturatedException e) {
+            log.debug("Pipeline saturated; transaction {} is retried when its lease expires",
+                item.transactionId());
+        }
+    }
+
+    private void acknowledge(RetryItem item) {
+        try {
+            retryQueue.acknowledge(item);
+        } catch (Exception e) {
+            log.warn("Could not acknowledge retry of transaction {}; it will be retried again",
+                item.transactionId(), e);
+        }
+    }
+
+    private void deadLetter(Transaction transaction, String payload) {
+        retryQueue.deadLetter(transaction.getTransactionId(), payload);
+        deadLettered.increment();
+        log.warn("Transaction {} dead-lettered after {} attempts: {}",
+            transaction.getTransactionId(), transaction.getRetryCount(), transaction.getFailureReason());
+
+        // Record the final state, so it outlives the read cache
+        readCache.update(transaction);
+        writeBehindBuffer.submit(transaction).exceptionally(e -> {
+            log.error("Failed to record dead-lettered transaction {}", transaction.getTransactionId(), e);
+            return null;
+        });
+    }
+
+    /**
+     * Exponential backoff with equal jitter: half the delay is fixed, half random
+     */
+    private long backoff(int retryCount) {
+        double exponential = initialDelayMs * Math.pow(multiplier, Math.max(0, retryCount - 1));
+        long delay = (long) Math.min(maxDelayMs, exponential);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+}
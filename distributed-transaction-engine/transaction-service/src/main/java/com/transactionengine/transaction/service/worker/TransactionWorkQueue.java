@@ -0,0 +1,222 @@
+package com.transactionengine.transaction.service.worker;
+
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import com.transactionengine.transaction.repository.TransactionRepository;
+import com.transactionengine.transaction.service.TransactionPipeline;
+import com.transactionengine.transaction.service.TransactionProcessingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transaction Work Queue
+ *
+ * Drains transactions left in the database for background processing:
+ * PENDING rows (e.g. from settlement imports) and FAILED rows with retries left.
+ * 1. One claimer thread per node locks a chunk with FOR UPDATE SKIP LOCKED and
+ *    marks it LOCKED, so nodes never claim the same rows and can be added freely.
+ * 2. The chunk is split into sub-batches that run in parallel on the
+ *    transaction pipeline, through the regular batch processing path.
+ * 3. The next chunk is claimed once the current one has settled.
+ *
+ * Claims are leases: rows still LOCKED after claim-lease-ms, because their
+ * node died or the circuit breaker dropped them, are claimed again.
+ */
+@Component
+@ConditionalOnProperty(name = "app.transaction.worker.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+@RequiredArgsConstructor
+public class TransactionWorkQueue {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionProcessingService processingService;
+    private final TransactionPipeline pipeline;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.transaction.worker.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${app.transaction.worker.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.transaction.worker.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${app.transaction.worker.retry-delay-ms:30000}")
+    private long retryDelayMs;
+
+    @Value("${app.transaction.worker.claim-lease-ms:60000}")
+    private long claimLeaseMs;
+
+    @Value("${app.transaction.max-retries:5}")
+    private int maxRetries;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private ScheduledExecutorService claimer;
+    private Counter claimedPending;
+    private Counter claimedFailed;
+    private Counter claimedExpired;
+    private Counter completed;
+    private Counter failed;
+    private Timer chunkTimer;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        claimedPending = claimed("pending");
+        claimedFailed = claimed("failed");
+        claimedExpired = claimed("expired-claim");
+        completed = processed("completed");
+        failed = processed("failed");
+        chunkTimer = Timer.builder("transaction.worker.chunk.time")
+            .description("Time to claim and settle one chunk of queued transactions")
+            .register(meterRegistry);
+        Gauge.builder("transaction.worker.lag", lagMillis, lag -> lag.get() / 1000.0)
+            .description("Age in seconds of the oldest PENDING transaction")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+
+        claimer = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("txn-work-claimer-"));
+        claimer.scheduleWithFixedDelay(this::drain, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Transaction work queue started: chunks of {}, {} parallel sub-batches", chunkSize, parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (claimer != null) {
+            claimer.shutdown();
+            claimer.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Claim and process chunks until the queue has nothing more to hand out
+     */
+    void drain() {
+        try {
+            updateLag();
+            int claimedCount;
+            do {
+                if (!hasCapacity()) {
+                    return;
+                }
+                claimedCount = chunkTimer.record(this::processChunk);
+            } while (claimedCount == chunkSize && !claimer.isShutdown());
+        } catch (Exception e) {
+            log.error("Transaction work queue cycle failed", e);
+        }
+    }
+
+    private int processChunk() {
+        List<Transaction> claimed = claim();
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        int subBatchSize = (claimed.size() + parallelism - 1) / parallelism;
+        List<CompletableFuture<List<Transaction>>> results = new ArrayList<>(parallelism);
+        for (int from = 0; from < claimed.size(); from += subBatchSize) {
+            List<Transaction> subBatch = claimed.subList(from, Math.min(from + subBatchSize, claimed.size()));
+            try {
+                results.add(processingService.processBatchTransactions(subBatch));
+            } catch (TransactionPipeline.PipelineSaturatedException e) {
+                // Left LOCKED; claimed again once the lease expires
+                log.warn("Pipeline saturated; {} claimed transactions wait for their lease to expire",
+                    subBatch.size());
+            }
+        }
+
+        for (CompletableFuture<List<Transaction>> result : results) {
+            try {
+                for (Transaction transaction : result.join()) {
+                    (transaction.getStatus() == TransactionStatus.COMPLETED ? completed : failed).increment();
+                }
+            } catch (RuntimeException e) {
+                log.error("Queued transaction sub-batch failed", e);
+            }
+        }
+        return claimed.size();
+    }
+
+    /**
+     * Lock up to one chunk of claimable rows and mark them LOCKED, in one
+     * database transaction. Expired claims go first, then PENDING, then retries.
+     */
+    private List<Transaction> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(status -> {
+            List<Transaction> claimed = new ArrayList<>(chunkSize);
+            claimed.addAll(transactionRepository.findAndLockExpiredClaims(
+                now.minus(Duration.ofMillis(claimLeaseMs)), chunkSize));
+            claimedExpired.increment(claimed.size());
+
+            if (claimed.size() < chunkSize) {
+                List<Transaction> pending = transactionRepository.findAndLockPendingTransactions(
+                    chunkSize - claimed.size());
+                claimedPending.increment(pending.size());
+                claimed.addAll(pending);
+            }
+            if (claimed.size() < chunkSize) {
+                List<Transaction> retries = transactionRepository.findAndLockFailedTransactionsForRetry(
+                    maxRetries, now.minus(Duration.ofMillis(retryDelayMs)), chunkSize - claimed.size());
+                claimedFailed.increment(retries.size());
+                claimed.addAll(retries);
+            }
+
+            // Flushed on commit, which also bumps the version and updatedAt
+            claimed.forEach(transaction -> transaction.setStatus(TransactionStatus.LOCKED));
+            return claimed;
+        });
+    }
+
+    private boolean hasCapacity() {
+        // Request traffic comes first; the queue only takes spare pipeline capacity
+        if (pipeline.freeCapacity() < parallelism) {
+            log.debug("Pipeline busy; skipping work queue cycle");
+            return false;
+        }
+        return true;
+    }
+
+    private void updateLag() {
+        lagMillis.set(transactionRepository.findOldestPendingCreatedAt()
+            .map(oldest -> Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()))
+            .orElse(0L));
+    }
+
+    private Counter claimed(String source) {
+        return Counter.builder("transaction.worker.claimed")
+            .description("Transactions claimed by the background work queue")
+            .tag("source", source)
+            .register(meterRegistry);
+    }
+
+    private Counter processed(String outcome) {
+        return Counter.builder("transaction.worker.processed")
+            .description("Transactions settled by the background work queue")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,113 @@
+-- Transactions, range-partitioned by month on created_at.
+--
+-- Monthly partitions are created ahead of time and detached once they expire
+-- by TransactionPartitionManager. Everything older than the first monthly
+-- partition lives in transactions_history; on a database created by the old
+-- ddl-auto schema, that is the existing table with its rows left in place.
+--
+-- A unique index on a partitioned table must contain the partition key, so
+-- transaction_id uniqueness is enforced by transaction_keys instead. Keys of
+-- retired partitions are deleted with them, so the table stays as large as
+-- the retained partitions; transaction IDs older than that are not checked.
+
+CREATE TABLE transaction_keys (
+    transaction_id VARCHAR(255) NOT NULL,
+    id             VARCHAR(255) NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL,
+    CONSTRAINT transaction_keys_pkey PRIMARY KEY (transaction_id)
+);
+
+-- Lets the partition manager delete the keys of a retired partition by range
+CREATE INDEX transaction_keys_created_at ON transaction_keys (created_at);
+
+DO $$
+DECLARE
+    history_end TIMESTAMP;
+BEGIN
+    IF to_regclass('transactions') IS NOT NULL THEN
+        SELECT date_trunc('month', coalesce(max(created_at), now())) + INTERVAL '1 month'
+          INTO history_end FROM transactions;
+
+        ALTER TABLE transactions RENAME TO transactions_history;
+        -- A partition cannot keep a primary key of its own. The unique index that
+        -- replaces it matches the partitioned primary key and is adopted on attach.
+        IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'transactions_pkey') THEN
+            ALTER TABLE transactions_history DROP CONSTRAINT transactions_pkey;
+        END IF;
+        CREATE UNIQUE INDEX transactions_history_pkey ON transactions_history (id, created_at);
+        -- The account indexes match the partitioned ones and are adopted on attach
+        ALTER INDEX IF EXISTS idx_account_from_created RENAME TO transactions_history_account_from_created;
+        ALTER INDEX IF EXISTS idx_account_to_created RENAME TO transactions_history_account_to_created;
+        ALTER INDEX IF EXISTS idx_transaction_id RENAME TO transactions_history_transaction_id;
+        DROP INDEX IF EXISTS idx_status;
+        DROP INDEX IF EXISTS idx_created_at;
+
+        INSERT INTO transaction_keys (transaction_id, id, created_at)
+        SELECT transaction_id, id, created_at FROM transactions_history;
+    ELSE
+        history_end := date_trunc('month', now());
+    END IF;
+
+    CREATE TABLE transactions (
+        id             VARCHAR(255)   NOT NULL,
+        transaction_id VARCHAR(255)   NOT NULL,
+        account_from   VARCHAR(255)   NOT NULL,
+        account_to     VARCHAR(255)   NOT NULL,
+        amount         NUMERIC(19, 2) NOT NULL,
+        currency       VARCHAR(255)   NOT NULL,
+        type           VARCHAR(255)   NOT NULL,
+        status         VARCHAR(255)   NOT NULL,
+        description    VARCHAR(500),
+        metadata       VARCHAR(1000),
+        created_at     TIMESTAMP(6)   NOT NULL,
+        updated_at     TIMESTAMP(6),
+        completed_at   TIMESTAMP(6),
+        failure_reason VARCHAR(500),
+        retry_count    INTEGER,
+        version        BIGINT,
+        CONSTRAINT transactions_pkey PRIMARY KEY (id, created_at)
+    ) PARTITION BY RANGE (created_at);
+
+    CREATE INDEX idx_transaction_id ON transactions (transaction_id);
+    CREATE INDEX idx_account_from_created ON transactions (account_from, created_at, id);
+    CREATE INDEX idx_account_to_created ON transactions (account_to, created_at, id);
+
+    IF to_regclass('transactions_history') IS NOT NULL THEN
+        ALTER TABLE transactions ATTACH PARTITION transactions_history
+            FOR VALUES FROM (MINVALUE) TO (history_end);
+    ELSE
+        EXECUTE format('CREATE TABLE transactions_history PARTITION OF transactions '
+            'FOR VALUES FROM (MINVALUE) TO (%L)', history_end);
+    END IF;
+
+    -- The first monthly partitions; the partition manager keeps extending them
+    FOR i IN 0..2 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+            'transactions_' || to_char(history_end + make_interval(months => i), 'YYYY_MM'),
+            history_end + make_interval(months => i),
+            history_end + make_interval(months => i + 1));
+    END LOOP;
+END $$;
+
+-- Claims the transaction_id for every inserted row. Bulk loaders may claim
+-- keys up front; a key already claimed by the same row id is accepted.
+CREATE FUNCTION transactions_claim_key() RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO transaction_keys (transaction_id, id, created_at)
+    VALUES (NEW.transaction_id, NEW.id, NEW.created_at)
+    ON CONFLICT (transaction_id) DO NOTHING;
+
+    IF NOT FOUND AND NOT EXISTS (
+        SELECT 1 FROM transaction_keys WHERE transaction_id = NEW.transaction_id AND id = NEW.id
+    ) THEN
+        RAISE EXCEPTION 'duplicate key value violates unique constraint "transaction_keys_pkey"'
+            USING ERRCODE = 'unique_violation',
+                  CONSTRAINT = 'transaction_keys_pkey',
+                  DETAIL = format('Key (transaction_id)=(%s) already exists.', NEW.transaction_id);
+    END IF;
+    RETURN NULL;
+END $$;
+
+CREATE TRIGGER transactions_claim_key
+    AFTER INSERT ON transactions
+    FOR EACH ROW EXECUTE FUNCTION transactions_claim_key();
@@ -0,0 +1,10 @@
+-- Partial indexes for the background work queue (TransactionWorkQueue).
+-- Each covers only the rows in one claimable status, so they stay small
+-- while the table grows, and settled transactions never touch them.
+
+CREATE INDEX idx_transactions_pending ON transactions (created_at) WHERE status = 'PENDING';
+
+CREATE INDEX idx_transactions_failed ON transactions (updated_at) INCLUDE (retry_count) WHERE status = 'FAILED';
+
+-- Claimed rows whose worker may have died; reclaimed once their lease expires
+CREATE INDEX idx_transactions_locked ON transactions (updated_at) WHERE status = 'LOCKED';
@@ -0,0 +1,13 @@
+-- Events waiting to be published by TransactionOutboxRelay. Rows are written
+-- in the same database transaction as the status change they describe and
+-- deleted once the sink has accepted them. The id orders events per account.
+
+CREATE TABLE transaction_outbox (
+    id             BIGSERIAL     NOT NULL,
+    account_id     VARCHAR(255)  NOT NULL,
+    event_type     VARCHAR(64)   NOT NULL,
+    transaction_id VARCHAR(255)  NOT NULL,
+    payload        VARCHAR(2000) NOT NULL,
+    created_at     TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT transaction_outbox_pkey PRIMARY KEY (id)
+);
@@ -0,0 +1,14 @@
+-- Chunks of settlement files already imported (SettlementImportService). A
+-- row is written in the same database transaction as the chunk's rows, so a
+-- re-run of a failed or interrupted import skips exactly the chunks that
+-- committed. Keyed by the SHA-256 of the chunk's bytes, not the file name.
+
+CREATE TABLE settlement_import_chunks (
+    chunk_hash    VARCHAR(64)   NOT NULL,
+    file_name     VARCHAR(255)  NOT NULL,
+    chunk_start   BIGINT        NOT NULL,
+    chunk_end     BIGINT        NOT NULL,
+    rows_inserted BIGINT        NOT NULL,
+    completed_at  TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT settlement_import_chunks_pkey PRIMARY KEY (chunk_hash)
+);
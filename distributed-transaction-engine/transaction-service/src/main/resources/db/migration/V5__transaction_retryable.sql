@@ -0,0 +1,9 @@
+-- Whether a FAILED transaction may be retried by the work queue. Failures
+-- that a retry cannot fix, such as validation errors or insufficient funds,
+-- are recorded as not retryable and are left out of the retry index.
+
+ALTER TABLE transactions ADD COLUMN retryable BOOLEAN NOT NULL DEFAULT TRUE;
+
+DROP INDEX idx_transactions_failed;
+CREATE INDEX idx_transactions_failed ON transactions (updated_at) INCLUDE (retry_count)
+    WHERE status = 'FAILED' AND retryable = TRUE;
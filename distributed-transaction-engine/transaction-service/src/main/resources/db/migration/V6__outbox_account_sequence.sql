@@ -0,0 +1,12 @@
+-- Per-account event sequence for the outbox (TransactionOutbox). The row of
+-- an account is bumped, and so locked, before its events are inserted, so
+-- writers of the same account commit one after another and both the sequence
+-- and the outbox id follow commit order for that account, on every node.
+
+CREATE TABLE transaction_outbox_sequence (
+    account_id VARCHAR(255) NOT NULL,
+    last_seq   BIGINT       NOT NULL,
+    CONSTRAINT transaction_outbox_sequence_pkey PRIMARY KEY (account_id)
+);
+
+ALTER TABLE transaction_outbox ADD COLUMN account_seq BIGINT;
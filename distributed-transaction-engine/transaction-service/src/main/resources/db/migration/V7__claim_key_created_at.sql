@@ -0,0 +1,21 @@
+-- A key already claimed by the same row id is only accepted as the same row
+-- if its created_at matches too. Otherwise a replay whose created_at drifted
+-- from the first write would land in another partition as a second row.
+
+CREATE OR REPLACE FUNCTION transactions_claim_key() RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO transaction_keys (transaction_id, id, created_at)
+    VALUES (NEW.transaction_id, NEW.id, NEW.created_at)
+    ON CONFLICT (transaction_id) DO NOTHING;
+
+    IF NOT FOUND AND NOT EXISTS (
+        SELECT 1 FROM transaction_keys
+        WHERE transaction_id = NEW.transaction_id AND id = NEW.id AND created_at = NEW.created_at
+    ) THEN
+        RAISE EXCEPTION 'duplicate key value violates unique constraint "transaction_keys_pkey"'
+            USING ERRCODE = 'unique_violation',
+                  CONSTRAINT = 'transaction_keys_pkey',
+                  DETAIL = format('Key (transaction_id)=(%s) already exists.', NEW.transaction_id);
+    END IF;
+    RETURN NULL;
+END $$;
@@ -0,0 +1,118 @@
+package com.transactionengine.transaction.service;
+
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.repository.TransactionRepository;
+import com.transactionengine.transaction.service.TransactionWriteBehindBuffer.WriteBehindException;
+import com.transactionengine.transaction.service.outbox.TransactionOutbox;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionWriteBehindBufferTest {
+
+    private final TransactionRepository repository = mock(TransactionRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final CountDownLatch commit = new CountDownLatch(1);
+    private final CountDownLatch flushing = new CountDownLatch(1);
+    private final List<String> saved = new CopyOnWriteArrayList<>();
+    private TransactionWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        // Every batch blocks in saveAll until the test lets it commit
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            List<Transaction> batch = new ArrayList<>();
+            invocation.<Iterable<Transaction>>getArgument(0).forEach(batch::add);
+            flushing.countDown();
+            commit.await();
+            batch.forEach(transaction -> saved.add(transaction.getTransactionId()));
+            return batch;
+        });
+
+        buffer = new TransactionWriteBehindBuffer(repository, transactionTemplate, mock(TransactionOutbox.class));
+        ReflectionTestUtils.setField(buffer, "batchSize", 1);
+        ReflectionTestUtils.setField(buffer, "flushIntervalMs", 1L);
+        ReflectionTestUtils.setField(buffer, "queueCapacity", 10);
+        ReflectionTestUtils.setField(buffer, "writeTimeoutMs", 100L);
+        buffer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        commit.countDown();
+        buffer.stop();
+    }
+
+    @Test
+    void timedOutWriteStillQueuedIsCancelledAndNeverCommitted() throws Exception {
+        CompletableFuture<Transaction> first = buffer.submit(transaction("TXN-1"));
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The flusher is stuck on TXN-1, so TXN-2 is still queued when its caller gives up
+        assertThatThrownBy(() -> buffer.write(transaction("TXN-2")))
+            .isInstanceOf(WriteBehindException.class)
+            .hasMessageContaining("Timed out");
+
+        commit.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getTransactionId()).isEqualTo("TXN-1");
+        CompletableFuture<Transaction> third = buffer.submit(transaction("TXN-3"));
+        third.get(5, TimeUnit.SECONDS);
+
+        assertThat(saved).containsExactly("TXN-1", "TXN-3");
+    }
+
+    @Test
+    void timedOutWriteAlreadyFlushingWaitsForItsOutcome() throws Exception {
+        CompletableFuture<Transaction> result = CompletableFuture.supplyAsync(() -> buffer.write(transaction("TXN-1")));
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Let the write time out while its batch is in flight, then commit the batch
+        Thread.sleep(300);
+        assertThat(result).isNotDone();
+        commit.countDown();
+
+        assertThat(result.get(5, TimeUnit.SECONDS).getTransactionId()).isEqualTo("TXN-1");
+        assertThat(saved).containsExactly("TXN-1");
+    }
+
+    @Test
+    void stopFailsQueuedWritesWhenTheFlusherIsStuck() throws Exception {
+        buffer.submit(transaction("TXN-1"));
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Transaction> queued = buffer.submit(transaction("TXN-2"));
+
+        long started = System.nanoTime();
+        buffer.stop();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(2_000);
+        assertThatThrownBy(() -> queued.get(1, TimeUnit.SECONDS))
+            .hasCauseInstanceOf(WriteBehindException.class);
+        commit.countDown();
+        assertThat(saved).doesNotContain("TXN-2");
+    }
+
+    private static Transaction transaction(String transactionId) {
+        return Transaction.builder()
+            .transactionId(transactionId)
+            .status(Transaction.TransactionStatus.COMPLETED)
+            .build();
+    }
+}
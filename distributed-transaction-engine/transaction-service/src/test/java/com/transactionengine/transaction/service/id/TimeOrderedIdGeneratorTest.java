@@ -0,0 +1,121 @@
+package com.transactionengine.transaction.service.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeOrderedIdGeneratorTest {
+
+    private static final long NOW = TimeOrderedIdGenerator.EPOCH_MILLIS + 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+
+    @Test
+    void staysIncreasingWhenTheClockStepsBack() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(7, clock::get);
+
+        long before = generator.nextLong();
+        clock.set(NOW - 5_000);
+        long after = generator.nextLong();
+        long later = generator.nextLong();
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(later).isGreaterThan(after);
+    }
+
+    @Test
+    void resumesTheClockOnceItCatchesUp() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(7, clock::get);
+        generator.nextLong();
+        clock.set(NOW - 5_000);
+        long stepped = generator.nextLong();
+
+        clock.set(NOW + 1);
+        long caughtUp = generator.nextLong();
+
+        assertThat(caughtUp).isGreaterThan(stepped);
+        assertThat(millis(caughtUp)).isEqualTo(NOW + 1 - TimeOrderedIdGenerator.EPOCH_MILLIS);
+    }
+
+    @Test
+    void borrowsTheNextMillisecondWhenTheSequenceOverflows() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(7, clock::get);
+
+        long previous = -1;
+        for (int i = 0; i < 5_000; i++) {
+            long id = generator.nextLong();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+        assertThat(millis(previous)).isEqualTo(NOW + 1 - TimeOrderedIdGenerator.EPOCH_MILLIS);
+    }
+
+    @Test
+    void embedsTheNodeId() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE_ID, clock::get);
+
+        assertThat((generator.nextLong() >>> 12) & TimeOrderedIdGenerator.MAX_NODE_ID)
+            .isEqualTo(TimeOrderedIdGenerator.MAX_NODE_ID);
+    }
+
+    @Test
+    void stringIdsSortLikeTheirNumbers() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(3, clock::get);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(generator.nextId("TXN-"));
+            clock.addAndGet(i % 3 == 0 ? -2 : 37);
+        }
+
+        assertThat(ids).isSorted().allMatch(id -> id.length() == 4 + TimeOrderedIdGenerator.ENCODED_LENGTH);
+    }
+
+    @Test
+    void issuesUniqueIdsAcrossThreads() throws InterruptedException {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1);
+        int threads = 8;
+        int perThread = 20_000;
+        List<long[]> results = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long[] ids = new long[perThread];
+            results.add(ids);
+            workers.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids[i] = generator.nextLong();
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Set<Long> unique = new HashSet<>();
+        for (long[] ids : results) {
+            for (long id : ids) {
+                unique.add(id);
+            }
+        }
+        assertThat(unique).hasSize(threads * perThread);
+    }
+
+    @Test
+    void rejectsNodeIdsOutOfRange() {
+        assertThatThrownBy(() -> new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE_ID + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TimeOrderedIdGenerator(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long millis(long id) {
+        return id >>> 22;
+    }
+}
@@ -0,0 +1,56 @@
+package com.transactionengine.transaction.service.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScalableBloomFilterTest {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    // The sampling error over 100,000 probes is about 3% of the rate
+    private static final double TOLERANCE = 1.1;
+
+    @Test
+    void neverReportsAnInsertedIdAsAbsent() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < 20_000; i++) {
+            filter.put("TXN-" + i);
+        }
+
+        for (int i = 0; i < 20_000; i++) {
+            assertThat(filter.mightContain("TXN-" + i)).as("TXN-%d", i).isTrue();
+        }
+        assertThat(filter.approximateSize()).isEqualTo(20_000);
+    }
+
+    @Test
+    void staysWithinTheFalsePositiveRateAtCapacity() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100_000, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("TXN-" + i);
+        }
+
+        assertThat(falsePositiveRate(filter, 100_000)).isLessThanOrEqualTo(FALSE_POSITIVE_RATE * TOLERANCE);
+    }
+
+    @Test
+    void staysWithinTheFalsePositiveRateAfterGrowing() {
+        // 63x the initial capacity fills six stages
+        ScalableBloomFilter filter = new ScalableBloomFilter(2_000, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < 126_000; i++) {
+            filter.put("TXN-" + i);
+        }
+
+        assertThat(falsePositiveRate(filter, 100_000)).isLessThanOrEqualTo(FALSE_POSITIVE_RATE * TOLERANCE);
+    }
+
+    private static double falsePositiveRate(ScalableBloomFilter filter, int probes) {
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("ABSENT-" + i)) {
+                falsePositives++;
+            }
+        }
+        return (double) falsePositives / probes;
+    }
+}
@@ -0,0 +1,155 @@
+package com.transactionengine.transaction.service.importer;
+
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import com.transactionengine.transaction.model.Transaction.TransactionType;
+import com.transactionengine.transaction.service.importer.SettlementCsvParser.SettlementFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SettlementCsvParserTest {
+
+    private static final String HEADER =
+        "transaction_id,amount,currency,type,account_from,account_to,timestamp,status,merchant,category,country\n";
+
+    @Test
+    void parsesARow() {
+        SettlementRecord record = parseOne(
+            "TXN-1,2500.00,USD,TRANSFER,ACC100,ACC200,2025-01-07T10:15:30Z,completed,Direct Transfer,P2P,US\n");
+
+        assertThat(record.transactionId).isEqualTo("TXN-1");
+        assertThat(record.amountMinorUnits).isEqualTo(250_000);
+        assertThat(record.currency).isEqualTo("USD");
+        assertThat(record.type).isEqualTo(TransactionType.TRANSFER);
+        assertThat(record.accountFrom).isEqualTo("ACC100");
+        assertThat(record.accountTo).isEqualTo("ACC200");
+        assertThat(record.timestamp).isEqualTo(LocalDateTime.of(2025, 1, 7, 10, 15, 30));
+        assertThat(record.status).isEqualTo(TransactionStatus.COMPLETED);
+        assertThat(record.merchant).isEqualTo("Direct Transfer");
+        assertThat(record.category).isEqualTo("P2P");
+        assertThat(record.country).isEqualTo("US");
+    }
+
+    @Test
+    void readsAmountsIntoMinorUnits() {
+        assertThat(parseOne(row("150.5", "2025-01-07T10:15:30Z")).amountMinorUnits).isEqualTo(15_050);
+        assertThat(parseOne(row("7", "2025-01-07T10:15:30Z")).amountMinorUnits).isEqualTo(700);
+        assertThat(parseOne(row("0.01", "2025-01-07T10:15:30Z")).amountMinorUnits).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsInvalidAmounts() {
+        assertRejected(row("1.001", "2025-01-07T10:15:30Z"), "more than two decimal places");
+        assertRejected(row("-5.00", "2025-01-07T10:15:30Z"), "greater than zero");
+        assertRejected(row("0.00", "2025-01-07T10:15:30Z"), "greater than zero");
+        assertRejected(row("1.2.3", "2025-01-07T10:15:30Z"), "invalid amount");
+        assertRejected(row("", "2025-01-07T10:15:30Z"), "amount is required");
+        assertRejected(row("92233720368547758.08", "2025-01-07T10:15:30Z"), "out of range");
+    }
+
+    @Test
+    void skipsTheHeaderOnlyAtTheStartOfTheFile() {
+        SettlementCsvParser first = parser(HEADER + row("1.00", "2025-01-07T10:15:30Z"), 0);
+        SettlementRecord record = new SettlementRecord();
+        assertThat(first.next(record)).isTrue();
+        assertThat(record.transactionId).isEqualTo("TXN-1");
+
+        // A later chunk starting with the same text is a malformed row, not a header
+        SettlementCsvParser later = parser(HEADER, 4096);
+        assertThatThrownBy(() -> later.next(new SettlementRecord()))
+            .isInstanceOf(SettlementFormatException.class)
+            .hasMessageStartingWith("Row at byte 4096");
+    }
+
+    @Test
+    void acceptsCrLfLineEndingsAndSkipsBlankLines() {
+        SettlementCsvParser parser = parser(HEADER.replace("\n", "\r\n")
+            + row("1.00", "2025-01-07T10:15:30Z").replace("\n", "\r\n")
+            + "\r\n"
+            + row("2.00", "2025-01-07T10:15:30Z").replace("\n", "\r\n").replace("TXN-1", "TXN-2"), 0);
+
+        SettlementRecord record = new SettlementRecord();
+        assertThat(parser.next(record)).isTrue();
+        assertThat(record.country).isEqualTo("US");
+        assertThat(parser.next(record)).isTrue();
+        assertThat(record.transactionId).isEqualTo("TXN-2");
+        assertThat(parser.next(record)).isFalse();
+    }
+
+    @Test
+    void rejectsRowsWithTheWrongNumberOfFields() {
+        assertRejected("TXN-1,1.00,USD,TRANSFER,ACC100,ACC200,2025-01-07T10:15:30Z,completed,Shop,Retail\n",
+            "expected 11 fields, found 10");
+        assertRejected("TXN-1,1.00,USD,TRANSFER,ACC100,ACC200,2025-01-07T10:15:30Z,completed,Shop,Retail,US,X\n",
+            "more than 11 fields");
+    }
+
+    @Test
+    void movesPastARejectedRow() {
+        SettlementCsvParser parser = parser("TXN-1,oops\n" + row("3.00", "2025-01-07T10:15:30Z"), 0);
+        SettlementRecord record = new SettlementRecord();
+
+        assertThatThrownBy(() -> parser.next(record)).isInstanceOf(SettlementFormatException.class);
+        assertThat(parser.next(record)).isTrue();
+        assertThat(record.amountMinorUnits).isEqualTo(300);
+    }
+
+    @Test
+    void readsUtcTimestampsOnTheFastPath() {
+        assertThat(parseOne(row("1.00", "2025-01-07T10:15:30.123456Z")).timestamp)
+            .isEqualTo(LocalDateTime.of(2025, 1, 7, 10, 15, 30, 123_456_000));
+        assertRejected(row("1.00", "2025-02-30T10:15:30Z"), "invalid timestamp");
+        assertRejected(row("1.00", "2025-0x-07T10:15:30Z"), "invalid timestamp");
+    }
+
+    @Test
+    void convertsOtherTimestampFormsToUtc() {
+        assertThat(parseOne(row("1.00", "2025-01-07T12:15:30+02:00")).timestamp)
+            .isEqualTo(LocalDateTime.of(2025, 1, 7, 10, 15, 30));
+        assertThat(parseOne(row("1.00", "2025-01-07T10:15Z")).timestamp)
+            .isEqualTo(LocalDateTime.of(2025, 1, 7, 10, 15));
+        assertRejected(row("1.00", "07/01/2025 10:15"), "invalid timestamp");
+    }
+
+    @Test
+    void rejectsTimestampsWithoutAPartition() {
+        LocalDateTime end = LocalDateTime.of(2025, 2, 1, 0, 0);
+        SettlementCsvParser parser = new SettlementCsvParser(bytes(
+            row("1.00", "2025-01-31T23:59:59Z") + row("1.00", "2025-02-01T00:00:00Z")), 0, end::isAfter);
+        SettlementRecord record = new SettlementRecord();
+
+        assertThat(parser.next(record)).isTrue();
+        assertThatThrownBy(() -> parser.next(record))
+            .isInstanceOf(SettlementFormatException.class)
+            .hasMessageContaining("no transactions partition");
+    }
+
+    private static String row(String amount, String timestamp) {
+        return "TXN-1," + amount + ",USD,PAYMENT,ACC100,MERCHANT001," + timestamp + ",completed,Shop,Retail,US\n";
+    }
+
+    private static SettlementRecord parseOne(String csv) {
+        SettlementRecord record = new SettlementRecord();
+        assertThat(parser(csv, 0).next(record)).isTrue();
+        return record;
+    }
+
+    private static void assertRejected(String csv, String message) {
+        assertThatThrownBy(() -> parser(csv, 0).next(new SettlementRecord()))
+            .isInstanceOf(SettlementFormatException.class)
+            .hasMessageContaining(message);
+    }
+
+    private static SettlementCsvParser parser(String csv, long offset) {
+        return new SettlementCsvParser(bytes(csv), offset);
+    }
+
+    private static ByteBuffer bytes(String csv) {
+        return ByteBuffer.wrap(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
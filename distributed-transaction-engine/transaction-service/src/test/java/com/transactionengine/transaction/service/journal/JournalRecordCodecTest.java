@@ -0,0 +1,98 @@
+package com.transactionengine.transaction.service.journal;
+
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import com.transactionengine.transaction.model.Transaction.TransactionType;
+import com.transactionengine.transaction.service.journal.JournalRecordCodec.JournalEntry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalRecordCodecTest {
+
+    @Test
+    void roundTripsEveryField() {
+        Transaction transaction = Transaction.builder()
+            .id("0123456789ABC")
+            .transactionId("TXN-0123456789ABC")
+            .accountFrom("ACC-1")
+            .accountTo("ACC-2")
+            .amount(new BigDecimal("1234.56"))
+            .currency("EUR")
+            .type(TransactionType.TRANSFER)
+            .status(TransactionStatus.COMPLETED)
+            .description("Rent, März")
+            .metadata("{\"channel\":\"api\"}")
+            .createdAt(LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_456_000))
+            .updatedAt(LocalDateTime.of(2024, 3, 1, 12, 0, 1))
+            .completedAt(LocalDateTime.of(2024, 3, 1, 12, 0, 2, 999_999_000))
+            .retryCount(2)
+            .version(7L)
+            .build();
+
+        Transaction decoded = roundTrip(transaction).transaction();
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(transaction);
+    }
+
+    @Test
+    void roundTripsNulls() {
+        Transaction transaction = Transaction.builder()
+            .transactionId("TXN-1")
+            .retryable(true)
+            .build();
+        transaction.setRetryCount(null);
+
+        Transaction decoded = roundTrip(transaction).transaction();
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(transaction);
+    }
+
+    @Test
+    void keepsTheRetryableFlagOutOfTheStatus() {
+        Transaction transaction = Transaction.builder()
+            .transactionId("TXN-1")
+            .status(TransactionStatus.FAILED)
+            .failureReason("Insufficient funds")
+            .retryable(false)
+            .build();
+
+        Transaction decoded = roundTrip(transaction).transaction();
+
+        assertThat(decoded.getStatus()).isEqualTo(TransactionStatus.FAILED);
+        assertThat(decoded.getRetryable()).isFalse();
+    }
+
+    @Test
+    void leavesTheSequenceToTheJournal() {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        JournalRecordCodec.encode(Transaction.builder().transactionId("TXN-1").build(), buffer);
+        buffer.putLong(JournalRecordCodec.SEQUENCE_OFFSET, 42L);
+        buffer.flip();
+
+        assertThat(JournalRecordCodec.decode(buffer).sequence()).isEqualTo(42L);
+    }
+
+    @Test
+    void consumesExactlyOneRecord() {
+        ByteBuffer buffer = ByteBuffer.allocate(2048);
+        JournalRecordCodec.encode(Transaction.builder().transactionId("TXN-1").build(), buffer);
+        JournalRecordCodec.encode(Transaction.builder().transactionId("TXN-2").build(), buffer);
+        buffer.flip();
+
+        assertThat(JournalRecordCodec.decode(buffer).transaction().getTransactionId()).isEqualTo("TXN-1");
+        assertThat(JournalRecordCodec.decode(buffer).transaction().getTransactionId()).isEqualTo("TXN-2");
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    private static JournalEntry roundTrip(Transaction transaction) {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        JournalRecordCodec.encode(transaction, buffer);
+        buffer.flip();
+        return JournalRecordCodec.decode(buffer);
+    }
+}
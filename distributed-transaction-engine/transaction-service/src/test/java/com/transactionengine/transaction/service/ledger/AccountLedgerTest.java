@@ -0,0 +1,85 @@
+package com.transactionengine.transaction.service.ledger;
+
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.service.ledger.AccountLedger.InsufficientFundsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountLedgerTest {
+
+    private AccountLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new AccountLedger();
+        ReflectionTestUtils.setField(ledger, "shardCount", 4);
+        ReflectionTestUtils.setField(ledger, "queueCapacity", 1024);
+        ReflectionTestUtils.setField(ledger, "submitTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(ledger, "applyTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(ledger, "overdraftLimit", 0L);
+        ledger.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ledger.stop();
+    }
+
+    @Test
+    void debitWaitsForACreditFromAnotherShardEarlierInTheBatch() {
+        for (int round = 0; round < 200; round++) {
+            String first = "ACC-A-" + round;
+            String second = accountOnAnotherShard(first, "ACC-B-" + round);
+            ledger.restore(first, "USD", 10_000);
+
+            List<RuntimeException> failures = ledger.applyAll(List.of(
+                transfer(first, second, "100.00"),
+                transfer(second, "ACC-C-" + round, "100.00")));
+
+            assertThat(failures).containsOnlyNulls();
+        }
+    }
+
+    @Test
+    void reportsInsufficientFundsPerTransaction() {
+        ledger.restore("ACC-1", "USD", 5_000);
+
+        List<RuntimeException> failures = ledger.applyAll(List.of(
+            transfer("ACC-1", "ACC-2", "30.00"),
+            transfer("ACC-1", "ACC-3", "30.00"),
+            transfer("ACC-1", "ACC-4", "20.00")));
+
+        assertThat(failures.get(0)).isNull();
+        assertThat(failures.get(1)).isInstanceOf(InsufficientFundsException.class);
+        assertThat(failures.get(2)).isNull();
+        assertThat(ledger.balance("ACC-1", "USD").join()).isZero();
+    }
+
+    private String accountOnAnotherShard(String account, String prefix) {
+        Object shard = ReflectionTestUtils.invokeMethod(ledger, "shardFor", account);
+        for (int i = 0; ; i++) {
+            String candidate = prefix + "-" + i;
+            if (ReflectionTestUtils.invokeMethod(ledger, "shardFor", candidate) != shard) {
+                return candidate;
+            }
+        }
+    }
+
+    private static Transaction transfer(String from, String to, String amount) {
+        return Transaction.builder()
+            .transactionId("TXN-" + from + "-" + to)
+            .accountFrom(from)
+            .accountTo(to)
+            .amount(new BigDecimal(amount))
+            .currency("USD")
+            .type(Transaction.TransactionType.TRANSFER)
+            .build();
+    }
+}
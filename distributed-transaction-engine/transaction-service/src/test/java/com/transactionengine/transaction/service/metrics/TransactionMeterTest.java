@@ -0,0 +1,105 @@
+package com.transactionengine.transaction.service.metrics;
+
+import com.transactionengine.transaction.model.Transaction;
+import com.transactionengine.transaction.model.Transaction.TransactionStatus;
+import com.transactionengine.transaction.model.Transaction.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionMeterTest {
+
+    // Seconds 100 and 164 share a slot of the 64-second ring
+    private static final long SECOND = 100;
+    private static final long RING_SECONDS = 64;
+
+    private final AtomicLong clockMillis = new AtomicLong(SECOND * 1000);
+    private TransactionMeter meter;
+
+    @BeforeEach
+    void setUp() {
+        meter = new TransactionMeter(new SimpleMeterRegistry(), clockMillis::get);
+        meter.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        meter.stop();
+    }
+
+    @Test
+    void ratesCoverCompleteSecondsOnly() {
+        record(3, "EUR");
+        assertThat(meter.rate(1)).isZero();
+
+        at(SECOND + 1);
+        assertThat(meter.rate(1)).isEqualTo(3.0);
+        assertThat(meter.rate(10)).isEqualTo(0.3);
+    }
+
+    @Test
+    void staleBucketIsReplacedWhenTheRingWrapsAround() {
+        record(5, "EUR");
+
+        at(SECOND + RING_SECONDS);
+        record(1, "EUR");
+
+        at(SECOND + RING_SECONDS + 1);
+        assertThat(meter.rate(1)).isEqualTo(1.0);
+    }
+
+    @Test
+    void slotsLeftOverFromAnEarlierLapAreNotCounted() {
+        record(5, "EUR");
+
+        // Window 105..164 reads the slot of 164, which still holds second 100
+        at(SECOND + RING_SECONDS + 1);
+        assertThat(meter.rate(60)).isZero();
+    }
+
+    @Test
+    void clockSteppingBackCountsIntoTheNewerSecond() {
+        at(SECOND + RING_SECONDS);
+        record(1, "EUR");
+
+        at(SECOND);
+        record(1, "EUR");
+
+        at(SECOND + RING_SECONDS + 1);
+        assertThat(meter.rate(1)).isEqualTo(2.0);
+    }
+
+    @Test
+    void currenciesBeyondTheCapShareTheOtherSeries() {
+        for (int i = 0; i < 40; i++) {
+            record(1, "C" + i);
+        }
+
+        at(SECOND + 1);
+        Map<String, Map<String, Double>> byCurrency = meter.snapshot().byCurrency();
+        assertThat(byCurrency).hasSize(32).containsKey("OTHER");
+        assertThat(byCurrency.get("OTHER").get("1s")).isEqualTo(9.0);
+        assertThat(byCurrency).doesNotContainKey("C39");
+    }
+
+    private void at(long second) {
+        clockMillis.set(second * 1000);
+    }
+
+    private void record(int count, String currency) {
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = Transaction.builder()
+                .type(TransactionType.TRANSFER)
+                .status(TransactionStatus.COMPLETED)
+                .currency(currency)
+                .build();
+            meter.record(transaction, 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.transactionengine.transaction.service.retry;
+
+import com.transactionengine.transaction.service.retry.RetryQueue.RetryItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalRetryQueueTest {
+
+    private final LocalRetryQueue queue = new LocalRetryQueue();
+
+    @Test
+    void pollsOnlyDueItemsOldestFirst() {
+        queue.schedule("TXN-3", "p3", 300);
+        queue.schedule("TXN-1", "p1", 100);
+        queue.schedule("TXN-2", "p2", 200);
+
+        List<RetryItem> due = queue.pollDue(250, 10, 10_000);
+
+        assertThat(due).extracting(RetryItem::transactionId).containsExactly("TXN-1", "TXN-2");
+        assertThat(due.get(0)).isEqualTo(new RetryItem("TXN-1", "p1", 100, 10_000));
+    }
+
+    @Test
+    void pollsAtMostMaxItems() {
+        queue.schedule("TXN-1", "p1", 100);
+        queue.schedule("TXN-2", "p2", 200);
+
+        assertThat(queue.pollDue(1_000, 1, 10_000)).extracting(RetryItem::transactionId).containsExactly("TXN-1");
+    }
+
+    @Test
+    void leasedItemsAreNotPolledAgainUntilTheLeaseExpires() {
+        queue.schedule("TXN-1", "p1", 100);
+        queue.pollDue(100, 10, 5_000);
+
+        assertThat(queue.pollDue(4_999, 10, 10_000)).isEmpty();
+        assertThat(queue.size()).isEqualTo(1);
+
+        List<RetryItem> redelivered = queue.pollDue(5_000, 10, 10_000);
+        assertThat(redelivered).extracting(RetryItem::transactionId).containsExactly("TXN-1");
+        assertThat(redelivered.get(0).dueAtMillis()).isEqualTo(5_000);
+    }
+
+    @Test
+    void acknowledgeRemovesTheLeasedItem() {
+        queue.schedule("TXN-1", "p1", 100);
+        RetryItem item = queue.pollDue(100, 10, 5_000).get(0);
+
+        queue.acknowledge(item);
+
+        assertThat(queue.size()).isZero();
+        assertThat(queue.pollDue(Long.MAX_VALUE, 10, Long.MAX_VALUE)).isEmpty();
+    }
+
+    @Test
+    void acknowledgeKeepsAnItemRescheduledSinceItWasPolled() {
+        queue.schedule("TXN-1", "p1", 100);
+        RetryItem item = queue.pollDue(100, 10, 5_000).get(0);
+
+        // The attempt failed again and its fallback queued the next one
+        queue.schedule("TXN-1", "p1-retry", 2_000);
+        queue.acknowledge(item);
+
+        assertThat(queue.size()).isEqualTo(1);
+        assertThat(queue.pollDue(2_000, 10, 10_000))
+            .extracting(RetryItem::payload)
+            .containsExactly("p1-retry");
+    }
+
+    @Test
+    void acknowledgeOfAnExpiredLeaseKeepsTheRedeliveredItem() {
+        queue.schedule("TXN-1", "p1", 100);
+        RetryItem stale = queue.pollDue(100, 10, 5_000).get(0);
+        queue.pollDue(5_000, 10, 10_000);
+
+        queue.acknowledge(stale);
+
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    void scheduleReplacesTheItemOfATransaction() {
+        queue.schedule("TXN-1", "p1", 100);
+        queue.schedule("TXN-1", "p2", 200);
+
+        assertThat(queue.size()).isEqualTo(1);
+        assertThat(queue.pollDue(150, 10, 10_000)).isEmpty();
+        assertThat(queue.pollDue(200, 10, 10_000)).extracting(RetryItem::payload).containsExactly("p2");
+    }
+
+    @Test
+    void deadLetterMovesTheItemOutOfTheQueue() {
+        queue.schedule("TXN-1", "p1", 100);
+
+        queue.deadLetter("TXN-1", "p1");
+
+        assertThat(queue.size()).isZero();
+        assertThat(queue.deadLetterSize()).isEqualTo(1);
+        assertThat(queue.pollDue(Long.MAX_VALUE, 10, Long.MAX_VALUE)).isEmpty();
+    }
+}